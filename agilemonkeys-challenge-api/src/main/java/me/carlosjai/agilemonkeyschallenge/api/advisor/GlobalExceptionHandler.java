@@ -8,6 +8,7 @@ import java.util.List;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.ErrorResponse;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -27,6 +28,7 @@ import org.springframework.web.server.ResponseStatusException;
  *   <li>{@link UsernameNotFoundException}</li>
  *   <li>{@link MethodArgumentNotValidException}</li>
  *   <li>{@link ResponseStatusException}</li>
+ *   <li>{@link OptimisticLockingFailureException}</li>
  * </ul>
  * <p>
  * Each exception is caught and translated into a custom {@link ErrorResponse}
@@ -140,6 +142,26 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
   }
 
+  /**
+   * Handles {@link OptimisticLockingFailureException}, raised when an entity was modified by another
+   * request between its read and its update, and returns a 412 Precondition Failed response.
+   *
+   * @param ex the thrown {@link OptimisticLockingFailureException}
+   * @return a {@link ResponseEntity} containing the error response and HTTP 412 status
+   */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+      OptimisticLockingFailureException ex) {
+    ErrorResponse response = ErrorResponse.builder()
+        .status(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+        .timestamp(LocalDateTime.now())
+        .message(List.of(ErrorCodeEnum.VERSION_MISMATCH.getErrorMessage()))
+        .errorCode(ErrorCodeEnum.VERSION_MISMATCH.name())
+        .build();
+
+    return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+  }
+
   @ExceptionHandler(ExpiredJwtException.class)
   public ResponseEntity<ErrorResponse> handleExpiredJwtException(
       ExpiredJwtException ex) {
@@ -0,0 +1,23 @@
+package me.carlosjai.agilemonkeyschallenge.api.base.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "http.cache-control")
+@Data
+public class HttpCacheConfiguration {
+
+  /**
+   * {@code Cache-Control} header of the customer detail endpoint, omitted when blank.
+   */
+  private String customerDetail = "private, no-cache";
+
+  /**
+   * {@code Cache-Control} header of the user detail endpoint, omitted when blank.
+   */
+  private String userDetail = "private, no-cache";
+}
@@ -14,6 +14,16 @@ import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
  * current page, page size, sort field, and sort order. This class is used to encapsulate the paging
  * and sorting details for API requests that require pagination.
  *
+ * <p>Setting a {@code cursor} switches to keyset pagination: an empty cursor requests the first
+ * page and the {@code nextCursor} of a {@link
+ * me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse} requests the following
+ * one. Keyset pages keep a stable cost whatever their depth, but only support the default
+ * sorting.</p>
+ *
+ * <p>{@code countMode} selects how the totals of offset pages are computed: {@code exact} (the
+ * default) runs a {@code count(*)}, {@code estimated} trades accuracy for speed and {@code none}
+ * skips the count and only reports whether there is a following page.</p>
+ *
  * <p>It implements {@link Serializable} to allow easy transmission of instances, and uses Jackson
  * annotations for JSON property mapping.</p>
  */
@@ -34,5 +44,9 @@ public class BasePageRequest implements Serializable {
   protected String sortBy;
   @JsonProperty(Constants.SORT_ORDER_PARAM)
   protected String sortOrder;
+  @JsonProperty(Constants.CURSOR_PARAM)
+  protected String cursor;
+  @JsonProperty(Constants.COUNT_PARAM)
+  protected String countMode;
 
 }
@@ -15,6 +15,9 @@ import lombok.Setter;
  *
  * <p>It is designed to work with any type of content, as specified by the generic type parameter
  * {@code <A>}.</p>
+ *
+ * <p>Keyset paginated responses fill {@code nextCursor} with the token of the following page, or
+ * leave it {@code null} when there are no more results.</p>
  */
 @Getter
 @Setter
@@ -27,4 +30,5 @@ public class BasePageResponse<A> implements Serializable {
   private static final long serialVersionUID = -3314791722034652424L;
   private List<A> content;
   private PageMetaData metaData;
+  private String nextCursor;
 }
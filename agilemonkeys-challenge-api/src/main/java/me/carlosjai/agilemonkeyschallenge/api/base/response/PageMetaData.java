@@ -4,10 +4,15 @@ import java.io.Serial;
 import java.io.Serializable;
 import lombok.Builder;
 import lombok.Getter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 /**
  * Represents the metadata for a paginated response, including details about the current page, page
  * size, total number of pages, and total number of elements.
+ *
+ * <p>The totals are {@code null} when the search skipped the count, and {@code approximate} when
+ * they were estimated.</p>
  */
 @Getter
 @Builder
@@ -17,6 +22,25 @@ public class PageMetaData implements Serializable {
   private static final long serialVersionUID = -4831590841220349667L;
   private final int currentPage;
   private final int pageSize;
-  private final int totalPages;
-  private final long totalElements;
+  private final Integer totalPages;
+  private final Long totalElements;
+  private final boolean hasNext;
+  private final boolean approximate;
+
+  /**
+   * Builds the metadata of a page, including its totals when the slice is a {@link Page}.
+   *
+   * @param approximate whether the totals of the page were estimated
+   */
+  public static PageMetaData of(Slice<?> slice, boolean approximate) {
+    final var builder = PageMetaData.builder().currentPage(slice.getNumber() + 1)
+        .pageSize(slice.getSize())
+        .hasNext(slice.hasNext());
+    if (slice instanceof Page<?> page) {
+      builder.totalPages(page.getTotalPages())
+          .totalElements(page.getTotalElements())
+          .approximate(approximate);
+    }
+    return builder.build();
+  }
 }
@@ -0,0 +1,69 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.function.Function;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.BoundedCache;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.CacheStats;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caches the {@link CustomerDto} served by the customer detail endpoint. Entries are evicted once
+ * the transaction updating or deleting the customer commits, and the eviction discards any load
+ * in flight, so a detail read before the change is never cached after it.
+ */
+@Component
+public class CustomerDetailCache implements MeterBinder {
+
+  private final BoundedCache<Long, CustomerDto> cache;
+
+  public CustomerDetailCache(
+      @Value("${customer.detail-cache.maximum-size:10000}") int maximumSize,
+      @Value("${customer.detail-cache.time-to-live:5m}") Duration timeToLive) {
+    this.cache = new BoundedCache<>("customer.detail", maximumSize, timeToLive);
+  }
+
+  /**
+   * Returns the cached detail of the customer, using the loader on a miss. Concurrent misses for
+   * the same customer share a single load. Missing customers ({@code null}) are not cached.
+   */
+  public CustomerDto get(Long customerId, Function<Long, CustomerDto> loader) {
+    return cache.get(customerId, loader);
+  }
+
+  public void evict(Long customerId) {
+    if (customerId != null) {
+      cache.evict(customerId);
+    }
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCustomerChanged(CustomerChangedEvent event) {
+    evict(event.getCustomerId());
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCustomersChanged(CustomersChangedEvent event) {
+    event.getCustomerIds().forEach(this::evict);
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    cache.bindTo(registry);
+  }
+}
@@ -1,5 +1,7 @@
 package me.carlosjai.agilemonkeyschallenge.api.customer.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.Validation;
@@ -8,19 +10,30 @@ import jakarta.validation.ValidatorFactory;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
+import me.carlosjai.agilemonkeyschallenge.api.base.config.HttpCacheConfiguration;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchMutationResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchResponse;
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchMutationRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerMergePatch;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerUpdateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.service.CustomerServiceAdapter;
 import me.carlosjai.agilemonkeyschallenge.api.customer.validation.ContentTypeValidator;
+import me.carlosjai.agilemonkeyschallenge.api.util.ETagUtil;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
 import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,10 +42,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
@@ -52,12 +67,17 @@ import org.springframework.web.multipart.MultipartFile;
  *
  * <p>Endpoints in this controller:
  * <ul>
- *   <li>{@link #getCustomerDetail(String)}: Retrieves a customer by ID.</li>
+ *   <li>{@link #getCustomerDetail(String, String)}: Retrieves a customer by ID, answering 304 when it did not change.</li>
+ *   <li>{@link #getCustomersByIds(CustomerBatchRequest)}: Retrieves several customers by ID at once.</li>
  *   <li>{@link #getAllCustomers(CustomerSearchRequest)}: Retrieves a paginated list of customers based on search criteria.</li>
  *   <li>{@link #createCustomer(CustomerCreateRequest)}: Creates a new customer.</li>
- *   <li>{@link #updateCustomer(CustomerUpdateRequest)}: Updates an existing customer.</li>
+ *   <li>{@link #mutateCustomers(CustomerBatchMutationRequest)}: Creates, updates and deletes several customers in one transaction.</li>
+ *   <li>{@link #importCustomers(HttpServletRequest)}: Creates the customers of a CSV or NDJSON body.</li>
+ *   <li>{@link #exportCustomers(CustomerSearchRequest, HttpServletRequest, HttpServletResponse)}: Streams the matching customers as CSV or NDJSON.</li>
+ *   <li>{@link #updateCustomer(CustomerUpdateRequest, String)}: Updates an existing customer, optionally only if it did not change (If-Match).</li>
+ *   <li>{@link #patchCustomer(String, JsonNode, String)}: Partially updates a customer with a JSON Merge Patch.</li>
  *   <li>{@link #deleteCustomer(String)}: Deletes a customer by ID.</li>
- *   <li>{@link #downloadCustomerPicture(String, HttpServletResponse)}: Downloads a customer's picture.</li>
+ *   <li>{@link #downloadCustomerPicture(String, Integer, HttpServletRequest, HttpServletResponse)}: Downloads a customer's picture.</li>
  *   <li>{@link #uploadCustomerPicture(MultiValueMap, String)}: Uploads a picture for a customer.</li>
  * </ul>
  *
@@ -74,6 +94,7 @@ public class CustomerController {
 
   private final CustomerServiceAdapter customerServiceAdapter;
   private final ContentTypeValidator contentTypeValidator;
+  private final HttpCacheConfiguration httpCacheConfiguration;
   private static final Logger log = LoggerFactory.getLogger(CustomerController.class);
 
   private Validator getValidator() {
@@ -83,19 +104,50 @@ public class CustomerController {
   }
 
   /**
-   * Retrieves the details of a customer by their ID.
+   * Retrieves the details of a customer by their ID. The response carries a weak ETag built from
+   * the version of the returned (possibly cached) details, so the body and its ETag always match,
+   * and a matching {@code If-None-Match} is answered with 304 without sending the body.
    *
-   * @param customerId the ID of the customer to retrieve
-   * @return a {@link ResponseEntity} containing the {@link CustomerDto} and an HTTP 200 status
+   * @param customerId  the ID of the customer to retrieve
+   * @param ifNoneMatch optional ETags of the representations already held by the client
+   * @return a {@link ResponseEntity} containing the {@link CustomerDto} and an HTTP 200 status, or
+   * an empty HTTP 304 status when the customer did not change
    */
   @PreAuthorize("hasAnyRole('ADMIN','USER')")
   @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<CustomerDto> getCustomerDetail(
-      @PathVariable(Constants.ID_PARAM) final String customerId) {
+      @PathVariable(Constants.ID_PARAM) final String customerId,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) final String ifNoneMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("getCustomerDetail: {}", customerId);
+      log.debug("getCustomerDetail: {} {}", customerId, ifNoneMatch);
     }
-    return ResponseEntity.ok(customerServiceAdapter.getCustomerDetail(customerId));
+    final var customer = customerServiceAdapter.getCustomerDetail(customerId);
+    final var etag = ETagUtil.weak(new EntityVersion(customer.getId(), customer.getVersion()));
+    final var cacheControl = StringUtils.trimToNull(httpCacheConfiguration.getCustomerDetail());
+    if (ETagUtil.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+          .headers(headers -> headers.setCacheControl(cacheControl)).build();
+    }
+    return ResponseEntity.ok().eTag(etag)
+        .headers(headers -> headers.setCacheControl(cacheControl))
+        .body(customer);
+  }
+
+  /**
+   * Retrieves several customers by their IDs with a single query, keeping the order of the IDs.
+   *
+   * @param batchRequest the IDs of the customers to retrieve
+   * @return a {@link ResponseEntity} containing the {@link CustomerBatchResponse} and an HTTP 200
+   * status
+   */
+  @PreAuthorize("hasAnyRole('ADMIN','USER')")
+  @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomerBatchResponse> getCustomersByIds(
+      @Valid @RequestBody final CustomerBatchRequest batchRequest) {
+    if (log.isDebugEnabled()) {
+      log.debug("getCustomersByIds: {}", batchRequest);
+    }
+    return ResponseEntity.ok(customerServiceAdapter.getCustomersByIds(batchRequest));
   }
 
   /**
@@ -135,21 +187,118 @@ public class CustomerController {
   }
 
   /**
-   * Updates an existing customer.
+   * Creates, updates and deletes several customers in a single transaction.
    *
-   * @param updateRequest the request containing customer update data
-   * @return a {@link ResponseEntity} containing the updated {@link CustomerDto} and an HTTP 200
+   * @param mutationRequest the request containing the operations to apply
+   * @return a {@link ResponseEntity} containing the {@link CustomerBatchMutationResponse} and an
+   * HTTP 200 status
+   */
+  @PreAuthorize("hasAnyRole('ADMIN','USER')")
+  @PostMapping(value = "/batch/mutate", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomerBatchMutationResponse> mutateCustomers(
+      @Valid @RequestBody final CustomerBatchMutationRequest mutationRequest) {
+    if (log.isDebugEnabled()) {
+      log.debug("mutateCustomers: {} creations, {} updates, {} deletions",
+          mutationRequest.getCreate().size(), mutationRequest.getUpdate().size(),
+          mutationRequest.getDelete().size());
+    }
+    return ResponseEntity.ok(customerServiceAdapter.mutateCustomers(mutationRequest));
+  }
+
+  /**
+   * Creates the customers streamed in the request body, as CSV or NDJSON.
+   *
+   * @param request the request whose body holds the customers
+   * @return a {@link ResponseEntity} containing the {@link CustomerImportReport} and an HTTP 200
    * status
    */
   @PreAuthorize("hasAnyRole('ADMIN','USER')")
+  @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"},
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomerImportReport> importCustomers(final HttpServletRequest request) {
+    if (log.isDebugEnabled()) {
+      log.debug("importCustomers: {}", request.getContentType());
+    }
+    return ResponseEntity.ok(customerServiceAdapter.importCustomers(request));
+  }
+
+  /**
+   * Streams every customer matching the search criteria as CSV or NDJSON, as requested by the
+   * {@code Accept} header.
+   *
+   * @param customerSearchRequest the search criteria
+   * @param request               the request holding the {@code Accept} header
+   * @param response              the response the customers are written to
+   */
+  @PreAuthorize("hasAnyRole('ADMIN','USER')")
+  @PostMapping(value = "/export", consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = {"text/csv", "application/x-ndjson"})
+  public void exportCustomers(@RequestBody final CustomerSearchRequest customerSearchRequest,
+      final HttpServletRequest request, final HttpServletResponse response) {
+    if (log.isDebugEnabled()) {
+      log.debug("exportCustomers: {}", customerSearchRequest);
+    }
+    customerServiceAdapter.exportCustomers(customerSearchRequest, request, response);
+  }
+
+  /**
+   * Updates an existing customer. When an {@code If-Match} ETag is given, the customer is only
+   * updated if it did not change since, otherwise HTTP 412 is returned.
+   *
+   * @param updateRequest the request containing customer update data
+   * @param ifMatch       optional ETag of the customer version the update is based on
+   * @return a {@link ResponseEntity} containing the updated {@link CustomerDto}, the ETag of the
+   * version it was read at and an HTTP 200 status
+   */
+  @PreAuthorize("hasAnyRole('ADMIN','USER')")
   @PutMapping(value = "/update", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<CustomerDto> updateCustomer(
-      @Valid @RequestBody final CustomerUpdateRequest updateRequest) {
+      @Valid @RequestBody final CustomerUpdateRequest updateRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("updateCustomer: {}", updateRequest);
+      log.debug("updateCustomer: {} {}", updateRequest, ifMatch);
     }
-    var updatedCustomer = customerServiceAdapter.updateCustomer(updateRequest);
-    return ResponseEntity.status(HttpStatus.OK).body(updatedCustomer);
+    var updatedCustomer = customerServiceAdapter.updateCustomer(updateRequest, ifMatch);
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(ETagUtil.weak(
+            new EntityVersion(updatedCustomer.getId(), updatedCustomer.getVersion())))
+        .body(updatedCustomer);
+  }
+
+  /**
+   * Partially updates a customer with a JSON Merge Patch of its editable fields, validated with the
+   * rules of {@link #updateCustomer(CustomerUpdateRequest, String)}. Only the columns of the patched
+   * fields are updated, without loading the customer. With an {@code If-Match} ETag the customer is
+   * only patched if it did not change since, otherwise HTTP 412 is returned.
+   *
+   * @param customerId the ID of the customer to patch
+   * @param patch      the JSON Merge Patch with the fields to change
+   * @param ifMatch    optional ETag of the customer version the patch is based on
+   * @return a {@link ResponseEntity} containing the patched {@link CustomerDto}, its new ETag and an
+   * HTTP 200 status
+   */
+  @PreAuthorize("hasAnyRole('ADMIN','USER')")
+  @PatchMapping(value = "/{id}", consumes = CustomerMergePatch.MEDIA_TYPE, produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<CustomerDto> patchCustomer(
+      @PathVariable(Constants.ID_PARAM) final String customerId,
+      @RequestBody final JsonNode patch,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) final String ifMatch) {
+    if (log.isDebugEnabled()) {
+      log.debug("patchCustomer: {} {} {}", customerId, patch, ifMatch);
+    }
+    final var updateRequest = CustomerMergePatch.toUpdateRequest(Long.valueOf(customerId), patch);
+    final var violations = getValidator().validate(updateRequest);
+    if (!violations.isEmpty()) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          violations.stream()
+              .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+              .collect(Collectors.joining(", ")), ErrorCodeEnum.VALIDATION.name());
+    }
+    var patchedCustomer = customerServiceAdapter.patchCustomer(updateRequest, ifMatch);
+    return ResponseEntity.status(HttpStatus.OK)
+        .eTag(ETagUtil.weak(
+            new EntityVersion(patchedCustomer.getId(), patchedCustomer.getVersion())))
+        .body(patchedCustomer);
   }
 
   /**
@@ -170,19 +319,23 @@ public class CustomerController {
   }
 
   /**
-   * Downloads the picture associated with a customer by their ID.
+   * Downloads the picture associated with a customer by their ID. Supports conditional requests
+   * through its ETag and partial downloads through the {@code Range} header.
    *
    * @param customerId the ID of the customer whose picture is to be downloaded
+   * @param width      optional width ({@code w}) of a downscaled variant of the picture
+   * @param request    the {@link HttpServletRequest} holding the conditional and range headers
    * @param response   the {@link HttpServletResponse} for writing the picture data
    */
   @PreAuthorize("hasAnyRole('ADMIN','USER')")
   @GetMapping(value = "/{id}/picture/download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
   public void downloadCustomerPicture(@PathVariable(Constants.ID_PARAM) String customerId,
-      final HttpServletResponse response) {
+      @RequestParam(value = "w", required = false) Integer width,
+      final HttpServletRequest request, final HttpServletResponse response) {
     if (log.isDebugEnabled()) {
-      log.debug("downloadCustomerPicture: {}", customerId);
+      log.debug("downloadCustomerPicture: {} {}", customerId, width);
     }
-    customerServiceAdapter.downloadCustomerPicture(customerId, response);
+    customerServiceAdapter.downloadCustomerPicture(customerId, width, request, response);
 
   }
 
@@ -0,0 +1,28 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of one operation of a customer batch.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code id}: The unique identifier of the customer, absent for a rejected creation.</li>
+ *   <li>{@code status}: The HTTP status of the operation: 201, 200 or 204 when applied, 409 or 404
+ *   when skipped.</li>
+ *   <li>{@code errorCode}: The reason of a rejected operation.</li>
+ * </ul>
+ */
+@Getter
+@Builder
+public class CustomerBatchItemResult implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 6914381562284036927L;
+  private final Long id;
+  private final int status;
+  private final String errorCode;
+}
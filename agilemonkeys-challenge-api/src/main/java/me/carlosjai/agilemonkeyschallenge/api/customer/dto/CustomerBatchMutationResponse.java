@@ -0,0 +1,29 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of a customer batch, one {@link CustomerBatchItemResult} per requested operation in the
+ * order of the request.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code create}: The results of the creations.</li>
+ *   <li>{@code update}: The results of the updates.</li>
+ *   <li>{@code delete}: The results of the deletions.</li>
+ * </ul>
+ */
+@Getter
+@Builder
+public class CustomerBatchMutationResponse implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = -4417094180236575320L;
+  private final List<CustomerBatchItemResult> create;
+  private final List<CustomerBatchItemResult> update;
+  private final List<CustomerBatchItemResult> delete;
+}
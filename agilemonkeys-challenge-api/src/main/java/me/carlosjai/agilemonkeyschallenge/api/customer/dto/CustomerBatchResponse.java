@@ -0,0 +1,27 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Customers resolved by a batch request.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code content}: The customers found, in the order of the requested ids.</li>
+ *   <li>{@code missingIds}: The requested ids without a customer, in the order they were
+ *   requested.</li>
+ * </ul>
+ */
+@Getter
+@Builder
+public class CustomerBatchResponse implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = -6093305473128519682L;
+  private final List<CustomerDto> content;
+  private final List<Long> missingIds;
+}
@@ -1,5 +1,6 @@
 package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -29,6 +30,8 @@ import lombok.Data;
  *   <li>{@code creationDate}: The date when the customer record was created.</li>
  *   <li>{@code lastModifiedBy}: The user who last modified the customer record.</li>
  *   <li>{@code lastModifiedDate}: The date when the customer record was last modified.</li>
+ *   <li>{@code version}: The version of the customer record the details were read from, used to
+ *   build their ETag. It is not part of the JSON representation.</li>
  * </ul>
  */
 @Data
@@ -47,4 +50,6 @@ public class CustomerDto implements Serializable {
   private LocalDate creationDate;
   private String lastModifiedBy;
   private LocalDate lastModifiedDate;
+  @JsonIgnore
+  private Long version;
 }
@@ -0,0 +1,25 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A row rejected by a customer import.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code line}: The 1-based line of the row in the imported content.</li>
+ *   <li>{@code message}: Why the row was rejected.</li>
+ * </ul>
+ */
+@Getter
+@AllArgsConstructor
+public class CustomerImportError implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 2876401935182462213L;
+  private final long line;
+  private final String message;
+}
@@ -0,0 +1,36 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Outcome of a customer import.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code processed}: The number of rows read.</li>
+ *   <li>{@code imported}: The number of customers created.</li>
+ *   <li>{@code rejected}: The number of rows not imported.</li>
+ *   <li>{@code elapsedMillis}: The duration of the import.</li>
+ *   <li>{@code rowsPerSecond}: The throughput of the import.</li>
+ *   <li>{@code errors}: The rejected rows, up to {@code customer.import.max-errors}.</li>
+ *   <li>{@code errorsTruncated}: Whether some rejected rows are missing from {@code errors}.</li>
+ * </ul>
+ */
+@Getter
+@Builder
+public class CustomerImportReport implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = -1508472669126740364L;
+  private final long processed;
+  private final long imported;
+  private final long rejected;
+  private final long elapsedMillis;
+  private final long rowsPerSecond;
+  private final List<CustomerImportError> errors;
+  private final boolean errorsTruncated;
+}
@@ -0,0 +1,47 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+
+/**
+ * Writes customers as comma separated values preceded by a header line. The first five columns
+ * match the ones read by the customer import.
+ */
+public class CsvCustomerExportWriter implements CustomerExportWriter {
+
+  static final String HEADER = "id,firstName,lastName,email,phoneNumber,picture,createdBy,"
+      + "creationDate,lastModifiedBy,lastModifiedDate";
+
+  private final Writer writer;
+
+  public CsvCustomerExportWriter(Writer writer) throws IOException {
+    this.writer = writer;
+    writer.write(HEADER);
+    writer.write('\n');
+  }
+
+  @Override
+  public void write(CustomerDto customer) throws IOException {
+    writer.write(Stream.of(customer.getId(), customer.getFirstName(), customer.getLastName(),
+            customer.getEmail(), customer.getPhoneNumber(), customer.getPicture(),
+            customer.getCreatedBy(), customer.getCreationDate(), customer.getLastModifiedBy(),
+            customer.getLastModifiedDate())
+        .map(value -> escape(Objects.toString(value, "")))
+        .collect(Collectors.joining(",")));
+    writer.write('\n');
+  }
+
+  /**
+   * Quotes the value when it holds a separator, a quote or a line break, doubling its quotes.
+   */
+  static String escape(String value) {
+    if (value.chars().noneMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r')) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+}
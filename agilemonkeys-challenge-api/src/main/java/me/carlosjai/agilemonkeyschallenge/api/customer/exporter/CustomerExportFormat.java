@@ -0,0 +1,52 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Content types produced by the customer export.
+ */
+public enum CustomerExportFormat {
+  CSV("text/csv", "csv"),
+  NDJSON("application/x-ndjson", "ndjson");
+
+  @Getter
+  private final MediaType mediaType;
+  @Getter
+  private final String extension;
+
+  CustomerExportFormat(String mediaType, String extension) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+    this.extension = extension;
+  }
+
+  /**
+   * Returns the first format included in the given media types, in the order they are listed. An
+   * empty list or a wildcard selects {@link #CSV}.
+   */
+  public static Optional<CustomerExportFormat> negotiate(List<MediaType> accepted) {
+    if (accepted.isEmpty()) {
+      return Optional.of(CSV);
+    }
+    for (final var mediaType : accepted) {
+      for (final var format : values()) {
+        if (mediaType.includes(format.mediaType)) {
+          return Optional.of(format);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  CustomerExportWriter open(Writer writer, ObjectMapper objectMapper) throws IOException {
+    return switch (this) {
+      case CSV -> new CsvCustomerExportWriter(writer);
+      case NDJSON -> new NdjsonCustomerExportWriter(writer, objectMapper);
+    };
+  }
+}
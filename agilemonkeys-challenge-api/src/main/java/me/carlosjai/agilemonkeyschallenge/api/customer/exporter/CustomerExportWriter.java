@@ -0,0 +1,12 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import java.io.IOException;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+
+/**
+ * Writes exported customers one at a time to the response.
+ */
+public interface CustomerExportWriter {
+
+  void write(CustomerDto customer) throws IOException;
+}
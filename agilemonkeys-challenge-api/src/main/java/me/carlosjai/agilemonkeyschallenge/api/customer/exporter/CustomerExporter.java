@@ -0,0 +1,67 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.types.Predicate;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import me.carlosjai.agilemonkeyschallenge.api.customer.mapper.CustomerMapper;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams the customers matching a search to a writer as CSV or NDJSON.
+ *
+ * <p>The customers are read through a forward-only database cursor fetching
+ * {@code customer.export.fetch-size} rows at a time and each one is written as soon as it is read,
+ * so memory stays flat whatever the number of exported customers.</p>
+ */
+@Component
+public class CustomerExporter {
+
+  private static final Logger log = LoggerFactory.getLogger(CustomerExporter.class);
+  private final CustomerService service;
+  private final CustomerMapper mapper;
+  private final ObjectMapper objectMapper;
+  private final int fetchSize;
+
+  public CustomerExporter(CustomerService service, CustomerMapper mapper,
+      ObjectMapper objectMapper, @Value("${customer.export.fetch-size:1000}") int fetchSize) {
+    this.service = service;
+    this.mapper = mapper;
+    this.objectMapper = objectMapper;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Writes the customers matching the predicate, ordered by id, and flushes the writer.
+   *
+   * @return the number of exported customers
+   * @throws IOException if the writer fails, e.g. because the client went away
+   */
+  public long export(Predicate predicate, CustomerExportFormat format, Writer writer)
+      throws IOException {
+    final long start = System.nanoTime();
+    final var exportWriter = format.open(writer, objectMapper);
+    final long[] exported = {0};
+    try {
+      service.forEachSummary(predicate, fetchSize, summary -> {
+        try {
+          exportWriter.write(mapper.mapSummaryToCustomerDto(summary));
+          exported[0]++;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    writer.flush();
+    log.info("Exported {} customers in {} ms", exported[0],
+        (System.nanoTime() - start) / 1_000_000);
+    return exported[0];
+  }
+}
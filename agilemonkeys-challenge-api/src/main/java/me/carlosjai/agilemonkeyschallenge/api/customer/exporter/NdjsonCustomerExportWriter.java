@@ -0,0 +1,32 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.io.Writer;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+
+/**
+ * Writes customers as newline delimited JSON, one {@link CustomerDto} per line.
+ */
+public class NdjsonCustomerExportWriter implements CustomerExportWriter {
+
+  private final Writer writer;
+  private final ObjectWriter objectWriter;
+
+  public NdjsonCustomerExportWriter(Writer writer, ObjectMapper objectMapper) {
+    this.writer = writer;
+    // the exporter owns the writer and flushes it once, when the export is complete
+    this.objectWriter = objectMapper.writerFor(CustomerDto.class)
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+  }
+
+  @Override
+  public void write(CustomerDto customer) throws IOException {
+    objectWriter.writeValue(writer, customer);
+    writer.write('\n');
+  }
+}
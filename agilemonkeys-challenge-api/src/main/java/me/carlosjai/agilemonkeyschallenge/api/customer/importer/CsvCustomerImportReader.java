@@ -0,0 +1,127 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads comma separated values whose first line is a header naming the {@code firstName},
+ * {@code lastName}, {@code email} and {@code phoneNumber} columns (in any order, ignoring case;
+ * other columns are ignored). Fields may be quoted with {@code "}, doubling it to escape it; quoted
+ * fields cannot span several lines. Blank lines are skipped.
+ */
+public class CsvCustomerImportReader implements CustomerImportReader {
+
+  static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "phoneNumber");
+
+  private final BufferedReader reader;
+  private Map<String, Integer> columnIndexes;
+  private long line;
+
+  public CsvCustomerImportReader(BufferedReader reader) {
+    this.reader = reader;
+  }
+
+  @Override
+  public CustomerImportRow next() throws IOException {
+    if (columnIndexes == null) {
+      columnIndexes = readHeader();
+    }
+    final var text = nextLine();
+    if (text == null) {
+      return null;
+    }
+    final List<String> fields;
+    try {
+      fields = split(text);
+    } catch (IllegalArgumentException e) {
+      return CustomerImportRow.failed(line, e.getMessage());
+    }
+    final var customer = new CustomerCreateRequest();
+    customer.setFirstName(field(fields, "firstName"));
+    customer.setLastName(field(fields, "lastName"));
+    customer.setEmail(field(fields, "email"));
+    customer.setPhoneNumber(field(fields, "phoneNumber"));
+    return CustomerImportRow.parsed(line, customer);
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+
+  private Map<String, Integer> readHeader() throws IOException {
+    final var header = nextLine();
+    if (header == null) {
+      throw new IOException("The CSV content is empty, expected a header with the columns "
+          + COLUMNS);
+    }
+    final Map<String, Integer> indexes = new HashMap<>();
+    final var names = split(header);
+    for (int i = 0; i < names.size(); i++) {
+      final int index = i;
+      COLUMNS.stream().filter(column -> column.equalsIgnoreCase(names.get(index).trim()))
+          .findFirst().ifPresent(column -> indexes.putIfAbsent(column, index));
+    }
+    final var missing = COLUMNS.stream().filter(column -> !indexes.containsKey(column)).toList();
+    if (!missing.isEmpty()) {
+      throw new IOException("The CSV header is missing the columns " + missing);
+    }
+    return indexes;
+  }
+
+  private String nextLine() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      line++;
+    } while (text != null && StringUtils.isBlank(text));
+    return text;
+  }
+
+  private String field(List<String> fields, String column) {
+    final int index = columnIndexes.get(column);
+    return index < fields.size() ? StringUtils.trimToNull(fields.get(index)) : null;
+  }
+
+  /**
+   * Splits a CSV line into its fields, unquoting them.
+   *
+   * @throws IllegalArgumentException if a quoted field is not closed
+   */
+  static List<String> split(String text) {
+    final List<String> fields = new ArrayList<>();
+    final var field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < text.length(); i++) {
+      final char c = text.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    if (quoted) {
+      throw new IllegalArgumentException("Unterminated quoted field");
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
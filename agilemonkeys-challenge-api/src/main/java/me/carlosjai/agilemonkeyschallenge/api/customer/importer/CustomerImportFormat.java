@@ -0,0 +1,39 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.util.Arrays;
+import java.util.Optional;
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Content types accepted by the customer import.
+ */
+public enum CustomerImportFormat {
+  CSV("text/csv"),
+  NDJSON("application/x-ndjson");
+
+  @Getter
+  private final MediaType mediaType;
+
+  CustomerImportFormat(String mediaType) {
+    this.mediaType = MediaType.parseMediaType(mediaType);
+  }
+
+  /**
+   * Returns the format of the given content type, ignoring its parameters (e.g. charset).
+   */
+  public static Optional<CustomerImportFormat> of(MediaType contentType) {
+    return Arrays.stream(values())
+        .filter(format -> format.mediaType.equalsTypeAndSubtype(contentType))
+        .findFirst();
+  }
+
+  CustomerImportReader open(BufferedReader reader, ObjectMapper objectMapper) {
+    return switch (this) {
+      case CSV -> new CsvCustomerImportReader(reader);
+      case NDJSON -> new NdjsonCustomerImportReader(reader, objectMapper);
+    };
+  }
+}
@@ -0,0 +1,19 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads the customers of an import one row at a time, so the content is never held in memory.
+ */
+public interface CustomerImportReader extends Closeable {
+
+  /**
+   * Returns the next row, or {@code null} once the content is exhausted. Malformed rows are
+   * returned with an error instead of failing the whole import.
+   *
+   * @throws IOException if the content cannot be read, or its layout (e.g. the CSV header) is not
+   *                     valid
+   */
+  CustomerImportRow next() throws IOException;
+}
@@ -0,0 +1,21 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+
+/**
+ * A row read from an import, either the parsed customer or the reason it could not be parsed.
+ *
+ * @param line     1-based line of the row in the imported content
+ * @param customer the parsed customer, {@code null} when the row could not be parsed
+ * @param error    why the row could not be parsed, {@code null} otherwise
+ */
+public record CustomerImportRow(long line, CustomerCreateRequest customer, String error) {
+
+  static CustomerImportRow parsed(long line, CustomerCreateRequest customer) {
+    return new CustomerImportRow(line, customer, null);
+  }
+
+  static CustomerImportRow failed(long line, String error) {
+    return new CustomerImportRow(line, null, error);
+  }
+}
@@ -0,0 +1,171 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportError;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Imports customers streamed as CSV or NDJSON.
+ *
+ * <p>Rows are validated against the {@link CustomerCreateRequest} constraints as they are read
+ * and the valid ones are saved in chunks of {@code customer.import.chunk-size}: each chunk checks
+ * its emails with one query and is inserted in its own transaction, so a failure only loses that
+ * chunk and memory does not grow with the size of the import. Rejected rows are reported with
+ * their line instead of failing the import.</p>
+ */
+@Component
+public class CustomerImporter {
+
+  private static final Logger log = LoggerFactory.getLogger(CustomerImporter.class);
+  private final CustomerService service;
+  private final Validator validator;
+  private final ObjectMapper objectMapper;
+  private final int chunkSize;
+  private final int maxErrors;
+
+  public CustomerImporter(CustomerService service, Validator validator, ObjectMapper objectMapper,
+      @Value("${customer.import.chunk-size:500}") int chunkSize,
+      @Value("${customer.import.max-errors:1000}") int maxErrors) {
+    this.service = service;
+    this.validator = validator;
+    this.objectMapper = objectMapper;
+    this.chunkSize = chunkSize;
+    this.maxErrors = maxErrors;
+  }
+
+  /**
+   * Imports the customers of the content.
+   *
+   * @throws IOException if the content cannot be read or its layout is not valid. The chunks
+   *                     saved before the failure are kept.
+   */
+  public CustomerImportReport importCustomers(CustomerImportFormat format, InputStream content,
+      Charset charset) throws IOException {
+    final long start = System.nanoTime();
+    final var progress = new Progress();
+    final List<CustomerImportRow> chunk = new ArrayList<>(chunkSize);
+    final Set<String> chunkEmails = new HashSet<>();
+    try (var reader = format.open(
+        new BufferedReader(new InputStreamReader(content, charset)), objectMapper)) {
+      for (var row = reader.next(); row != null; row = reader.next()) {
+        progress.processed++;
+        final var error = validate(row);
+        if (error != null) {
+          progress.reject(row.line(), error);
+        } else if (!chunkEmails.add(lowercaseEmail(row))) {
+          progress.reject(row.line(), ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS.getErrorMessage());
+        } else {
+          chunk.add(row);
+          if (chunk.size() == chunkSize) {
+            save(chunk, progress);
+            chunk.clear();
+            chunkEmails.clear();
+          }
+        }
+      }
+      save(chunk, progress);
+    }
+    final long elapsedNanos = System.nanoTime() - start;
+    final var report = CustomerImportReport.builder()
+        .processed(progress.processed)
+        .imported(progress.imported)
+        .rejected(progress.rejected)
+        .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+        .rowsPerSecond(elapsedNanos == 0 ? progress.processed
+            : progress.processed * TimeUnit.SECONDS.toNanos(1) / elapsedNanos)
+        .errors(progress.errors)
+        .errorsTruncated(progress.rejected > progress.errors.size())
+        .build();
+    log.info("Imported {} of {} customers in {} ms ({} rows/s)", report.getImported(),
+        report.getProcessed(), report.getElapsedMillis(), report.getRowsPerSecond());
+    return report;
+  }
+
+  private String validate(CustomerImportRow row) {
+    if (row.error() != null) {
+      return row.error();
+    }
+    final Set<ConstraintViolation<CustomerCreateRequest>> violations =
+        validator.validate(row.customer());
+    if (violations.isEmpty()) {
+      return null;
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .collect(Collectors.joining(", "));
+  }
+
+  private void save(List<CustomerImportRow> chunk, Progress progress) {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    final Set<String> existingEmails;
+    try {
+      existingEmails = service.saveAllNew(chunk.stream().map(row -> toEntity(row.customer()))
+          .toList());
+    } catch (RuntimeException e) {
+      log.warn("Could not save the {} customers from line {}", chunk.size(),
+          chunk.get(0).line(), e);
+      chunk.forEach(row -> progress.reject(row.line(), "Could not be saved: " + e.getMessage()));
+      return;
+    }
+    for (final var row : chunk) {
+      if (existingEmails.contains(lowercaseEmail(row))) {
+        progress.reject(row.line(), ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS.getErrorMessage());
+      } else {
+        progress.imported++;
+      }
+    }
+  }
+
+  private static CustomerEntity toEntity(CustomerCreateRequest customer) {
+    final var entity = new CustomerEntity();
+    entity.setEmail(customer.getEmail());
+    entity.setFirstName(customer.getFirstName());
+    entity.setLastName(customer.getLastName());
+    entity.setPhoneNumber(customer.getPhoneNumber());
+    return entity;
+  }
+
+  private static String lowercaseEmail(CustomerImportRow row) {
+    return row.customer().getEmail().toLowerCase(Locale.ROOT);
+  }
+
+  private class Progress {
+
+    private final List<CustomerImportError> errors = new ArrayList<>();
+    private long processed;
+    private long imported;
+    private long rejected;
+
+    void reject(long line, String message) {
+      rejected++;
+      if (errors.size() < maxErrors) {
+        errors.add(new CustomerImportError(line, message));
+      }
+    }
+  }
+}
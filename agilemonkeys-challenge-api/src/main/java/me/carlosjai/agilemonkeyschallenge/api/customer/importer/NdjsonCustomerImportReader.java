@@ -0,0 +1,47 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Reads newline delimited JSON, one {@link CustomerCreateRequest} object per line. Blank lines are
+ * skipped.
+ */
+public class NdjsonCustomerImportReader implements CustomerImportReader {
+
+  private final BufferedReader reader;
+  private final ObjectMapper objectMapper;
+  private long line;
+
+  public NdjsonCustomerImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+    this.reader = reader;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public CustomerImportRow next() throws IOException {
+    String text;
+    do {
+      text = reader.readLine();
+      line++;
+    } while (text != null && StringUtils.isBlank(text));
+    if (text == null) {
+      return null;
+    }
+    try {
+      return CustomerImportRow.parsed(line,
+          objectMapper.readValue(text, CustomerCreateRequest.class));
+    } catch (JsonProcessingException e) {
+      return CustomerImportRow.failed(line, "Invalid JSON: " + e.getOriginalMessage());
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    reader.close();
+  }
+}
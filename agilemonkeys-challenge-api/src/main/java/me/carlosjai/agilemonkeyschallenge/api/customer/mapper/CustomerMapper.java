@@ -2,6 +2,7 @@ package me.carlosjai.agilemonkeyschallenge.api.customer.mapper;
 
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -24,6 +25,8 @@ import org.mapstruct.Mapping;
  * <ul>
  *   <li>{@link #mapToCustomerDto(CustomerEntity)}: Maps a {@link CustomerEntity}
  *   to a {@link CustomerDto}.</li>
+ *   <li>{@link #mapSummaryToCustomerDto(CustomerSummary)}: Maps a {@link CustomerSummary}
+ *   projection to a {@link CustomerDto}.</li>
  * </ul>
  */
 @Mapper(componentModel = "spring")
@@ -31,4 +34,7 @@ public interface CustomerMapper {
 
   @Mapping(target = "id", source = "sk")
   CustomerDto mapToCustomerDto(CustomerEntity entity);
+
+  @Mapping(target = "id", source = "sk")
+  CustomerDto mapSummaryToCustomerDto(CustomerSummary summary);
 }
@@ -0,0 +1,29 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * CustomerBatchMutationRequest is a Data Transfer Object (DTO) used for creating, updating and
+ * deleting several customer records in a single transaction. Every list is optional.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code create}: The customers to create, validated as {@link CustomerCreateRequest}.</li>
+ *   <li>{@code update}: The customers to update, validated as {@link CustomerUpdateRequest}.</li>
+ *   <li>{@code delete}: The unique identifiers of the customers to delete.</li>
+ * </ul>
+ */
+@Data
+public class CustomerBatchMutationRequest implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = -2859390176324862107L;
+  private List<@Valid @NotNull CustomerCreateRequest> create = List.of();
+  private List<@Valid @NotNull CustomerUpdateRequest> update = List.of();
+  private List<@NotNull Long> delete = List.of();
+}
@@ -0,0 +1,27 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.List;
+import lombok.Data;
+
+/**
+ * CustomerBatchRequest is a Data Transfer Object (DTO) used for retrieving several customer records
+ * at once.
+ *
+ * <p>Fields:
+ * <ul>
+ *   <li>{@code ids}: The unique identifiers of the customers to retrieve, up to
+ *   {@code customer.batch.max-ids}.</li>
+ * </ul>
+ */
+@Data
+public class CustomerBatchRequest implements Serializable {
+
+  @Serial
+  private static final long serialVersionUID = 4262218914873061575L;
+  @NotEmpty
+  private List<@NotNull Long> ids;
+}
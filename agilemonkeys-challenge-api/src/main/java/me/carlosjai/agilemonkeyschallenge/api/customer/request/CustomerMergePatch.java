@@ -0,0 +1,68 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.request;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Reads a JSON Merge Patch (RFC 7396) of a customer into a {@link CustomerUpdateRequest}, so a
+ * patch is validated with the same rules as a full update.
+ *
+ * <p>Only {@code firstName}, {@code lastName}, {@code email} and {@code phoneNumber} can be
+ * patched, with non-blank text values. Members that are missing are left unchanged; removing a
+ * member ({@code null}) or patching any other member is rejected, as the customer has no optional
+ * fields nor writable ones beyond these.</p>
+ */
+public final class CustomerMergePatch {
+
+  public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+  private static final Map<String, BiConsumer<CustomerUpdateRequest, String>> FIELDS = Map.of(
+      "firstName", CustomerUpdateRequest::setFirstName,
+      "lastName", CustomerUpdateRequest::setLastName,
+      "email", CustomerUpdateRequest::setEmail,
+      "phoneNumber", CustomerUpdateRequest::setPhoneNumber);
+
+  private CustomerMergePatch() {
+  }
+
+  /**
+   * Builds the update request of the customer with the members of the patch.
+   *
+   * @param customerId the ID of the patched customer
+   * @param patch      the JSON Merge Patch document
+   * @return the {@link CustomerUpdateRequest} holding only the patched fields
+   * @throws CustomResponseStatusException with HTTP 400 when the patch is not a valid customer
+   *                                       patch
+   */
+  public static CustomerUpdateRequest toUpdateRequest(final Long customerId,
+      final JsonNode patch) {
+    if (patch == null || !patch.isObject()) {
+      throw notValid("the patch must be a JSON object");
+    }
+    final var updateRequest = new CustomerUpdateRequest();
+    updateRequest.setId(customerId);
+    patch.fields().forEachRemaining(member -> {
+      final var setter = FIELDS.get(member.getKey());
+      if (setter == null) {
+        throw notValid(member.getKey() + " cannot be patched");
+      }
+      final var value = member.getValue();
+      if (!value.isTextual() || StringUtils.isBlank(value.textValue())) {
+        throw notValid(member.getKey() + " must be a non-blank string");
+      }
+      setter.accept(updateRequest, value.textValue());
+    });
+    return updateRequest;
+  }
+
+  private static CustomResponseStatusException notValid(final String reason) {
+    return new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+        ErrorCodeEnum.CUSTOMER_PATCH_NOT_VALID.getErrorMessage() + reason,
+        ErrorCodeEnum.CUSTOMER_PATCH_NOT_VALID.name());
+  }
+}
@@ -1,8 +1,14 @@
 package me.carlosjai.agilemonkeyschallenge.api.customer.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchMutationResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchResponse;
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchMutationRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerUpdateRequest;
@@ -27,13 +33,23 @@ public interface CustomerServiceAdapter {
   void deleteCustomer(String customerId);
 
   /**
-   * Retrieves the details of a specific customer identified by the provided customer ID.
+   * Retrieves the details of a specific customer identified by the provided customer ID. Details
+   * are kept in the {@code CustomerDetailCache} until the customer changes.
    *
    * @param customerId the unique identifier of the customer whose details are to be retrieved
    * @return a {@link CustomerDto} containing the details of the customer
    */
   CustomerDto getCustomerDetail(String customerId);
 
+  /**
+   * Retrieves the customers identified by the ids of the {@link CustomerBatchRequest} with a single
+   * query, in the order of the ids. Pictures are not loaded.
+   *
+   * @param batchRequest the ids of the customers to retrieve
+   * @return a {@link CustomerBatchResponse} containing the customers found and the missing ids
+   */
+  CustomerBatchResponse getCustomersByIds(CustomerBatchRequest batchRequest);
+
   /**
    * Retrieves a paginated list of all customers that match the criteria specified in the
    * {@link CustomerSearchRequest}.
@@ -53,12 +69,36 @@ public interface CustomerServiceAdapter {
   CustomerDto createCustomer(CustomerCreateRequest createRequest);
 
   /**
-   * Updates an existing customer record in the system based on the provided details.
+   * Updates an existing customer record in the system based on the provided details. With an
+   * {@code If-Match} ETag the update is a single conditional statement on the customer version,
+   * failing with 412 when the customer changed since.
    *
    * @param updateRequest the details of the customer to be updated
+   * @param ifMatch       optional {@code If-Match} header, {@code null} to update any version
    * @return a {@link CustomerDto} containing the updated details of the customer
    */
-  CustomerDto updateCustomer(CustomerUpdateRequest updateRequest);
+  CustomerDto updateCustomer(CustomerUpdateRequest updateRequest, String ifMatch);
+
+  /**
+   * Partially updates a customer with a single {@code UPDATE} of the columns of the non-blank
+   * fields of the request, without loading the customer. With an {@code If-Match} ETag the update
+   * is conditional on the customer version, failing with 412 when the customer changed since.
+   *
+   * @param updateRequest the fields to change, read from a JSON Merge Patch
+   * @param ifMatch       optional {@code If-Match} header, {@code null} to update any version
+   * @return a {@link CustomerDto} containing the updated details of the customer
+   */
+  CustomerDto patchCustomer(CustomerUpdateRequest updateRequest, String ifMatch);
+
+  /**
+   * Applies the creations, updates and deletions of the {@link CustomerBatchMutationRequest} in a
+   * single transaction. Creations whose email is already used and updates or deletions of missing
+   * customers are skipped and reported, without failing the rest of the batch.
+   *
+   * @param mutationRequest the operations to apply
+   * @return a {@link CustomerBatchMutationResponse} with the result of every operation
+   */
+  CustomerBatchMutationResponse mutateCustomers(CustomerBatchMutationRequest mutationRequest);
 
   /**
    * Uploads a customer picture for the specified customer identified by the customer ID.
@@ -70,10 +110,37 @@ public interface CustomerServiceAdapter {
   void uploadCustomerPicture(MultiValueMap<String, MultipartFile> allFileParams, String customerId);
 
   /**
-   * Downloads the customer picture associated with the specified customer ID.
+   * Downloads the customer picture associated with the specified customer ID, or its downscaled
+   * variant when a width is given. Conditional ({@code If-None-Match}, {@code If-Modified-Since})
+   * and single range requests are supported.
    *
    * @param customerId the unique identifier of the customer whose picture is to be downloaded
+   * @param width      the width of the requested variant, or {@code null} for the original
+   * @param request    the {@link HttpServletRequest} holding the conditional and range headers
    * @param response   the {@link HttpServletResponse} object to write the picture data to
    */
-  void downloadCustomerPicture(String customerId, HttpServletResponse response);
+  void downloadCustomerPicture(String customerId, Integer width, HttpServletRequest request,
+      HttpServletResponse response);
+
+  /**
+   * Creates the customers streamed in the request body as CSV ({@code text/csv}) or NDJSON
+   * ({@code application/x-ndjson}). Rows that are not valid or whose email is already used are
+   * skipped and reported.
+   *
+   * @param request the {@link HttpServletRequest} whose body holds the customers
+   * @return a {@link CustomerImportReport} with the counts and the rejected rows
+   */
+  CustomerImportReport importCustomers(HttpServletRequest request);
+
+  /**
+   * Streams every customer matching the filters of the {@link CustomerSearchRequest}, ordered by
+   * id, as CSV ({@code text/csv}) or NDJSON ({@code application/x-ndjson}) depending on the
+   * {@code Accept} header. Pagination, sorting and count settings of the request are ignored.
+   *
+   * @param customerSearchRequest the search criteria for filtering customers
+   * @param request               the {@link HttpServletRequest} holding the {@code Accept} header
+   * @param response              the {@link HttpServletResponse} to write the customers to
+   */
+  void exportCustomers(CustomerSearchRequest customerSearchRequest, HttpServletRequest request,
+      HttpServletResponse response);
 }
@@ -2,42 +2,88 @@ package me.carlosjai.agilemonkeyschallenge.api.customer.service.impl;
 
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.PageMetaData;
+import me.carlosjai.agilemonkeyschallenge.api.customer.cache.CustomerDetailCache;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchItemResult;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchMutationResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchResponse;
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.exporter.CustomerExportFormat;
+import me.carlosjai.agilemonkeyschallenge.api.customer.exporter.CustomerExporter;
+import me.carlosjai.agilemonkeyschallenge.api.customer.importer.CustomerImportFormat;
+import me.carlosjai.agilemonkeyschallenge.api.customer.importer.CustomerImporter;
 import me.carlosjai.agilemonkeyschallenge.api.customer.mapper.CustomerMapper;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchMutationRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerUpdateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.service.CustomerServiceAdapter;
-import me.carlosjai.agilemonkeyschallenge.api.util.FileUtil;
+import me.carlosjai.agilemonkeyschallenge.api.customer.validation.CustomerBatchConfiguration;
+import me.carlosjai.agilemonkeyschallenge.api.customer.validation.PictureUploadConfiguration;
+import me.carlosjai.agilemonkeyschallenge.api.util.ETagUtil;
 import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerUpdate;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.QCustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerPictureInfo;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureFormat;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureTooLargeException;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.SizeLimitedInputStream;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.StoredPicture;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant.PictureVariant;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant.PictureVariantService;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.search.CustomerTextSearch;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.querydsl.QSort;
 import org.springframework.http.CacheControl;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 @Service
@@ -47,6 +93,19 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
   private static final Logger log = LoggerFactory.getLogger(CustomerServiceAdapterImpl.class);
   private final CustomerService service;
   private final CustomerMapper mapper;
+  private final PictureStore pictureStore;
+  private final PictureUploadConfiguration pictureUploadConfiguration;
+  private final CustomerBatchConfiguration batchConfiguration;
+  private final PictureVariantService pictureVariantService;
+  private final CustomerTextSearch textSearch;
+  private final CustomerImporter importer;
+  private final CustomerExporter exporter;
+  private final CustomerDetailCache detailCache;
+  private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
 
   @Override
   public void deleteCustomer(final String customerId) {
@@ -64,29 +123,58 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
     if (log.isDebugEnabled()) {
       log.debug("getCustomerDetail: {}", customerId);
     }
-    final var optionalEntity = getCustomerEntity(customerId);
-    if (optionalEntity.isPresent()) {
-      return mapper.mapToCustomerDto(optionalEntity.get());
+    final var customerDto = detailCache.get(Long.valueOf(customerId),
+        id -> getCustomerEntity(id).map(mapper::mapToCustomerDto).orElse(null));
+    if (customerDto != null) {
+      return customerDto;
     }
     throw new CustomResponseStatusException(HttpStatus.NOT_FOUND, ErrorCodeEnum.CUSTOMER_NOT_FOUND);
 
   }
 
+  @Override
+  public CustomerBatchResponse getCustomersByIds(final CustomerBatchRequest batchRequest) {
+    if (log.isDebugEnabled()) {
+      log.debug("getCustomersByIds: {}", batchRequest);
+    }
+    final var ids = batchRequest.getIds().stream().filter(Objects::nonNull).distinct().toList();
+    if (ids.size() > batchConfiguration.getMaxIds()) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.CUSTOMER_BATCH_TOO_LARGE.getErrorMessage() + batchConfiguration.getMaxIds(),
+          ErrorCodeEnum.CUSTOMER_BATCH_TOO_LARGE.name());
+    }
+    final var summaries = service.findSummariesInOrder(ids);
+    final var foundIds = summaries.stream().map(CustomerSummary::getSk).collect(Collectors.toSet());
+    return CustomerBatchResponse.builder()
+        .content(summaries.stream().map(mapper::mapSummaryToCustomerDto).toList())
+        .missingIds(ids.stream().filter(id -> !foundIds.contains(id)).toList())
+        .build();
+  }
+
   @Override
   public BasePageResponse<CustomerDto> getAllCustomers(
       final CustomerSearchRequest customerSearchRequest) {
     if (log.isDebugEnabled()) {
       log.debug("getAllCustomers: {}", customerSearchRequest);
     }
-    final var predicate = genereratePredicate(customerSearchRequest);
+    if (Objects.nonNull(customerSearchRequest.getCursor())) {
+      return getCustomersAfter(customerSearchRequest, genereratePredicate(customerSearchRequest));
+    }
+    final var countMode = getCountMode(customerSearchRequest);
     final var pageable = getPageable(customerSearchRequest);
-    final var pageEntities = service.findAllBy(predicate, pageable);
-    final var content = pageEntities.getContent().stream().map(mapper::mapToCustomerDto).toList();
-    final var metaData = PageMetaData.builder().currentPage(pageEntities.getNumber() + 1)
-        .pageSize(pageEntities.getSize())
-        .totalPages(pageEntities.getTotalPages())
-        .totalElements(pageEntities.getTotalElements())
-        .build();
+    final var rankedIds = getRankedIds(customerSearchRequest);
+    final Slice<CustomerSummary> pageEntities;
+    final boolean approximate;
+    if (rankedIds.isPresent()) {
+      pageEntities = service.findSummariesByRank(rankedIds.get(), pageable);
+      approximate = rankedIds.get().size() >= textSearch.getMaxHits();
+    } else {
+      pageEntities = service.findSummariesBy(genereratePredicate(customerSearchRequest), pageable,
+          countMode);
+      approximate = countMode == CountMode.ESTIMATED;
+    }
+    final var content = pageEntities.getContent().stream().map(mapper::mapSummaryToCustomerDto).toList();
+    final var metaData = PageMetaData.of(pageEntities, approximate);
     return BasePageResponse.<CustomerDto>builder().content(content).metaData(metaData).build();
   }
 
@@ -100,43 +188,171 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
       throw new CustomResponseStatusException(HttpStatus.CONFLICT,
           ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS);
     } else {
-      final var newEntity = new CustomerEntity();
-      newEntity.setEmail(createRequest.getEmail());
-      newEntity.setFirstName(createRequest.getFirstName());
-      newEntity.setLastName(createRequest.getLastName());
-      newEntity.setPhoneNumber(createRequest.getPhoneNumber());
-
-      return mapper.mapToCustomerDto(service.save(newEntity));
+      return mapper.mapToCustomerDto(service.save(toNewEntity(createRequest)));
     }
   }
 
   @Override
-  public CustomerDto updateCustomer(CustomerUpdateRequest updateRequest) {
+  public CustomerDto updateCustomer(CustomerUpdateRequest updateRequest, String ifMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("updateCustomer: {}", updateRequest);
+      log.debug("updateCustomer: {} {}", updateRequest, ifMatch);
+    }
+    final var expectedVersion = ETagUtil.expectedVersion(ifMatch, updateRequest.getId());
+    if (Objects.nonNull(expectedVersion)) {
+      return updateCustomerFields(updateRequest, expectedVersion);
     }
     final var optionalEntity = getCustomerEntity(updateRequest.getId());
     if (optionalEntity.isPresent()) {
       var entityToUpdate = optionalEntity.get();
-      if (StringUtils.isNotBlank(updateRequest.getEmail())) {
-        entityToUpdate.setEmail(updateRequest.getEmail());
-      }
-      if (StringUtils.isNotBlank(updateRequest.getFirstName())) {
-        entityToUpdate.setFirstName(updateRequest.getFirstName());
-      }
-      if (StringUtils.isNotBlank(updateRequest.getLastName())) {
-        entityToUpdate.setLastName(updateRequest.getLastName());
-      }
-      if (StringUtils.isNotBlank(updateRequest.getPhoneNumber())) {
-        entityToUpdate.setPhoneNumber(updateRequest.getPhoneNumber());
-      }
-
+      applyChanges(updateRequest, entityToUpdate);
       return mapper.mapToCustomerDto(service.save(entityToUpdate));
     }
     throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
         ErrorCodeEnum.CUSTOMER_NOT_FOUND);
   }
 
+  @Override
+  public CustomerDto patchCustomer(final CustomerUpdateRequest updateRequest,
+      final String ifMatch) {
+    if (log.isDebugEnabled()) {
+      log.debug("patchCustomer: {} {}", updateRequest, ifMatch);
+    }
+    return updateCustomerFields(updateRequest,
+        ETagUtil.expectedVersion(ifMatch, updateRequest.getId()));
+  }
+
+  /**
+   * Applies the non-blank fields of the request with a single {@code UPDATE} of their columns
+   * ({@code WHERE sk = ? [AND version = ?]}), without loading the customer nor checking the other
+   * columns. Only a failed update reads the version, to tell a missing customer (404) from a
+   * concurrent change (412). The result is read back through the summary projection, along with the
+   * version it was read at, so its ETag always describes the returned fields.
+   */
+  private CustomerDto updateCustomerFields(final CustomerUpdateRequest updateRequest,
+      final Long expectedVersion) {
+    final var customerId = updateRequest.getId();
+    final var changes = toFieldChanges(updateRequest);
+    if (changes.isEmpty()) {
+      final var version = service.getVersion(customerId)
+          .orElseThrow(() -> new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+              ErrorCodeEnum.CUSTOMER_NOT_FOUND));
+      if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(version.version())) {
+        throw new CustomResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+            ErrorCodeEnum.VERSION_MISMATCH);
+      }
+    } else if (!service.updateFields(customerId, expectedVersion, changes)) {
+      if (service.getVersion(customerId).isPresent()) {
+        throw new CustomResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+            ErrorCodeEnum.VERSION_MISMATCH);
+      }
+      throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+          ErrorCodeEnum.CUSTOMER_NOT_FOUND);
+    }
+    return service.findSummariesInOrder(List.of(customerId)).stream()
+        .findFirst()
+        .map(mapper::mapSummaryToCustomerDto)
+        .orElseThrow(() -> new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+            ErrorCodeEnum.CUSTOMER_NOT_FOUND));
+  }
+
+  @Override
+  public CustomerBatchMutationResponse mutateCustomers(
+      final CustomerBatchMutationRequest mutationRequest) {
+    if (log.isDebugEnabled()) {
+      log.debug("mutateCustomers: {} creations, {} updates, {} deletions",
+          mutationRequest.getCreate().size(), mutationRequest.getUpdate().size(),
+          mutationRequest.getDelete().size());
+    }
+    final int operations = mutationRequest.getCreate().size()
+        + mutationRequest.getUpdate().size() + mutationRequest.getDelete().size();
+    if (operations > batchConfiguration.getMaxOperations()) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.CUSTOMER_BATCH_TOO_MANY_OPERATIONS.getErrorMessage()
+              + batchConfiguration.getMaxOperations(),
+          ErrorCodeEnum.CUSTOMER_BATCH_TOO_MANY_OPERATIONS.name());
+    }
+    final var result = service.applyBatch(
+        mutationRequest.getCreate().stream().map(CustomerServiceAdapterImpl::toNewEntity).toList(),
+        mutationRequest.getUpdate().stream()
+            .map(update -> new CustomerUpdate(update.getId(),
+                StringUtils.defaultIfBlank(update.getEmail(), null),
+                entity -> applyChanges(update, entity)))
+            .toList(),
+        mutationRequest.getDelete());
+    return CustomerBatchMutationResponse.builder()
+        .create(result.createdIds().stream()
+            .map(id -> id == null
+                ? itemResult(null, HttpStatus.CONFLICT, ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS)
+                : itemResult(id, HttpStatus.CREATED, null))
+            .toList())
+        .update(mutationRequest.getUpdate().stream()
+            .map(CustomerUpdateRequest::getId)
+            .map(id -> result.conflictedIds().contains(id)
+                ? itemResult(id, HttpStatus.CONFLICT, ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS)
+                : itemResult(id, result.updatedIds().contains(id), HttpStatus.OK))
+            .toList())
+        .delete(mutationRequest.getDelete().stream()
+            .map(id -> itemResult(id, result.deletedIds().contains(id), HttpStatus.NO_CONTENT))
+            .toList())
+        .build();
+  }
+
+  @Override
+  public CustomerImportReport importCustomers(final HttpServletRequest request) {
+    if (log.isDebugEnabled()) {
+      log.debug("importCustomers: {}", request.getContentType());
+    }
+    final var format = Optional.ofNullable(request.getContentType())
+        .map(MediaType::parseMediaType)
+        .flatMap(CustomerImportFormat::of)
+        .orElseThrow(() -> new CustomResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE,
+            ErrorCodeEnum.CUSTOMER_IMPORT_FORMAT_NOT_SUPPORTED.getErrorMessage()
+                + request.getContentType(),
+            ErrorCodeEnum.CUSTOMER_IMPORT_FORMAT_NOT_SUPPORTED.name()));
+    final var charset = Optional.ofNullable(request.getCharacterEncoding())
+        .map(Charset::forName)
+        .orElse(StandardCharsets.UTF_8);
+    try {
+      return importer.importCustomers(format, request.getInputStream(), charset);
+    } catch (IOException e) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.CUSTOMER_IMPORT_NOT_VALID.getErrorMessage() + e.getMessage(),
+          ErrorCodeEnum.CUSTOMER_IMPORT_NOT_VALID.name());
+    }
+  }
+
+  @Override
+  public void exportCustomers(final CustomerSearchRequest customerSearchRequest,
+      final HttpServletRequest request, final HttpServletResponse response) {
+    if (log.isDebugEnabled()) {
+      log.debug("exportCustomers: {}", customerSearchRequest);
+    }
+    final var accept = request.getHeader(HttpHeaders.ACCEPT);
+    final var format = CustomerExportFormat.negotiate(MediaType.parseMediaTypes(accept))
+        .orElseThrow(() -> new CustomResponseStatusException(HttpStatus.NOT_ACCEPTABLE,
+            ErrorCodeEnum.CUSTOMER_EXPORT_FORMAT_NOT_SUPPORTED.getErrorMessage() + accept,
+            ErrorCodeEnum.CUSTOMER_EXPORT_FORMAT_NOT_SUPPORTED.name()));
+    response.setContentType(format.getMediaType().toString());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+        .filename("customers." + format.getExtension()).build().toString());
+    try {
+      final var writer = new BufferedWriter(
+          new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8),
+          EXPORT_BUFFER_SIZE);
+      exporter.export(genereratePredicate(customerSearchRequest), format, writer);
+    } catch (IOException e) {
+      if (response.isCommitted()) {
+        // part of the export was already sent, so the status cannot change any more
+        log.warn("Customer export interrupted: {}", e.getMessage());
+        return;
+      }
+      throw new CustomResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+          ErrorCodeEnum.CUSTOMER_ERROR_EXPORTING.getErrorMessage() + e.getMessage(),
+          ErrorCodeEnum.CUSTOMER_ERROR_EXPORTING.name());
+    }
+  }
+
   @Override
   public void uploadCustomerPicture(MultiValueMap<String, MultipartFile> allFileParams,
       String customerId) {
@@ -148,6 +364,10 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
       try {
         uploadPicture(allFileParams, optionalEntity.get());
         return;
+      } catch (PictureTooLargeException e) {
+        throw new CustomResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+            ErrorCodeEnum.CUSTOMER_PICTURE_TOO_LARGE.getErrorMessage() + e.getMaxSize(),
+            ErrorCodeEnum.CUSTOMER_PICTURE_TOO_LARGE.name());
       } catch (IOException e) {
         throw new CustomResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
             ErrorCodeEnum.CUSTOMER_ERROR_UPLOADING_PICTURE.getErrorMessage() + e.getMessage(),
@@ -159,46 +379,196 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
   }
 
   @Override
-  public void downloadCustomerPicture(String customerId, HttpServletResponse response) {
+  public void downloadCustomerPicture(String customerId, Integer width,
+      HttpServletRequest request, HttpServletResponse response) {
     if (log.isDebugEnabled()) {
-      log.debug("downloadCustomerPicture: {}", customerId);
+      log.debug("downloadCustomerPicture: {} {}", customerId, width);
     }
-    final var optionalEntity = getCustomerEntity(customerId);
-    if (optionalEntity.isPresent()) {
+    if (Objects.nonNull(width) && !pictureVariantService.isSupported(width)) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.CUSTOMER_PICTURE_WIDTH_NOT_SUPPORTED.getErrorMessage() + width,
+          ErrorCodeEnum.CUSTOMER_PICTURE_WIDTH_NOT_SUPPORTED.name());
+    }
+    final var pictureInfo = service.getPictureInfo(Long.valueOf(customerId))
+        .orElseThrow(() -> new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+            ErrorCodeEnum.CUSTOMER_NOT_FOUND));
+    try {
+      if (StringUtils.isNotEmpty(pictureInfo.getPicture())
+          && StringUtils.isNotEmpty(pictureInfo.getPictureHash())) {
+        downloadStoredPicture(pictureInfo, width, request, response);
+      } else {
+        downloadLegacyPicture(pictureInfo, response);
+      }
+    } catch (IOException e) {
+      throw new CustomResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
+          ErrorCodeEnum.CUSTOMER_ERROR_DOWNLOADING_PICTURE.getErrorMessage() + e.getMessage(),
+          ErrorCodeEnum.CUSTOMER_ERROR_DOWNLOADING_PICTURE.name());
+    }
+  }
+
+  /**
+   * Serves a picture of the picture store, or its downscaled variant when a width is given. The
+   * content hash (and width) is used as strong ETag, so conditional requests are answered with 304
+   * before touching the content, and single byte ranges are served with 206. Pictures kept on disk
+   * are copied with {@link FileChannel#transferTo} or handed to the container sendfile support when
+   * available. Variants are always copied from the channel opened by the variant cache, as they can
+   * be evicted at any time and sendfile reopens the file after the request is handled.
+   */
+  private void downloadStoredPicture(CustomerPictureInfo pictureInfo, Integer width,
+      HttpServletRequest request, HttpServletResponse response) throws IOException {
+    final var hash = pictureInfo.getPictureHash();
+    final var etag = "\"" + hash + (Objects.nonNull(width) ? "-" + width : "") + "\"";
+    final var lastModified = Objects.nonNull(pictureInfo.getLastModifiedDate())
+        ? pictureInfo.getLastModifiedDate().getTime() : -1L;
+    setCacheControl(response);
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      return;
+    }
+    final var variant = Objects.isNull(width) ? Optional.<PictureVariant>empty()
+        : pictureVariantService.openVariant(hash, width);
+    if (Objects.nonNull(width) && variant.isEmpty()) {
+      throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+          ErrorCodeEnum.CUSTOMER_PICTURE_NOT_AVAILABLE);
+    }
+    try (var openedVariant = variant.orElse(null)) {
+      final var path = variant.isPresent() ? Optional.<Path>empty() : pictureStore.path(hash);
+      final long size = variant.isPresent() ? openedVariant.size() : pictureInfo.getPictureSize();
+      response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+      final ByteRange range;
       try {
-        downloadCustomerPicture(optionalEntity.get(), response);
-      } catch (IOException e) {
-        throw new CustomResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-            ErrorCodeEnum.CUSTOMER_ERROR_DOWNLOADING_PICTURE.getErrorMessage() + e.getMessage(),
-            ErrorCodeEnum.CUSTOMER_ERROR_DOWNLOADING_PICTURE.name());
+        range = getRequestedRange(request, etag, size);
+      } catch (CustomResponseStatusException e) {
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+        throw e;
       }
+      final var content = variant.isPresent() || path.isPresent() ? Optional.<InputStream>empty()
+          : pictureStore.open(hash);
+      if (variant.isEmpty() && path.isEmpty() && content.isEmpty()) {
+        throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+            ErrorCodeEnum.CUSTOMER_PICTURE_NOT_AVAILABLE);
+      }
+      setPictureHeaders(variant.isEmpty() ? pictureInfo.getPicture()
+          : getVariantName(pictureInfo.getPicture(), width, openedVariant.extension()), response);
+      if (range.length() < size) {
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        response.setHeader(HttpHeaders.CONTENT_RANGE,
+            "bytes " + range.start() + "-" + range.end() + "/" + size);
+      }
+      response.setContentLengthLong(range.length());
+      if (variant.isPresent()) {
+        transferChannel(openedVariant.channel(), range, response);
+      } else if (path.isPresent()) {
+        transferFile(path.get(), range, request, response);
+      } else {
+        try (var inputStream = content.get()) {
+          StreamUtils.copyRange(inputStream, response.getOutputStream(), range.start(),
+              range.end());
+        }
+        response.getOutputStream().flush();
+      }
+    }
+  }
+
+  private static String getVariantName(String pictureName, int width, String extension) {
+    return StringUtils.substringBeforeLast(pictureName, ".") + "-" + width + "." + extension;
+  }
+
+  private void downloadLegacyPicture(CustomerPictureInfo pictureInfo,
+      HttpServletResponse response) throws IOException {
+    final var pictureBytes = StringUtils.isNotEmpty(pictureInfo.getPicture())
+        ? service.getLegacyPictureBytes(pictureInfo.getSk()) : Optional.<byte[]>empty();
+    if (pictureBytes.isPresent() && ArrayUtils.isNotEmpty(pictureBytes.get())) {
+      setCacheControl(response);
+      setPictureHeaders(pictureInfo.getPicture(), response);
+      response.setContentLength(pictureBytes.get().length);
+      response.getOutputStream().write(pictureBytes.get());
+      response.getOutputStream().flush();
       return;
     }
     throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
-        ErrorCodeEnum.CUSTOMER_NOT_FOUND);
+        ErrorCodeEnum.CUSTOMER_PICTURE_NOT_AVAILABLE);
   }
 
-  private static void downloadCustomerPicture(CustomerEntity entity, HttpServletResponse response)
-      throws IOException {
-    if (log.isDebugEnabled()) {
-      log.debug("downloadCustomerPicture: {}", entity.getSk());
-    }
-    if (StringUtils.isNotEmpty(entity.getPicture()) && ArrayUtils.isNotEmpty(
-        entity.getPictureBytes())) {
-      final var contentDisposition = ContentDisposition.builder("attachment")
-          .filename(entity.getPicture()).build();
-      response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString());
-      response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-      response.setHeader(HttpHeaders.CACHE_CONTROL,
-          CacheControl.maxAge(Constants.MAX_AGE, TimeUnit.DAYS).cachePublic().mustRevalidate()
-              .getHeaderValue());
-      response.setContentLength(entity.getPictureBytes().length);
-      response.getOutputStream().write(entity.getPictureBytes());
-      response.getOutputStream().flush();
-    } else {
-      throw new CustomResponseStatusException(HttpStatus.NOT_FOUND,
-          ErrorCodeEnum.CUSTOMER_PICTURE_NOT_AVAILABLE);
+  /**
+   * Resolves the byte range to serve. Multiple ranges, malformed headers and an {@code If-Range}
+   * not matching the current ETag fall back to the full content.
+   */
+  private static ByteRange getRequestedRange(HttpServletRequest request, String etag, long size) {
+    final var full = new ByteRange(0, size - 1);
+    final var rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    final var ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (StringUtils.isBlank(rangeHeader) || (Objects.nonNull(ifRange) && !ifRange.equals(etag))) {
+      return full;
+    }
+    final List<HttpRange> ranges;
+    try {
+      ranges = HttpRange.parseRanges(rangeHeader);
+    } catch (IllegalArgumentException e) {
+      return full;
+    }
+    if (ranges.size() != 1) {
+      return full;
+    }
+    final long start;
+    final long end;
+    try {
+      start = ranges.get(0).getRangeStart(size);
+      end = ranges.get(0).getRangeEnd(size);
+    } catch (IllegalArgumentException e) {
+      throw rangeNotSatisfiable();
     }
+    // HttpRange does not reject ranges starting at or past the end of the content
+    if (size == 0 || start >= size || end < start) {
+      throw rangeNotSatisfiable();
+    }
+    return new ByteRange(start, end);
+  }
+
+  private static CustomResponseStatusException rangeNotSatisfiable() {
+    return new CustomResponseStatusException(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE,
+        ErrorCodeEnum.CUSTOMER_PICTURE_RANGE_NOT_SATISFIABLE);
+  }
+
+  private static void transferFile(Path path, ByteRange range, HttpServletRequest request,
+      HttpServletResponse response) throws IOException {
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, path.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, range.start());
+      request.setAttribute(SENDFILE_END, range.end() + 1);
+      return;
+    }
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      transferChannel(channel, range, response);
+    }
+  }
+
+  private static void transferChannel(FileChannel channel, ByteRange range,
+      HttpServletResponse response) throws IOException {
+    final var target = Channels.newChannel(response.getOutputStream());
+    var position = range.start();
+    var remaining = range.length();
+    while (remaining > 0) {
+      final var transferred = channel.transferTo(position, remaining, target);
+      if (transferred <= 0) {
+        break;
+      }
+      position += transferred;
+      remaining -= transferred;
+    }
+    response.getOutputStream().flush();
+  }
+
+  private static void setPictureHeaders(String pictureName, HttpServletResponse response) {
+    final var contentDisposition = ContentDisposition.builder("attachment")
+        .filename(pictureName).build();
+    response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition.toString());
+    response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+  }
+
+  private static void setCacheControl(HttpServletResponse response) {
+    response.setHeader(HttpHeaders.CACHE_CONTROL,
+        CacheControl.maxAge(Constants.MAX_AGE, TimeUnit.DAYS).cachePublic().mustRevalidate()
+            .getHeaderValue());
   }
 
   public void uploadPicture(MultiValueMap<String, MultipartFile> allFileParams,
@@ -208,14 +578,93 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
     }
     if (Objects.nonNull(allFileParams.get(Constants.PICTURE))) {
       final var picture = allFileParams.get(Constants.PICTURE).get(0);
-      entity.setPicture(
-          "customer" + entity.getSk() + "." + FileUtil.getExtension(picture.getOriginalFilename()));
-      entity.setPictureBytes(picture.getBytes());
+      final var maxSize = pictureUploadConfiguration.getMaxSize().toBytes();
+      if (picture.getSize() > maxSize) {
+        throw new PictureTooLargeException(maxSize);
+      }
+      final PictureFormat format;
+      final StoredPicture storedPicture;
+      try (var content = new BufferedInputStream(
+          new SizeLimitedInputStream(picture.getInputStream(), maxSize))) {
+        format = PictureFormat.detect(content).orElseThrow(
+            () -> new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+                ErrorCodeEnum.CUSTOMER_PICTURE_NOT_VALID.getErrorMessage()
+                    + picture.getOriginalFilename(),
+                ErrorCodeEnum.CUSTOMER_PICTURE_NOT_VALID.name()));
+        storedPicture = pictureStore.store(content);
+      }
+      entity.setPicture("customer" + entity.getSk() + "." + format.getExtension());
+      entity.setPictureHash(storedPicture.getHash());
+      entity.setPictureSize(storedPicture.getSize());
       service.save(entity);
+      service.clearLegacyPictureBytes(entity.getSk());
+      pictureVariantService.generateAsync(storedPicture.getHash());
     }
   }
 
-  private static Pageable getPageable(final CustomerSearchRequest customerSearchRequest) {
+  private BasePageResponse<CustomerDto> getCustomersAfter(
+      final CustomerSearchRequest customerSearchRequest, final Predicate predicate) {
+    if (StringUtils.isNotBlank(customerSearchRequest.getSortBy())) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.INVALID_CURSOR.getErrorMessage() + "custom sorting is not supported",
+          ErrorCodeEnum.INVALID_CURSOR.name());
+    }
+    final var after = decodeCursor(customerSearchRequest.getCursor());
+    final var pageSize = Integer.parseInt(
+        StringUtils.defaultIfBlank(customerSearchRequest.getPageSize(),
+            Constants.DEFAULT_PAGE_SIZE));
+    // one extra row tells whether there is a following page without counting
+    final var summaries = service.findSummariesAfter(predicate, after, pageSize + 1);
+    final var hasNext = summaries.size() > pageSize;
+    final var page = hasNext ? summaries.subList(0, pageSize) : summaries;
+    final var content = page.stream().map(mapper::mapSummaryToCustomerDto).toList();
+    final var metaData = PageMetaData.builder().pageSize(pageSize).hasNext(hasNext).build();
+    return BasePageResponse.<CustomerDto>builder().content(content).metaData(metaData)
+        .nextCursor(hasNext ? CustomerCursor.of(page.get(page.size() - 1)).encode() : null)
+        .build();
+  }
+
+  private static CustomerCursor decodeCursor(final String cursor) {
+    if (StringUtils.isBlank(cursor)) {
+      return null;
+    }
+    try {
+      return CustomerCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.INVALID_CURSOR.getErrorMessage() + cursor,
+          ErrorCodeEnum.INVALID_CURSOR.name());
+    }
+  }
+
+  /**
+   * Returns the ids ranked by the search index for plain quick searches (no filter nor custom
+   * sorting), empty when the index is disabled or not applicable.
+   */
+  private Optional<List<Long>> getRankedIds(final CustomerSearchRequest customerSearchRequest) {
+    if (StringUtils.isEmpty(customerSearchRequest.getSearchTerm())
+        || StringUtils.isNotBlank(customerSearchRequest.getSortBy())
+        || Objects.nonNull(customerSearchRequest.getId())
+        || StringUtils.isNotEmpty(customerSearchRequest.getFirstName())
+        || StringUtils.isNotEmpty(customerSearchRequest.getLastName())
+        || StringUtils.isNotEmpty(customerSearchRequest.getEmail())
+        || StringUtils.isNotEmpty(customerSearchRequest.getPhoneNumber())) {
+      return Optional.empty();
+    }
+    return textSearch.rankedIds(customerSearchRequest.getSearchTerm());
+  }
+
+  private static CountMode getCountMode(final CustomerSearchRequest customerSearchRequest) {
+    try {
+      return CountMode.from(customerSearchRequest.getCountMode());
+    } catch (IllegalArgumentException e) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.INVALID_COUNT_MODE.getErrorMessage() + customerSearchRequest.getCountMode(),
+          ErrorCodeEnum.INVALID_COUNT_MODE.name());
+    }
+  }
+
+  private Pageable getPageable(final CustomerSearchRequest customerSearchRequest) {
     if (log.isDebugEnabled()) {
       log.debug("getPageable: {}", customerSearchRequest);
     }
@@ -228,10 +677,19 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
     return PageRequest.of(currentPage - 1, pageSize, createSort(customerSearchRequest));
   }
 
-  private static Sort createSort(final CustomerSearchRequest customerSearchRequest) {
+  private Sort createSort(final CustomerSearchRequest customerSearchRequest) {
     if (log.isDebugEnabled()) {
       log.debug("createSort: {}", customerSearchRequest);
     }
+    if (StringUtils.isBlank(customerSearchRequest.getSortBy())
+        && StringUtils.isNotEmpty(customerSearchRequest.getSearchTerm())) {
+      final var relevance = textSearch.relevance(customerSearchRequest.getSearchTerm());
+      if (relevance.isPresent()) {
+        final var qCustomerEntity = QCustomerEntity.customerEntity;
+        return new QSort(relevance.get(), qCustomerEntity.lastName.asc(),
+            qCustomerEntity.firstName.asc(), qCustomerEntity.email.asc());
+      }
+    }
     var sort = Sort.by(Sort.Order.asc(Constants.SORT_BY_LAST_NAME),
         Sort.Order.asc(Constants.SORT_BY_FIRST_NAME), Sort.Order.asc(Constants.SORT_BY_EMAIL));
     if (StringUtils.isNotBlank(customerSearchRequest.getSortBy())) {
@@ -254,19 +712,14 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
 
   }
 
-  private static Predicate genereratePredicate(final CustomerSearchRequest customerSearchRequest) {
+  private Predicate genereratePredicate(final CustomerSearchRequest customerSearchRequest) {
     if (log.isDebugEnabled()) {
       log.debug("genereratePredicate: {}", customerSearchRequest);
     }
     final var andBuilder = new BooleanBuilder();
     QCustomerEntity qCustomerEntity = QCustomerEntity.customerEntity;
     if (StringUtils.isNotEmpty(customerSearchRequest.getSearchTerm())) {
-      final var orBuilder = new BooleanBuilder();
-      orBuilder
-          .or(qCustomerEntity.firstName.contains(customerSearchRequest.getSearchTerm()))
-          .or(qCustomerEntity.lastName.contains(customerSearchRequest.getSearchTerm()))
-          .or(qCustomerEntity.email.contains(customerSearchRequest.getSearchTerm()));
-      andBuilder.and(orBuilder);
+      andBuilder.and(textSearch.matching(customerSearchRequest.getSearchTerm()));
     }
     if (Objects.nonNull(customerSearchRequest.getId())) {
       andBuilder.and(qCustomerEntity.sk.eq(customerSearchRequest.getId()));
@@ -287,6 +740,54 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
     return andBuilder;
   }
 
+  private static CustomerEntity toNewEntity(final CustomerCreateRequest createRequest) {
+    final var newEntity = new CustomerEntity();
+    newEntity.setEmail(createRequest.getEmail());
+    newEntity.setFirstName(createRequest.getFirstName());
+    newEntity.setLastName(createRequest.getLastName());
+    newEntity.setPhoneNumber(createRequest.getPhoneNumber());
+    return newEntity;
+  }
+
+  private static void applyChanges(final CustomerUpdateRequest updateRequest,
+      final CustomerEntity entityToUpdate) {
+    if (StringUtils.isNotBlank(updateRequest.getEmail())) {
+      entityToUpdate.setEmail(updateRequest.getEmail());
+    }
+    if (StringUtils.isNotBlank(updateRequest.getFirstName())) {
+      entityToUpdate.setFirstName(updateRequest.getFirstName());
+    }
+    if (StringUtils.isNotBlank(updateRequest.getLastName())) {
+      entityToUpdate.setLastName(updateRequest.getLastName());
+    }
+    if (StringUtils.isNotBlank(updateRequest.getPhoneNumber())) {
+      entityToUpdate.setPhoneNumber(updateRequest.getPhoneNumber());
+    }
+  }
+
+  private static CustomerFieldChanges toFieldChanges(final CustomerUpdateRequest updateRequest) {
+    return new CustomerFieldChanges(
+        StringUtils.defaultIfBlank(updateRequest.getFirstName(), null),
+        StringUtils.defaultIfBlank(updateRequest.getLastName(), null),
+        StringUtils.defaultIfBlank(updateRequest.getEmail(), null),
+        StringUtils.defaultIfBlank(updateRequest.getPhoneNumber(), null));
+  }
+
+  private static CustomerBatchItemResult itemResult(final Long id, final boolean found,
+      final HttpStatus successStatus) {
+    return found ? itemResult(id, successStatus, null)
+        : itemResult(id, HttpStatus.NOT_FOUND, ErrorCodeEnum.CUSTOMER_NOT_FOUND);
+  }
+
+  private static CustomerBatchItemResult itemResult(final Long id, final HttpStatus status,
+      final ErrorCodeEnum errorCode) {
+    return CustomerBatchItemResult.builder()
+        .id(id)
+        .status(status.value())
+        .errorCode(errorCode == null ? null : errorCode.name())
+        .build();
+  }
+
   private Optional<CustomerEntity> getCustomerEntity(final String customerId) {
     return getCustomerEntity(Long.valueOf(customerId));
   }
@@ -295,4 +796,10 @@ public class CustomerServiceAdapterImpl implements CustomerServiceAdapter {
     return service.getById(customerId);
   }
 
+  private record ByteRange(long start, long end) {
+
+    long length() {
+      return end - start + 1;
+    }
+  }
 }
@@ -0,0 +1,23 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.validation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "customer.batch")
+@Data
+public class CustomerBatchConfiguration {
+
+  /**
+   * Maximum number of ids resolved by a single batch request.
+   */
+  private int maxIds = 1000;
+
+  /**
+   * Maximum number of creations, updates and deletions applied by a single batch request.
+   */
+  private int maxOperations = 10000;
+}
@@ -0,0 +1,19 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.validation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "customer.picture.upload")
+@Data
+public class PictureUploadConfiguration {
+
+  /**
+   * Maximum size of an uploaded picture, enforced while the content is streamed to the store.
+   */
+  private DataSize maxSize = DataSize.ofMegabytes(10);
+}
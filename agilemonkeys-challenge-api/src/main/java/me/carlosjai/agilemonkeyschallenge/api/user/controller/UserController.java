@@ -2,15 +2,20 @@ package me.carlosjai.agilemonkeyschallenge.api.user.controller;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import me.carlosjai.agilemonkeyschallenge.api.base.config.HttpCacheConfiguration;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
 import me.carlosjai.agilemonkeyschallenge.api.user.dto.UserDto;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserCreateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserUpdateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.service.UserServiceAdapter;
+import me.carlosjai.agilemonkeyschallenge.api.util.ETagUtil;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
 import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,6 +27,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
@@ -61,20 +67,34 @@ public class UserController {
   private static final Logger log = LoggerFactory.getLogger(UserController.class);
 
   private final UserServiceAdapter userServiceAdapter;
+  private final HttpCacheConfiguration httpCacheConfiguration;
 
   /**
-   * Retrieves the details of a user identified by the specified ID.
+   * Retrieves the details of a user identified by the specified ID. The response carries a weak
+   * ETag of the user version, and a matching {@code If-None-Match} is answered with 304 without
+   * loading the user.
    *
-   * @param id the unique identifier of the user whose details are to be retrieved
-   * @return a {@link ResponseEntity} containing the user data
+   * @param id          the unique identifier of the user whose details are to be retrieved
+   * @param ifNoneMatch optional ETags of the representations already held by the client
+   * @return a {@link ResponseEntity} containing the user data, or an empty 304 response when the
+   * user did not change
    */
   @PreAuthorize("hasRole('ADMIN')")
   @GetMapping("/{id}")
-  public ResponseEntity<UserDto> getUser(@PathVariable Long id) {
+  public ResponseEntity<UserDto> getUser(@PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("getUser {}", id);
+      log.debug("getUser {} {}", id, ifNoneMatch);
     }
-    return ResponseEntity.ok(userServiceAdapter.getUser(id));
+    final var etag = userServiceAdapter.getUserETag(id);
+    final var cacheControl = StringUtils.trimToNull(httpCacheConfiguration.getUserDetail());
+    if (ETagUtil.matches(ifNoneMatch, etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+          .headers(headers -> headers.setCacheControl(cacheControl)).build();
+    }
+    return ResponseEntity.ok().eTag(etag)
+        .headers(headers -> headers.setCacheControl(cacheControl))
+        .body(userServiceAdapter.getUser(id));
   }
 
   /**
@@ -114,19 +134,26 @@ public class UserController {
   }
 
   /**
-   * Updates the details of an existing user based on the provided update request.
+   * Updates the details of an existing user based on the provided update request. When an
+   * {@code If-Match} ETag is given, the user is only updated if it did not change since, otherwise
+   * a 412 response is returned.
    *
    * @param updateRequest the request containing updated user details
-   * @return a {@link ResponseEntity} containing the updated user data
+   * @param ifMatch       optional ETag of the user version the update is based on
+   * @return a {@link ResponseEntity} containing the updated user data and the ETag of the version
+   * written by the update
    */
   @PreAuthorize("hasRole('ADMIN')")
   @PutMapping("/update")
-  public ResponseEntity<UserDto> updateUser(@Valid @RequestBody UserUpdateRequest updateRequest) {
+  public ResponseEntity<UserDto> updateUser(@Valid @RequestBody UserUpdateRequest updateRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("updateUser {}", updateRequest.getId());
+      log.debug("updateUser {} {}", updateRequest.getId(), ifMatch);
     }
-    UserDto updatedUser = userServiceAdapter.updateUser(updateRequest);
-    return ResponseEntity.ok(updatedUser);
+    UserDto updatedUser = userServiceAdapter.updateUser(updateRequest, ifMatch);
+    return ResponseEntity.ok()
+        .eTag(ETagUtil.weak(new EntityVersion(updatedUser.getId(), updatedUser.getVersion())))
+        .body(updatedUser);
   }
 
   /**
@@ -1,5 +1,6 @@
 package me.carlosjai.agilemonkeyschallenge.api.user.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
@@ -16,7 +17,8 @@ import lombok.Data;
  *
  * <p>This class includes essential information about a user, including their
  * unique identifier, username, full name, roles, and audit information such as who created the user
- * and when it was last modified.
+ * and when it was last modified. It also holds the version of the user it was read from, which
+ * builds its ETag and is not part of the JSON representation.
  *
  * <p>This class is built using the Builder design pattern, allowing for
  * flexible construction of UserDto instances.
@@ -36,4 +38,6 @@ public class UserDto implements Serializable {
   private LocalDate creationDate;
   private String lastModifiedBy;
   private LocalDate lastModifiedDate;
+  @JsonIgnore
+  private Long version;
 }
@@ -12,11 +12,22 @@ public interface UserServiceAdapter {
 
   void deleteUser(Long userId);
 
-  UserDto updateUser(UserUpdateRequest updateRequest);
+  /**
+   * Updates the user. With an {@code If-Match} ETag the update fails with 412 when the user
+   * changed since; a change made between the read and the write is caught by the version check of
+   * the save.
+   */
+  UserDto updateUser(UserUpdateRequest updateRequest, String ifMatch);
 
   BasePageResponse<UserDto> listUsers(UserSearchRequest userSearchRequest);
 
   UserDto changeAdminStatus(Long userId, Boolean isAdmin);
 
   UserDto getUser(Long id);
+
+  /**
+   * Returns the weak ETag of the user, built from its id and last modification date with a query
+   * that does not load the user nor its roles.
+   */
+  String getUserETag(Long id);
 }
@@ -14,10 +14,12 @@ import me.carlosjai.agilemonkeyschallenge.api.user.request.UserCreateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserUpdateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.service.UserServiceAdapter;
+import me.carlosjai.agilemonkeyschallenge.api.util.ETagUtil;
 import me.carlosjai.agilemonkeyschallenge.api.util.RoleUtil;
 import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
 import me.carlosjai.agilemonkeyschallenge.domain.user.definition.RoleEnum;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.QUserEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
@@ -94,13 +96,19 @@ public class UserServiceAdapterImpl implements UserServiceAdapter {
 
 
   @Override
-  public UserDto updateUser(UserUpdateRequest updateRequest) {
+  public UserDto updateUser(UserUpdateRequest updateRequest, String ifMatch) {
     if (log.isDebugEnabled()) {
-      log.debug("updateUser {}", updateRequest.getId());
+      log.debug("updateUser {} {}", updateRequest.getId(), ifMatch);
     }
+    final var expectedVersion = ETagUtil.expectedVersion(ifMatch, updateRequest.getId());
     var optionalUserEntity = userService.getUserById(updateRequest.getId());
     if (optionalUserEntity.isPresent()) {
       var entityToUpdate = optionalUserEntity.get();
+      if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(
+          entityToUpdate.getVersion())) {
+        throw new CustomResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+            ErrorCodeEnum.VERSION_MISMATCH);
+      }
       if (StringUtils.isNotBlank(updateRequest.getPassword())) {
         PasswordUtil.validatePassword(updateRequest.getPassword());
         entityToUpdate.setPassword(passwordEncoder.encode(updateRequest.getPassword()));
@@ -111,6 +119,7 @@ public class UserServiceAdapterImpl implements UserServiceAdapter {
       if (CollectionUtils.isNotEmpty(updateRequest.getRoles())) {
         entityToUpdate.getRoleEntities().clear();
         setEntityRoles(entityToUpdate, updateRequest.getRoles());
+        entityToUpdate.markRolesChanged();
       }
       return mapper.mapToUserDto(userService.save(entityToUpdate));
     }
@@ -123,19 +132,26 @@ public class UserServiceAdapterImpl implements UserServiceAdapter {
       log.debug("listUsers {}", userSearchRequest);
     }
     final var predicate = genereratePredicate(userSearchRequest);
+    final var countMode = getCountMode(userSearchRequest);
     final var pageable = getPageable(userSearchRequest);
-    final var pageEntities = userService.findAllBy(predicate, pageable);
+    final var pageEntities = userService.findAllBy(predicate, pageable, countMode);
 
     final var content = pageEntities.getContent().stream().map(mapper::mapToUserDto).toList();
-    final var metaData = PageMetaData.builder().currentPage(pageEntities.getNumber() + 1)
-        .pageSize(pageEntities.getSize())
-        .totalPages(pageEntities.getTotalPages())
-        .totalElements(pageEntities.getTotalElements())
-        .build();
+    final var metaData = PageMetaData.of(pageEntities, countMode == CountMode.ESTIMATED);
     return BasePageResponse.<UserDto>builder().content(content).metaData(metaData).build();
 
   }
 
+  private static CountMode getCountMode(final UserSearchRequest userSearchRequest) {
+    try {
+      return CountMode.from(userSearchRequest.getCountMode());
+    } catch (IllegalArgumentException e) {
+      throw new CustomResponseStatusException(HttpStatus.BAD_REQUEST,
+          ErrorCodeEnum.INVALID_COUNT_MODE.getErrorMessage() + userSearchRequest.getCountMode(),
+          ErrorCodeEnum.INVALID_COUNT_MODE.name());
+    }
+  }
+
   private static Pageable getPageable(final UserSearchRequest userSearchRequest) {
     if (log.isDebugEnabled()) {
       log.debug("getPageable {}", userSearchRequest);
@@ -221,8 +237,10 @@ public class UserServiceAdapterImpl implements UserServiceAdapter {
     if (Objects.nonNull(setToAdminFlag)) {
       if (BooleanUtils.isTrue(setToAdminFlag) && !RoleUtil.hasAdminRole(entity)) {
         entity.getRoleEntities().add(roleService.findByName(RoleEnum.ROLE_ADMIN.name()));
+        entity.markRolesChanged();
       } else if (BooleanUtils.isFalse(setToAdminFlag) && RoleUtil.hasAdminRole(entity)) {
         removeAdminRole(entity);
+        entity.markRolesChanged();
       }
     }
     return mapper.mapToUserDto(userService.save(entity));
@@ -254,4 +272,13 @@ public class UserServiceAdapterImpl implements UserServiceAdapter {
     }
     throw new CustomResponseStatusException(HttpStatus.NOT_FOUND, ErrorCodeEnum.USER_NOT_FOUND);
   }
+
+  @Override
+  public String getUserETag(Long userId) {
+    return userService.getVersion(userId)
+        .map(ETagUtil::weak)
+        .orElseThrow(
+            () -> new CustomResponseStatusException(HttpStatus.NOT_FOUND,
+                ErrorCodeEnum.USER_NOT_FOUND));
+  }
 }
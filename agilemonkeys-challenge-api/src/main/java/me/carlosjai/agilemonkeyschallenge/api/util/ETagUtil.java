@@ -0,0 +1,68 @@
+package me.carlosjai.agilemonkeyschallenge.api.util;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+
+public class ETagUtil {
+
+  private static final String WEAK_PREFIX = "W/";
+  private static final String ANY = "*";
+  private static final Pattern VERSION_TAG = Pattern.compile("\"(\\d+)-(\\d+)\"");
+
+  /**
+   * Builds the weak ETag {@code W/"<id>-<version>"} of an entity version. It is weak because the
+   * representation may change (e.g. mapping changes) while the version does not.
+   */
+  public static String weak(final EntityVersion version) {
+    return WEAK_PREFIX + "\"" + version.id() + "-" + version.version() + "\"";
+  }
+
+  /**
+   * Whether the {@code If-None-Match} header matches the ETag, using the weak comparison required
+   * for that header: {@code W/} prefixes are ignored and {@code *} matches any ETag.
+   */
+  public static boolean matches(final String ifNoneMatch, final String etag) {
+    if (StringUtils.isBlank(ifNoneMatch) || Objects.isNull(etag)) {
+      return false;
+    }
+    final var current = opaqueTag(etag);
+    for (final var candidate : ifNoneMatch.split(",")) {
+      final var trimmed = candidate.trim();
+      if (ANY.equals(trimmed) || current.equals(opaqueTag(trimmed))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the version carried by the {@code If-Match} header for the given entity, so the update
+   * can be made conditional on it. The ETags handed out are weak, so the {@code W/} prefix is
+   * accepted: the version identifies the stored state exactly.
+   *
+   * @return the expected version, or {@code null} when the header is absent or {@code *}
+   * @throws CustomResponseStatusException 412 when no ETag of the header belongs to the entity
+   */
+  public static Long expectedVersion(final String ifMatch, final Long id) {
+    if (StringUtils.isBlank(ifMatch) || ANY.equals(ifMatch.trim())) {
+      return null;
+    }
+    for (final var candidate : ifMatch.split(",")) {
+      final var matcher = VERSION_TAG.matcher(opaqueTag(candidate.trim()));
+      if (matcher.matches() && matcher.group(1).equals(String.valueOf(id))) {
+        return Long.valueOf(matcher.group(2));
+      }
+    }
+    throw new CustomResponseStatusException(HttpStatus.PRECONDITION_FAILED,
+        ErrorCodeEnum.VERSION_MISMATCH);
+  }
+
+  private static String opaqueTag(final String etag) {
+    return etag.startsWith(WEAK_PREFIX) ? etag.substring(WEAK_PREFIX.length()) : etag;
+  }
+}
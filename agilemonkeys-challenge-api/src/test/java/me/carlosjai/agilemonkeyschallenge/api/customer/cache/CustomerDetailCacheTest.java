@@ -0,0 +1,73 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CustomerDetailCacheTest {
+
+  private CustomerDetailCache cache;
+  private AtomicInteger loads;
+
+  @BeforeEach
+  void setUp() {
+    cache = new CustomerDetailCache(10, Duration.ofMinutes(5));
+    loads = new AtomicInteger();
+  }
+
+  @Test
+  void testGet_ServesRepeatedReadsFromCache() {
+    assertEquals(1L, cache.get(1L, this::load).getId());
+    assertEquals(1L, cache.get(1L, this::load).getId());
+
+    assertEquals(1, loads.get());
+    assertEquals(0.5, cache.stats().hitRate());
+  }
+
+  @Test
+  void testGet_MissingCustomerIsNotCached() {
+    assertNull(cache.get(2L, id -> {
+      loads.incrementAndGet();
+      return null;
+    }));
+    cache.get(2L, this::load);
+
+    assertEquals(2, loads.get());
+  }
+
+  @Test
+  void testOnCustomerChanged_EvictsTheCustomer() {
+    cache.get(1L, this::load);
+    cache.get(2L, this::load);
+
+    cache.onCustomerChanged(new CustomerChangedEvent(1L));
+    cache.get(1L, this::load);
+    cache.get(2L, this::load);
+
+    assertEquals(3, loads.get());
+  }
+
+  @Test
+  void testOnCustomersChanged_EvictsEveryCustomer() {
+    cache.get(1L, this::load);
+    cache.get(2L, this::load);
+
+    cache.onCustomersChanged(new CustomersChangedEvent(List.of(1L, 2L)));
+
+    assertEquals(0, cache.stats().getSize());
+    assertEquals(2, cache.stats().getInvalidations());
+  }
+
+  private CustomerDto load(Long id) {
+    loads.incrementAndGet();
+    return CustomerDto.builder().id(id).build();
+  }
+}
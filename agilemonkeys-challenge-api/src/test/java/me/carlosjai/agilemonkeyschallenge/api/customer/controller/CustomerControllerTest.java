@@ -1,23 +1,42 @@
 package me.carlosjai.agilemonkeyschallenge.api.customer.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.Collections;
 import java.util.List;
+import me.carlosjai.agilemonkeyschallenge.api.base.config.HttpCacheConfiguration;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchItemResult;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchMutationResponse;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchResponse;
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportError;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchMutationRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerUpdateRequest;
@@ -26,10 +45,16 @@ import me.carlosjai.agilemonkeyschallenge.api.customer.validation.ContentTypeVal
 import me.carlosjai.agilemonkeyschallenge.api.data.DataGenerator;
 import me.carlosjai.agilemonkeyschallenge.auth.jwt.service.JwtService;
 import me.carlosjai.agilemonkeyschallenge.auth.userdetail.UserDetailsServiceImpl;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +63,7 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.multipart.MultipartFile;
 
 @WebMvcTest(CustomerController.class)
+@Import(HttpCacheConfiguration.class)
 public class CustomerControllerTest {
 
   @Autowired
@@ -58,6 +84,7 @@ public class CustomerControllerTest {
   void testGetCustomerDetail_Success() throws Exception {
     String customerId = "1";
     CustomerDto customerDto = DataGenerator.generateCustomerDto(1L);
+    customerDto.setVersion(1000L);
 
     when(customerServiceAdapter.getCustomerDetail(customerId)).thenReturn(customerDto);
     mockMvc.perform(get("/api/v1/customer/{id}", customerId)
@@ -65,10 +92,35 @@ public class CustomerControllerTest {
             .contentType(MediaType.APPLICATION_JSON))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-1000\""))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
         .andExpect(jsonPath("$.id").value(1L))
         .andExpect(jsonPath("$.firstName").value("firstNameTest1"))
         .andExpect(jsonPath("$.lastName").value("lastNameTest1"))
-        .andExpect(jsonPath("$.email").value("email1@test.com"));
+        .andExpect(jsonPath("$.email").value("email1@test.com"))
+        .andExpect(jsonPath("$.version").doesNotExist());
+
+    verify(customerServiceAdapter).getCustomerDetail(customerId);
+    verifyNoMoreInteractions(customerServiceAdapter);
+  }
+
+  @Test
+  void testGetCustomerDetail_NotModified() throws Exception {
+    String customerId = "1";
+    CustomerDto customerDto = DataGenerator.generateCustomerDto(1L);
+    customerDto.setVersion(1000L);
+
+    when(customerServiceAdapter.getCustomerDetail(customerId)).thenReturn(customerDto);
+    mockMvc.perform(get("/api/v1/customer/{id}", customerId)
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0-1\", W/\"1-1000\""))
+        .andDo(print())
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-1000\""))
+        .andExpect(content().string(""));
+
+    verify(customerServiceAdapter).getCustomerDetail(customerId);
+    verifyNoMoreInteractions(customerServiceAdapter);
   }
 
   @Test
@@ -159,6 +211,109 @@ public class CustomerControllerTest {
 
   }
 
+  @Test
+  void testImportCustomers_Success() throws Exception {
+    var report = CustomerImportReport.builder().processed(2).imported(1).rejected(1)
+        .errors(List.of(new CustomerImportError(3, "email: must not be blank"))).build();
+
+    when(customerServiceAdapter.importCustomers(any(HttpServletRequest.class))).thenReturn(report);
+
+    mockMvc.perform(post("/api/v1/customer/import")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType("text/csv")
+            .content("firstName,lastName,email,phoneNumber\n"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.imported").value(1))
+        .andExpect(jsonPath("$.errors[0].line").value(3))
+        .andExpect(jsonPath("$.errors[0].message").value("email: must not be blank"));
+  }
+
+  @Test
+  void testExportCustomers_Success() throws Exception {
+    doNothing().when(customerServiceAdapter).exportCustomers(any(CustomerSearchRequest.class),
+        any(HttpServletRequest.class), any(HttpServletResponse.class));
+
+    mockMvc.perform(post("/api/v1/customer/export")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept("text/csv")
+            .content(objectMapper.writeValueAsString(new CustomerSearchRequest())))
+        .andDo(print())
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void testGetCustomersByIds_Success() throws Exception {
+    var batchRequest = new CustomerBatchRequest();
+    batchRequest.setIds(List.of(1L, 2L));
+    var response = CustomerBatchResponse.builder()
+        .content(List.of(DataGenerator.generateCustomerDto(1L))).missingIds(List.of(2L)).build();
+
+    when(customerServiceAdapter.getCustomersByIds(any(CustomerBatchRequest.class)))
+        .thenReturn(response);
+
+    mockMvc.perform(post("/api/v1/customer/batch")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(batchRequest)))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content[0].id").value(1L))
+        .andExpect(jsonPath("$.missingIds[0]").value(2L));
+  }
+
+  @Test
+  void testGetCustomersByIds_EmptyIds_throwsBadRequest() throws Exception {
+    mockMvc.perform(post("/api/v1/customer/batch")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(new CustomerBatchRequest())))
+        .andDo(print())
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value("VALIDATION"));
+  }
+
+  @Test
+  void testMutateCustomers_Success() throws Exception {
+    var mutationRequest = new CustomerBatchMutationRequest();
+    mutationRequest.setCreate(List.of(DataGenerator.generateCustomerCreateRequest(1L)));
+    mutationRequest.setDelete(List.of(2L));
+    var response = CustomerBatchMutationResponse.builder()
+        .create(List.of(CustomerBatchItemResult.builder().id(1L).status(201).build()))
+        .update(List.of())
+        .delete(List.of(CustomerBatchItemResult.builder().id(2L).status(204).build()))
+        .build();
+
+    when(customerServiceAdapter.mutateCustomers(any(CustomerBatchMutationRequest.class)))
+        .thenReturn(response);
+
+    mockMvc.perform(post("/api/v1/customer/batch/mutate")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(mutationRequest)))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.create[0].status").value(201))
+        .andExpect(jsonPath("$.delete[0].id").value(2L));
+  }
+
+  @Test
+  void testMutateCustomers_InvalidItem_throwsBadRequest() throws Exception {
+    var createRequest = DataGenerator.generateCustomerCreateRequest(1L);
+    createRequest.setEmail(null);
+    var mutationRequest = new CustomerBatchMutationRequest();
+    mutationRequest.setCreate(List.of(createRequest));
+
+    mockMvc.perform(post("/api/v1/customer/batch/mutate")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(mutationRequest)))
+        .andDo(print())
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value("VALIDATION"));
+  }
+
   @Test
   void testGetAllCustomers_Success() throws Exception {
     CustomerSearchRequest searchRequest = new CustomerSearchRequest();
@@ -180,8 +335,9 @@ public class CustomerControllerTest {
   void testUpdateCustomer_Success() throws Exception {
     var updateRequest = DataGenerator.generateCustomerUpdateRequest(1L);
     var updatedCustomer = DataGenerator.generateCustomerDto(1L);
+    updatedCustomer.setVersion(4L);
 
-    when(customerServiceAdapter.updateCustomer(any(CustomerUpdateRequest.class)))
+    when(customerServiceAdapter.updateCustomer(any(CustomerUpdateRequest.class), isNull()))
         .thenReturn(updatedCustomer);
 
     mockMvc.perform(put("/api/v1/customer/update")
@@ -190,10 +346,31 @@ public class CustomerControllerTest {
             .content(objectMapper.writeValueAsString(updateRequest)))
         .andDo(print())
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-4\""))
         .andExpect(jsonPath("$.id").value(1L))
-        .andExpect(jsonPath("$.firstName").value("Jane"))
-        .andExpect(jsonPath("$.lastName").value("Doe"))
-        .andExpect(jsonPath("$.email").value("jane.doe@example.com"));
+        .andExpect(jsonPath("$.firstName").value(updatedCustomer.getFirstName()))
+        .andExpect(jsonPath("$.lastName").value(updatedCustomer.getLastName()))
+        .andExpect(jsonPath("$.email").value(updatedCustomer.getEmail()));
+
+    verify(customerServiceAdapter).updateCustomer(any(CustomerUpdateRequest.class), isNull());
+    verifyNoMoreInteractions(customerServiceAdapter);
+  }
+
+  @Test
+  void testUpdateCustomer_IfMatchPreconditionFailed() throws Exception {
+    var updateRequest = DataGenerator.generateCustomerUpdateRequest(1L);
+
+    when(customerServiceAdapter.updateCustomer(any(CustomerUpdateRequest.class),
+        eq("W/\"1-3\""))).thenThrow(new CustomResponseStatusException(
+        HttpStatus.PRECONDITION_FAILED, ErrorCodeEnum.VERSION_MISMATCH));
+
+    mockMvc.perform(put("/api/v1/customer/update")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .header(HttpHeaders.IF_MATCH, "W/\"1-3\"")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(updateRequest)))
+        .andDo(print())
+        .andExpect(status().isPreconditionFailed());
   }
 
   @Test
@@ -211,6 +388,59 @@ public class CustomerControllerTest {
         .andExpect(jsonPath("$.errorCode").value("VALIDATION"));
   }
 
+  @Test
+  void testPatchCustomer_Success() throws Exception {
+    var patchedCustomer = DataGenerator.generateCustomerDto(1L);
+    patchedCustomer.setVersion(4L);
+
+    when(customerServiceAdapter.patchCustomer(any(CustomerUpdateRequest.class), eq("W/\"1-3\"")))
+        .thenReturn(patchedCustomer);
+
+    mockMvc.perform(patch("/api/v1/customer/1")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .header(HttpHeaders.IF_MATCH, "W/\"1-3\"")
+            .contentType("application/merge-patch+json")
+            .content("{\"email\":\"jane.doe@example.com\"}"))
+        .andDo(print())
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-4\""))
+        .andExpect(jsonPath("$.id").value(1L))
+        .andExpect(jsonPath("$.email").value(patchedCustomer.getEmail()));
+
+    var captor = ArgumentCaptor.forClass(CustomerUpdateRequest.class);
+    verify(customerServiceAdapter).patchCustomer(captor.capture(), eq("W/\"1-3\""));
+    assertEquals(1L, captor.getValue().getId());
+    assertEquals("jane.doe@example.com", captor.getValue().getEmail());
+    assertNull(captor.getValue().getFirstName());
+    verifyNoMoreInteractions(customerServiceAdapter);
+  }
+
+  @Test
+  void testPatchCustomer_RemovedMember_throwsBadRequest() throws Exception {
+    mockMvc.perform(patch("/api/v1/customer/1")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType("application/merge-patch+json")
+            .content("{\"firstName\":null}"))
+        .andDo(print())
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value("CUSTOMER_PATCH_NOT_VALID"));
+
+    verify(customerServiceAdapter, never()).patchCustomer(any(), any());
+  }
+
+  @Test
+  void testPatchCustomer_ReadOnlyMember_throwsBadRequest() throws Exception {
+    mockMvc.perform(patch("/api/v1/customer/1")
+            .with(jwt().authorities(new SimpleGrantedAuthority("ROLE_USER")))
+            .contentType("application/merge-patch+json")
+            .content("{\"id\":2}"))
+        .andDo(print())
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errorCode").value("CUSTOMER_PATCH_NOT_VALID"));
+
+    verify(customerServiceAdapter, never()).patchCustomer(any(), any());
+  }
+
 
   @Test
   void testDeleteCustomer_Success() throws Exception {
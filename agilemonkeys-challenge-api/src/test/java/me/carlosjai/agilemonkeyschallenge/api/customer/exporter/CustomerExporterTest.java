@@ -0,0 +1,118 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.exporter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import me.carlosjai.agilemonkeyschallenge.api.customer.mapper.CustomerMapper;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.http.MediaType;
+
+class CustomerExporterTest {
+
+  private CustomerService service;
+  private CustomerExporter exporter;
+
+  @BeforeEach
+  void setUp() {
+    service = mock(CustomerService.class);
+    exporter = new CustomerExporter(service, Mappers.getMapper(CustomerMapper.class),
+        new ObjectMapper().findAndRegisterModules(), 100);
+    doAnswer(invocation -> {
+      Consumer<CustomerSummary> action = invocation.getArgument(2);
+      action.accept(summary(1L, "David", "Smith, Jr.", "david@example.com"));
+      action.accept(summary(2L, "Lucia", "O\"Neil", "lucia@example.com"));
+      return null;
+    }).when(service).forEachSummary(any(Predicate.class), eq(100), any());
+  }
+
+  @Test
+  void testExport_Csv() throws IOException {
+    var writer = new StringWriter();
+
+    long exported = exporter.export(new BooleanBuilder(), CustomerExportFormat.CSV, writer);
+
+    assertEquals(2, exported);
+    assertEquals(CsvCustomerExportWriter.HEADER + "\n"
+        + "1,David,\"Smith, Jr.\",david@example.com,600000001,,,,,\n"
+        + "2,Lucia,\"O\"\"Neil\",lucia@example.com,600000002,,,,,\n", writer.toString());
+  }
+
+  @Test
+  void testExport_Ndjson() throws IOException {
+    var writer = new StringWriter();
+
+    exporter.export(new BooleanBuilder(), CustomerExportFormat.NDJSON, writer);
+
+    var lines = writer.toString().split("\n");
+    assertEquals(2, lines.length);
+    var objectMapper = new ObjectMapper();
+    assertEquals("Smith, Jr.", objectMapper.readTree(lines[0]).get("lastName").asText());
+    assertEquals(2, objectMapper.readTree(lines[1]).get("id").asLong());
+  }
+
+  @Test
+  void testExport_WriterFailureIsPropagated() {
+    Writer failing = new Writer() {
+      private int writes;
+
+      @Override
+      public void write(char[] buffer, int offset, int length) throws IOException {
+        // the header and its line break are written, the first customer fails
+        if (++writes > 2) {
+          throw new IOException("Broken pipe");
+        }
+      }
+
+      @Override
+      public void flush() {
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+
+    var exception = assertThrows(IOException.class,
+        () -> exporter.export(new BooleanBuilder(), CustomerExportFormat.CSV, failing));
+    assertEquals("Broken pipe", exception.getMessage());
+  }
+
+  @Test
+  void testNegotiate() {
+    assertEquals(Optional.of(CustomerExportFormat.CSV), CustomerExportFormat.negotiate(List.of()));
+    assertEquals(Optional.of(CustomerExportFormat.CSV),
+        CustomerExportFormat.negotiate(List.of(MediaType.ALL)));
+    assertEquals(Optional.of(CustomerExportFormat.NDJSON), CustomerExportFormat.negotiate(
+        MediaType.parseMediaTypes("application/x-ndjson, text/csv")));
+    assertEquals(Optional.empty(),
+        CustomerExportFormat.negotiate(List.of(MediaType.APPLICATION_JSON)));
+  }
+
+  private static CustomerSummary summary(Long sk, String firstName, String lastName,
+      String email) {
+    var summary = new CustomerSummary();
+    summary.setSk(sk);
+    summary.setFirstName(firstName);
+    summary.setLastName(lastName);
+    summary.setEmail(email);
+    summary.setPhoneNumber("60000000" + sk);
+    return summary;
+  }
+}
@@ -0,0 +1,113 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+class CustomerImportReaderTest {
+
+  @Test
+  void testCsv_ReadsColumnsByHeaderName() throws IOException {
+    var reader = CustomerImportFormat.CSV.open(reader("""
+        Email,phoneNumber,lastName,firstName,notes
+        david@example.com,615530523,"Smith, Jr.",David,vip
+
+        "lucia@example.com",658301134,"O""Neil",Lucia
+        """), new ObjectMapper());
+
+    var first = reader.next();
+    assertEquals(2, first.line());
+    assertEquals("David", first.customer().getFirstName());
+    assertEquals("Smith, Jr.", first.customer().getLastName());
+    assertEquals("david@example.com", first.customer().getEmail());
+    assertEquals("615530523", first.customer().getPhoneNumber());
+
+    var second = reader.next();
+    assertEquals(4, second.line());
+    assertEquals("O\"Neil", second.customer().getLastName());
+    assertEquals("lucia@example.com", second.customer().getEmail());
+
+    assertNull(reader.next());
+  }
+
+  @Test
+  void testCsv_MissingFieldsAreNull() throws IOException {
+    var reader = CustomerImportFormat.CSV.open(reader("""
+        firstName,lastName,email,phoneNumber
+        David,Smith,  ,
+        """), new ObjectMapper());
+
+    var row = reader.next();
+    assertNull(row.customer().getEmail());
+    assertNull(row.customer().getPhoneNumber());
+  }
+
+  @Test
+  void testCsv_UnterminatedQuoteRejectsTheRow() throws IOException {
+    var reader = CustomerImportFormat.CSV.open(reader("""
+        firstName,lastName,email,phoneNumber
+        "David,Smith,david@example.com,615530523
+        """), new ObjectMapper());
+
+    var row = reader.next();
+    assertNull(row.customer());
+    assertEquals("Unterminated quoted field", row.error());
+  }
+
+  @Test
+  void testCsv_InvalidHeader() {
+    var reader = CustomerImportFormat.CSV.open(reader("firstName,lastName\n"), new ObjectMapper());
+
+    var exception = assertThrows(IOException.class, reader::next);
+    assertTrue(exception.getMessage().contains("[email, phoneNumber]"));
+  }
+
+  @Test
+  void testCsv_Split() {
+    assertEquals(List.of("a", "", "b,c", "d\"e"), CsvCustomerImportReader.split("a,,\"b,c\",\"d\"\"e\""));
+  }
+
+  @Test
+  void testNdjson_ReadsOneCustomerPerLine() throws IOException {
+    var reader = CustomerImportFormat.NDJSON.open(reader("""
+        {"firstName":"David","lastName":"Smith","email":"david@example.com","phoneNumber":"615530523"}
+
+        {"firstName":"Lucia",
+        """), new ObjectMapper());
+
+    var first = reader.next();
+    assertEquals(1, first.line());
+    assertEquals("Smith", first.customer().getLastName());
+
+    var second = reader.next();
+    assertEquals(3, second.line());
+    assertNull(second.customer());
+    assertNotNull(second.error());
+
+    assertNull(reader.next());
+  }
+
+  @Test
+  void testOf_MatchesIgnoringParameters() {
+    assertEquals(Optional.of(CustomerImportFormat.CSV),
+        CustomerImportFormat.of(MediaType.parseMediaType("text/csv;charset=ISO-8859-1")));
+    assertEquals(Optional.of(CustomerImportFormat.NDJSON),
+        CustomerImportFormat.of(MediaType.parseMediaType("application/x-ndjson")));
+    assertEquals(Optional.empty(), CustomerImportFormat.of(MediaType.APPLICATION_JSON));
+  }
+
+  private static BufferedReader reader(String content) {
+    return new BufferedReader(new StringReader(content));
+  }
+}
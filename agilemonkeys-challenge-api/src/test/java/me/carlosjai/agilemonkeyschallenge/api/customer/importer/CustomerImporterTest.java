@@ -0,0 +1,132 @@
+package me.carlosjai.agilemonkeyschallenge.api.customer.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportError;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class CustomerImporterTest {
+
+  private static final String HEADER = "firstName,lastName,email,phoneNumber\n";
+
+  private ValidatorFactory validatorFactory;
+  private CustomerService service;
+  private CustomerImporter importer;
+
+  @BeforeEach
+  void setUp() {
+    validatorFactory = Validation.buildDefaultValidatorFactory();
+    service = mock(CustomerService.class);
+    importer = new CustomerImporter(service, validatorFactory.getValidator(), new ObjectMapper(),
+        2, 10);
+  }
+
+  @AfterEach
+  void tearDown() {
+    validatorFactory.close();
+  }
+
+  @Test
+  void testImportCustomers_SavesValidRowsInChunks() throws IOException {
+    when(service.saveAllNew(anyList())).thenReturn(Set.of());
+
+    var report = importCsv(HEADER
+        + "David,Smith,david@example.com,615530523\n"
+        + "Lucia,Garcia,lucia@example.com,658301134\n"
+        + "Anna,Smythe,anna@example.com,610569389\n");
+
+    assertEquals(3, report.getProcessed());
+    assertEquals(3, report.getImported());
+    assertEquals(0, report.getRejected());
+    assertTrue(report.getErrors().isEmpty());
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<CustomerEntity>> chunks = ArgumentCaptor.forClass(List.class);
+    verify(service, times(2)).saveAllNew(chunks.capture());
+    assertEquals(2, chunks.getAllValues().get(0).size());
+    assertEquals("anna@example.com", chunks.getAllValues().get(1).get(0).getEmail());
+  }
+
+  @Test
+  void testImportCustomers_ReportsRejectedRows() throws IOException {
+    when(service.saveAllNew(anyList())).thenReturn(Set.of("taken@example.com"));
+
+    var report = importCsv(HEADER
+        + "David,Smith,,615530523\n"
+        + "Anna,Smythe,anna@example.com,610569389\n"
+        + "Anna,Smythe,ANNA@example.com,610569389\n"
+        + "Lucia,Garcia,Taken@example.com,658301134\n");
+
+    assertEquals(4, report.getProcessed());
+    assertEquals(1, report.getImported());
+    assertEquals(3, report.getRejected());
+    assertEquals(List.of(2L, 4L, 5L),
+        report.getErrors().stream().map(CustomerImportError::getLine).sorted().toList());
+    assertEquals("email: must not be blank", report.getErrors().get(0).getMessage());
+    assertEquals(ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS.getErrorMessage(),
+        report.getErrors().get(2).getMessage());
+  }
+
+  @Test
+  void testImportCustomers_FailedChunkRejectsItsRows() throws IOException {
+    when(service.saveAllNew(anyList())).thenThrow(new IllegalStateException("Database error"));
+
+    var report = importCsv(HEADER + "David,Smith,david@example.com,615530523\n");
+
+    assertEquals(0, report.getImported());
+    assertEquals(1, report.getRejected());
+    assertEquals("Could not be saved: Database error", report.getErrors().get(0).getMessage());
+  }
+
+  @Test
+  void testImportCustomers_ErrorsAreTruncated() throws IOException {
+    importer = new CustomerImporter(service, validatorFactory.getValidator(), new ObjectMapper(),
+        2, 1);
+
+    var report = importCsv(HEADER + ",,,\n,,,\n");
+
+    assertEquals(2, report.getRejected());
+    assertEquals(1, report.getErrors().size());
+    assertTrue(report.isErrorsTruncated());
+  }
+
+  @Test
+  void testImportCustomers_Ndjson() throws IOException {
+    when(service.saveAllNew(anyList())).thenReturn(Set.of());
+
+    var report = importer.importCustomers(CustomerImportFormat.NDJSON, new ByteArrayInputStream(
+            ("{\"firstName\":\"David\",\"lastName\":\"Smith\",\"email\":\"david@example.com\","
+                + "\"phoneNumber\":\"615530523\"}\nnot json\n").getBytes(StandardCharsets.UTF_8)),
+        StandardCharsets.UTF_8);
+
+    assertEquals(1, report.getImported());
+    assertEquals(1, report.getRejected());
+    assertFalse(report.isErrorsTruncated());
+  }
+
+  private CustomerImportReport importCsv(String content) throws IOException {
+    return importer.importCustomers(CustomerImportFormat.CSV,
+        new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+  }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
@@ -29,6 +30,7 @@ public class CustomerMapperTest {
     assertEquals(entity.getEmail(), dto.getEmail());
     assertEquals(entity.getPhoneNumber(), dto.getPhoneNumber());
     assertEquals(entity.getPicture(), dto.getPicture());
+    assertEquals(entity.getVersion(), dto.getVersion());
   }
 
   @Test
@@ -44,6 +46,28 @@ public class CustomerMapperTest {
     assertEquals(entity.getPicture(), dto.getPicture());
   }
 
+  @Test
+  void testMapSummaryToCustomerDto() {
+    CustomerSummary summary = new CustomerSummary();
+    summary.setSk(1L);
+    summary.setFirstName("John");
+    summary.setLastName("Doe");
+    summary.setEmail("john.doe@example.com");
+    summary.setPhoneNumber("123456789");
+    summary.setPicture("customer1.jpg");
+    summary.setCreatedBy("admin");
+    summary.setVersion(3L);
+    CustomerDto dto = customerMapper.mapSummaryToCustomerDto(summary);
+    assertEquals(summary.getSk(), dto.getId());
+    assertEquals(summary.getFirstName(), dto.getFirstName());
+    assertEquals(summary.getLastName(), dto.getLastName());
+    assertEquals(summary.getEmail(), dto.getEmail());
+    assertEquals(summary.getPhoneNumber(), dto.getPhoneNumber());
+    assertEquals(summary.getPicture(), dto.getPicture());
+    assertEquals(summary.getCreatedBy(), dto.getCreatedBy());
+    assertEquals(summary.getVersion(), dto.getVersion());
+  }
+
   @Test
   void testMapToCustomerDto_NullEntity() {
     CustomerDto dto = customerMapper.mapToCustomerDto(null);
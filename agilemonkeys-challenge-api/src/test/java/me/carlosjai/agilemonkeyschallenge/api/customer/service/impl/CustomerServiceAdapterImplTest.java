@@ -1,43 +1,105 @@
 package me.carlosjai.agilemonkeyschallenge.api.customer.service.impl;
 
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.querydsl.core.types.Predicate;
 import jakarta.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import me.carlosjai.agilemonkeyschallenge.api.customer.cache.CustomerDetailCache;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerBatchItemResult;
 import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerDto;
+import me.carlosjai.agilemonkeyschallenge.api.customer.dto.CustomerImportReport;
+import me.carlosjai.agilemonkeyschallenge.api.customer.exporter.CustomerExportFormat;
+import me.carlosjai.agilemonkeyschallenge.api.customer.exporter.CustomerExporter;
+import me.carlosjai.agilemonkeyschallenge.api.customer.importer.CustomerImportFormat;
+import me.carlosjai.agilemonkeyschallenge.api.customer.importer.CustomerImporter;
 import me.carlosjai.agilemonkeyschallenge.api.customer.mapper.CustomerMapper;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchMutationRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerBatchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerCreateRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.customer.request.CustomerUpdateRequest;
+import me.carlosjai.agilemonkeyschallenge.api.customer.validation.CustomerBatchConfiguration;
+import me.carlosjai.agilemonkeyschallenge.api.customer.validation.PictureUploadConfiguration;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
 import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerBatchResult;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerUpdate;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerPictureInfo;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.service.CustomerService;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.StoredPicture;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant.PictureVariant;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant.PictureVariantService;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.search.CustomerTextSearch;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.search.index.CustomerIndex;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
+import me.carlosjai.agilemonkeyschallenge.domain.util.DatabaseProduct;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.querydsl.QSort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
-@SpringBootTest(classes = CustomerServiceAdapterImpl.class)
+@SpringBootTest(classes = {CustomerServiceAdapterImpl.class, PictureUploadConfiguration.class,
+    CustomerBatchConfiguration.class, CustomerDetailCache.class, CustomerTextSearch.class},
+    properties = {"customer.batch.max-ids=3", "customer.batch.max-operations=6"})
 class CustomerServiceAdapterImplTest {
 
   @MockBean
@@ -46,12 +108,38 @@ class CustomerServiceAdapterImplTest {
   @MockBean
   private CustomerMapper mapper;
 
+  @MockBean
+  private PictureStore pictureStore;
+
+  @MockBean
+  private PictureVariantService pictureVariantService;
+
+  @MockBean
+  private DatabaseProduct databaseProduct;
+
+  @MockBean
+  private CustomerIndex customerIndex;
+
+  @MockBean
+  private CustomerImporter customerImporter;
+
+  @MockBean
+  private CustomerExporter customerExporter;
+
   @Mock
   private HttpServletResponse response;
 
   @Autowired
   private CustomerServiceAdapterImpl customerServiceAdapter;
 
+  @Autowired
+  private CustomerDetailCache detailCache;
+
+  private static final byte[] PNG_CONTENT = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n',
+      0, 0, 0, 0};
+  private static final String HASH =
+      "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
   private CustomerEntity customerEntity;
   private CustomerDto customerDto;
   private CustomerCreateRequest customerCreateRequest;
@@ -60,6 +148,7 @@ class CustomerServiceAdapterImplTest {
 
   @BeforeEach
   void setUp() {
+    detailCache.clear();
     customerEntity = me.carlosjai.agilemonkeyschallenge.api.data.DataGenerator.generateCustomerEntity(
         1L);
 
@@ -94,6 +183,23 @@ class CustomerServiceAdapterImplTest {
     assertEquals(customerDto, result);
   }
 
+  @Test
+  void testGetCustomerDetail_ServedFromCacheUntilChanged() {
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    when(mapper.mapToCustomerDto(customerEntity)).thenReturn(customerDto);
+
+    customerServiceAdapter.getCustomerDetail("1");
+    CustomerDto result = customerServiceAdapter.getCustomerDetail("1");
+
+    assertEquals(customerDto, result);
+    verify(service, times(1)).getById(1L);
+
+    detailCache.onCustomerChanged(new CustomerChangedEvent(1L));
+    customerServiceAdapter.getCustomerDetail("1");
+
+    verify(service, times(2)).getById(1L);
+  }
+
   @Test
   void testGetCustomerDetail_NotFound() {
     when(service.getById(1L)).thenReturn(Optional.empty());
@@ -105,6 +211,231 @@ class CustomerServiceAdapterImplTest {
     assertEquals("Customer not found with the given id.", exception.getReason());
   }
 
+  @Test
+  void testGetCustomersByIds_KeepsOrderAndReportsMissing() {
+    var first = new CustomerSummary();
+    first.setSk(5L);
+    var second = new CustomerSummary();
+    second.setSk(1L);
+    var firstDto = CustomerDto.builder().id(5L).build();
+    when(service.findSummariesInOrder(List.of(5L, 9L, 1L))).thenReturn(List.of(first, second));
+    when(mapper.mapSummaryToCustomerDto(first)).thenReturn(firstDto);
+    when(mapper.mapSummaryToCustomerDto(second)).thenReturn(customerDto);
+    var request = new CustomerBatchRequest();
+    request.setIds(List.of(5L, 9L, 1L, 5L));
+
+    var result = customerServiceAdapter.getCustomersByIds(request);
+
+    assertEquals(List.of(firstDto, customerDto), result.getContent());
+    assertEquals(List.of(9L), result.getMissingIds());
+    verify(service, times(1)).findSummariesInOrder(any());
+    verify(service, never()).getById(any());
+  }
+
+  @Test
+  void testGetCustomersByIds_TooManyIds() {
+    var request = new CustomerBatchRequest();
+    request.setIds(List.of(1L, 2L, 3L, 4L));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.getCustomersByIds(request));
+
+    assertEquals(400, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.CUSTOMER_BATCH_TOO_LARGE.name(), exception.getErrorCode());
+    verify(service, never()).findSummariesInOrder(any());
+  }
+
+  @Test
+  void testGetAllCustomers_UsesSummaryProjection() {
+    var summary = new CustomerSummary();
+    summary.setSk(1L);
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class), eq(CountMode.EXACT)))
+        .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 10), 1));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+
+    var result = customerServiceAdapter.getAllCustomers(new CustomerSearchRequest());
+
+    assertEquals(List.of(customerDto), result.getContent());
+    assertEquals(1, result.getMetaData().getTotalElements());
+    verify(service, never()).findAllBy(any(Predicate.class), any(Pageable.class));
+  }
+
+  @Test
+  void testGetAllCustomers_SearchTermRankedByRelevance() {
+    when(databaseProduct.isPostgres()).thenReturn(true);
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class), eq(CountMode.EXACT)))
+        .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+    var request = new CustomerSearchRequest();
+    request.setSearchTerm("David");
+
+    customerServiceAdapter.getAllCustomers(request);
+
+    var pageable = ArgumentCaptor.forClass(Pageable.class);
+    var predicate = ArgumentCaptor.forClass(Predicate.class);
+    verify(service).findSummariesBy(predicate.capture(), pageable.capture(), eq(CountMode.EXACT));
+    assertInstanceOf(QSort.class, pageable.getValue().getSort());
+    assertEquals(4, ((QSort) pageable.getValue().getSort()).getOrderSpecifiers().size());
+    assertTrue(predicate.getValue().toString().contains("containsIc"));
+  }
+
+  @Test
+  void testGetAllCustomers_SearchTermWithoutRanking() {
+    when(databaseProduct.isPostgres()).thenReturn(false);
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class), eq(CountMode.EXACT)))
+        .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+    var request = new CustomerSearchRequest();
+    request.setSearchTerm("David");
+
+    customerServiceAdapter.getAllCustomers(request);
+
+    var pageable = ArgumentCaptor.forClass(Pageable.class);
+    verify(service).findSummariesBy(any(Predicate.class), pageable.capture(), eq(CountMode.EXACT));
+    assertEquals(Sort.by(Sort.Order.asc(Constants.SORT_BY_LAST_NAME),
+            Sort.Order.asc(Constants.SORT_BY_FIRST_NAME), Sort.Order.asc(Constants.SORT_BY_EMAIL)),
+        pageable.getValue().getSort());
+  }
+
+  @Test
+  void testGetAllCustomers_SearchTermServedFromIndex() {
+    var summary = new CustomerSummary();
+    summary.setSk(7L);
+    when(customerIndex.isReady()).thenReturn(true);
+    when(customerIndex.search(eq("Davdi"), anyInt())).thenReturn(List.of(7L, 3L));
+    when(service.findSummariesByRank(eq(List.of(7L, 3L)), any(Pageable.class)))
+        .thenReturn(new PageImpl<>(List.of(summary), PageRequest.of(0, 1), 2));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+    var request = new CustomerSearchRequest();
+    request.setSearchTerm("Davdi");
+
+    var result = customerServiceAdapter.getAllCustomers(request);
+
+    assertEquals(List.of(customerDto), result.getContent());
+    assertEquals(2, result.getMetaData().getTotalElements());
+    verify(service, never()).findSummariesBy(any(Predicate.class), any(Pageable.class),
+        any(CountMode.class));
+  }
+
+  @Test
+  void testGetAllCustomers_FilteredSearchTermNotServedFromIndex() {
+    when(customerIndex.isReady()).thenReturn(true);
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class), eq(CountMode.EXACT)))
+        .thenReturn(new PageImpl<>(List.of(), PageRequest.of(0, 10), 0));
+    var request = new CustomerSearchRequest();
+    request.setSearchTerm("David");
+    request.setLastName("Smith");
+
+    customerServiceAdapter.getAllCustomers(request);
+
+    verify(customerIndex, never()).search(any(), anyInt());
+    verify(service, never()).findSummariesByRank(any(), any(Pageable.class));
+  }
+
+  @Test
+  void testGetAllCustomers_WithoutCount() {
+    var summary = new CustomerSummary();
+    summary.setSk(1L);
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class), eq(CountMode.NONE)))
+        .thenReturn(new SliceImpl<>(List.of(summary), PageRequest.of(0, 10), true));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+    var request = new CustomerSearchRequest();
+    request.setCountMode("none");
+
+    var result = customerServiceAdapter.getAllCustomers(request);
+
+    assertEquals(List.of(customerDto), result.getContent());
+    assertTrue(result.getMetaData().isHasNext());
+    assertNull(result.getMetaData().getTotalElements());
+    assertNull(result.getMetaData().getTotalPages());
+  }
+
+  @Test
+  void testGetAllCustomers_EstimatedCount() {
+    when(service.findSummariesBy(any(Predicate.class), any(Pageable.class),
+        eq(CountMode.ESTIMATED)))
+        .thenReturn(new PageImpl<>(List.of(new CustomerSummary()), PageRequest.of(0, 1), 1000));
+    when(mapper.mapSummaryToCustomerDto(any(CustomerSummary.class))).thenReturn(customerDto);
+    var request = new CustomerSearchRequest();
+    request.setCountMode("estimated");
+
+    var result = customerServiceAdapter.getAllCustomers(request);
+
+    assertEquals(1000, result.getMetaData().getTotalElements());
+    assertTrue(result.getMetaData().isApproximate());
+  }
+
+  @Test
+  void testGetAllCustomers_InvalidCountMode() {
+    var request = new CustomerSearchRequest();
+    request.setCountMode("sometimes");
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.getAllCustomers(request));
+
+    assertEquals(ErrorCodeEnum.INVALID_COUNT_MODE.name(), exception.getErrorCode());
+    assertEquals(400, exception.getStatusCode().value());
+  }
+
+  @Test
+  void testGetAllCustomers_CursorFirstPage() {
+    var first = summary(1L, "Anderson");
+    var second = summary(2L, "Brown");
+    var third = summary(3L, "Clark");
+    when(service.findSummariesAfter(any(Predicate.class), isNull(), eq(3)))
+        .thenReturn(List.of(first, second, third));
+    when(mapper.mapSummaryToCustomerDto(any(CustomerSummary.class))).thenReturn(customerDto);
+    var request = new CustomerSearchRequest();
+    request.setCursor("");
+    request.setPageSize("2");
+
+    var result = customerServiceAdapter.getAllCustomers(request);
+
+    assertEquals(2, result.getContent().size());
+    assertEquals(2, result.getMetaData().getPageSize());
+    assertEquals(CustomerCursor.of(second), CustomerCursor.decode(result.getNextCursor()));
+    verify(service, never()).findSummariesBy(any(Predicate.class), any(Pageable.class), any());
+  }
+
+  @Test
+  void testGetAllCustomers_CursorLastPage() {
+    var after = new CustomerCursor("Brown", "David", "david@example.com", 2L);
+    when(service.findSummariesAfter(any(Predicate.class), eq(after), eq(3)))
+        .thenReturn(List.of(summary(3L, "Clark")));
+    when(mapper.mapSummaryToCustomerDto(any(CustomerSummary.class))).thenReturn(customerDto);
+    var request = new CustomerSearchRequest();
+    request.setCursor(after.encode());
+    request.setPageSize("2");
+
+    var result = customerServiceAdapter.getAllCustomers(request);
+
+    assertEquals(List.of(customerDto), result.getContent());
+    assertNull(result.getNextCursor());
+  }
+
+  @Test
+  void testGetAllCustomers_InvalidCursor() {
+    var request = new CustomerSearchRequest();
+    request.setCursor("not a cursor");
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.getAllCustomers(request));
+
+    assertEquals(ErrorCodeEnum.INVALID_CURSOR.name(), exception.getErrorCode());
+    assertEquals(400, exception.getStatusCode().value());
+  }
+
+  @Test
+  void testGetAllCustomers_CursorWithCustomSort() {
+    var request = new CustomerSearchRequest();
+    request.setCursor("");
+    request.setSortBy("id");
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.getAllCustomers(request));
+
+    assertEquals(ErrorCodeEnum.INVALID_CURSOR.name(), exception.getErrorCode());
+    verify(service, never()).findSummariesAfter(any(), any(), anyInt());
+  }
+
   @Test
   void testCreateCustomer_Success() {
     when(service.findByEmail(customerCreateRequest.getEmail())).thenReturn(Optional.empty());
@@ -129,13 +460,152 @@ class CustomerServiceAdapterImplTest {
     assertEquals("The specified email is already being used.", exception.getReason());
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  void testMutateCustomers_ReportsEveryOperation() {
+    var request = new CustomerBatchMutationRequest();
+    var conflicting = new CustomerCreateRequest();
+    conflicting.setEmail("taken@example.com");
+    request.setCreate(List.of(customerCreateRequest, conflicting));
+    var missingUpdate = new CustomerUpdateRequest();
+    missingUpdate.setId(8L);
+    var conflictingUpdate = new CustomerUpdateRequest();
+    conflictingUpdate.setId(2L);
+    conflictingUpdate.setEmail("taken@example.com");
+    request.setUpdate(List.of(customerUpdateRequest, missingUpdate, conflictingUpdate));
+    request.setDelete(List.of(9L));
+    when(service.applyBatch(any(), any(), eq(List.of(9L)))).thenReturn(
+        new CustomerBatchResult(Arrays.asList(11L, null), Set.of(1L), Set.of(2L), Set.of()));
+
+    var result = customerServiceAdapter.mutateCustomers(request);
+
+    assertEquals(List.of(201, 409),
+        result.getCreate().stream().map(CustomerBatchItemResult::getStatus).toList());
+    assertEquals(11L, result.getCreate().get(0).getId());
+    assertEquals(ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS.name(),
+        result.getCreate().get(1).getErrorCode());
+    assertEquals(List.of(200, 404, 409),
+        result.getUpdate().stream().map(CustomerBatchItemResult::getStatus).toList());
+    assertEquals(8L, result.getUpdate().get(1).getId());
+    assertEquals(ErrorCodeEnum.CUSTOMER_EMAIL_ALREADY_EXISTS.name(),
+        result.getUpdate().get(2).getErrorCode());
+    assertEquals(404, result.getDelete().get(0).getStatus());
+    assertEquals(ErrorCodeEnum.CUSTOMER_NOT_FOUND.name(), result.getDelete().get(0).getErrorCode());
+
+    ArgumentCaptor<List<CustomerEntity>> creations = ArgumentCaptor.forClass(List.class);
+    ArgumentCaptor<List<CustomerUpdate>> updates = ArgumentCaptor.forClass(List.class);
+    verify(service, times(1)).applyBatch(creations.capture(), updates.capture(), any());
+    assertEquals(customerCreateRequest.getEmail(), creations.getValue().get(0).getEmail());
+    var entity = new CustomerEntity();
+    updates.getValue().get(0).changes().accept(entity);
+    assertEquals(customerUpdateRequest.getFirstName(), entity.getFirstName());
+    assertEquals(customerUpdateRequest.getEmail(), updates.getValue().get(0).email());
+    assertNull(updates.getValue().get(1).email());
+    verify(service, never()).save(any());
+  }
+
+  @Test
+  void testMutateCustomers_TooManyOperations() {
+    var request = new CustomerBatchMutationRequest();
+    request.setCreate(List.of(customerCreateRequest));
+    request.setDelete(List.of(1L, 2L, 3L, 4L, 5L, 6L));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.mutateCustomers(request));
+
+    assertEquals(400, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.CUSTOMER_BATCH_TOO_MANY_OPERATIONS.name(),
+        exception.getErrorCode());
+    verify(service, never()).applyBatch(any(), any(), any());
+  }
+
+  @Test
+  void testImportCustomers_DelegatesToImporter() throws IOException {
+    var report = CustomerImportReport.builder().processed(1).imported(1).build();
+    when(customerImporter.importCustomers(eq(CustomerImportFormat.CSV), any(InputStream.class),
+        eq(StandardCharsets.ISO_8859_1))).thenReturn(report);
+    var request = new MockHttpServletRequest();
+    request.setContentType("text/csv;charset=ISO-8859-1");
+    request.setContent("firstName,lastName,email,phoneNumber\n".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(report, customerServiceAdapter.importCustomers(request));
+  }
+
+  @Test
+  void testImportCustomers_UnsupportedContentType() {
+    var request = new MockHttpServletRequest();
+    request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.importCustomers(request));
+
+    assertEquals(415, exception.getStatusCode().value());
+  }
+
+  @Test
+  void testImportCustomers_InvalidContent() throws IOException {
+    when(customerImporter.importCustomers(any(), any(), any()))
+        .thenThrow(new IOException("The CSV header is missing the columns [email]"));
+    var request = new MockHttpServletRequest();
+    request.setContentType("application/x-ndjson");
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.importCustomers(request));
+
+    assertEquals(400, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.CUSTOMER_IMPORT_NOT_VALID.getErrorMessage()
+        + "The CSV header is missing the columns [email]", exception.getReason());
+  }
+
+  @Test
+  void testExportCustomers_NegotiatesFormat() throws IOException {
+    var request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.ACCEPT, "application/x-ndjson");
+    var response = new MockHttpServletResponse();
+    var searchRequest = new CustomerSearchRequest();
+    searchRequest.setLastName("Smith");
+
+    customerServiceAdapter.exportCustomers(searchRequest, request, response);
+
+    var predicate = ArgumentCaptor.forClass(Predicate.class);
+    verify(customerExporter).export(predicate.capture(), eq(CustomerExportFormat.NDJSON), any());
+    assertTrue(predicate.getValue().toString().contains("Smith"));
+    assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+    assertEquals("attachment; filename=\"customers.ndjson\"",
+        response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+  }
+
+  @Test
+  void testExportCustomers_NotAcceptable() {
+    var request = new MockHttpServletRequest();
+    request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+
+    var exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.exportCustomers(new CustomerSearchRequest(), request,
+            new MockHttpServletResponse()));
+
+    assertEquals(406, exception.getStatusCode().value());
+  }
+
+  @Test
+  void testExportCustomers_FailureAfterCommitIsNotRethrown() throws IOException {
+    var response = new MockHttpServletResponse();
+    when(customerExporter.export(any(), any(), any())).thenAnswer(invocation -> {
+      response.flushBuffer();
+      throw new IOException("Broken pipe");
+    });
+
+    assertDoesNotThrow(() -> customerServiceAdapter.exportCustomers(new CustomerSearchRequest(),
+        new MockHttpServletRequest(), response));
+  }
+
   @Test
   void testUpdateCustomer_Success() {
     when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
     when(service.save(any(CustomerEntity.class))).thenReturn(customerEntity);
     when(mapper.mapToCustomerDto(customerEntity)).thenReturn(customerDto);
 
-    CustomerDto result = customerServiceAdapter.updateCustomer(customerUpdateRequest);
+    CustomerDto result = customerServiceAdapter.updateCustomer(customerUpdateRequest, null);
 
     assertNotNull(result);
     assertEquals(customerDto, result);
@@ -147,11 +617,126 @@ class CustomerServiceAdapterImplTest {
 
     CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
         () ->
-            customerServiceAdapter.updateCustomer(customerUpdateRequest));
+            customerServiceAdapter.updateCustomer(customerUpdateRequest, null));
 
     assertEquals("Customer not found with the given id.", exception.getReason());
   }
 
+  @Test
+  void testUpdateCustomer_IfMatchUpdatesWithoutLoading() {
+    var summary = summary(1L, "Doe");
+    when(service.updateFields(eq(1L), eq(3L), any(CustomerFieldChanges.class))).thenReturn(true);
+    when(service.findSummariesInOrder(List.of(1L))).thenReturn(List.of(summary));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+
+    CustomerDto result = customerServiceAdapter.updateCustomer(customerUpdateRequest,
+        "W/\"1-3\"");
+
+    assertEquals(customerDto, result);
+    var changes = ArgumentCaptor.forClass(CustomerFieldChanges.class);
+    verify(service).updateFields(eq(1L), eq(3L), changes.capture());
+    assertEquals(customerUpdateRequest.getEmail(), changes.getValue().email());
+    verify(service, never()).save(any(CustomerEntity.class));
+  }
+
+  @Test
+  void testUpdateCustomer_IfMatchStaleVersion() {
+    when(service.updateFields(eq(1L), eq(3L), any(CustomerFieldChanges.class))).thenReturn(false);
+    when(service.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 4L)));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.updateCustomer(customerUpdateRequest, "W/\"1-3\""));
+
+    assertEquals(412, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.VERSION_MISMATCH.name(), exception.getErrorCode());
+  }
+
+  @Test
+  void testUpdateCustomer_IfMatchMissingCustomer() {
+    when(service.updateFields(eq(1L), eq(3L), any(CustomerFieldChanges.class))).thenReturn(false);
+    when(service.getVersion(1L)).thenReturn(Optional.empty());
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.updateCustomer(customerUpdateRequest, "\"1-3\""));
+
+    assertEquals(404, exception.getStatusCode().value());
+  }
+
+  @Test
+  void testUpdateCustomer_IfMatchOfAnotherCustomer() {
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.updateCustomer(customerUpdateRequest, "W/\"2-3\""));
+
+    assertEquals(412, exception.getStatusCode().value());
+    verify(service, never()).updateFields(any(), any(), any());
+  }
+
+  @Test
+  void testPatchCustomer_UpdatesOnlyPatchedColumns() {
+    var patch = new CustomerUpdateRequest();
+    patch.setId(1L);
+    patch.setEmail("patched@example.com");
+    var summary = summary(1L, "Doe");
+    when(service.updateFields(eq(1L), isNull(), any(CustomerFieldChanges.class))).thenReturn(true);
+    when(service.findSummariesInOrder(List.of(1L))).thenReturn(List.of(summary));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+
+    CustomerDto result = customerServiceAdapter.patchCustomer(patch, null);
+
+    assertEquals(customerDto, result);
+    verify(service).updateFields(1L, null,
+        new CustomerFieldChanges(null, null, "patched@example.com", null));
+    verify(service, never()).getById(any());
+    verify(service, never()).getVersion(any());
+  }
+
+  @Test
+  void testPatchCustomer_NotFound() {
+    var patch = new CustomerUpdateRequest();
+    patch.setId(1L);
+    patch.setFirstName("Jane");
+    when(service.updateFields(eq(1L), isNull(), any(CustomerFieldChanges.class))).thenReturn(false);
+    when(service.getVersion(1L)).thenReturn(Optional.empty());
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.patchCustomer(patch, null));
+
+    assertEquals(404, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.CUSTOMER_NOT_FOUND.name(), exception.getErrorCode());
+  }
+
+  @Test
+  void testPatchCustomer_IfMatchStaleVersion() {
+    var patch = new CustomerUpdateRequest();
+    patch.setId(1L);
+    patch.setFirstName("Jane");
+    when(service.updateFields(eq(1L), eq(3L), any(CustomerFieldChanges.class))).thenReturn(false);
+    when(service.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 4L)));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.patchCustomer(patch, "W/\"1-3\""));
+
+    assertEquals(412, exception.getStatusCode().value());
+    assertEquals(ErrorCodeEnum.VERSION_MISMATCH.name(), exception.getErrorCode());
+  }
+
+  @Test
+  void testPatchCustomer_EmptyPatchOnlyChecksVersion() {
+    var patch = new CustomerUpdateRequest();
+    patch.setId(1L);
+    var summary = summary(1L, "Doe");
+    when(service.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 3L)));
+    when(service.findSummariesInOrder(List.of(1L))).thenReturn(List.of(summary));
+    when(mapper.mapSummaryToCustomerDto(summary)).thenReturn(customerDto);
+
+    assertEquals(customerDto, customerServiceAdapter.patchCustomer(patch, "W/\"1-3\""));
+    verify(service, never()).updateFields(any(), any(), any());
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.patchCustomer(patch, "W/\"1-2\""));
+    assertEquals(412, exception.getStatusCode().value());
+  }
+
   @Test
   void testDeleteCustomer_Success() {
     when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
@@ -171,14 +756,100 @@ class CustomerServiceAdapterImplTest {
   }
 
   @Test
-  void testUploadImage_Success() {
+  void testUploadImage_Success() throws IOException {
     when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
     when(service.save(any(CustomerEntity.class))).thenReturn(customerEntity);
+    when(pictureStore.store(any(InputStream.class))).thenReturn(new StoredPicture(HASH, 0));
     final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
     allFileParams.add(Constants.PICTURE,
         new MockMultipartFile("test.png", "test.png", "application/png",
-            new byte[0]));
+            PNG_CONTENT));
     assertDoesNotThrow(() -> customerServiceAdapter.uploadCustomerPicture(allFileParams, "1"));
+    assertEquals(HASH, customerEntity.getPictureHash());
+    assertEquals("customer1.png", customerEntity.getPicture());
+    verify(service).clearLegacyPictureBytes(1L);
+    verify(pictureVariantService).generateAsync(HASH);
+  }
+
+  @Test
+  void testUploadImage_KeepsVariantsOfReplacedPicture() throws IOException {
+    final var previousHash = HASH.replace('9', '0');
+    customerEntity.setPictureHash(previousHash);
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    when(pictureStore.store(any(InputStream.class))).thenReturn(new StoredPicture(HASH, 0));
+    final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
+    allFileParams.add(Constants.PICTURE,
+        new MockMultipartFile("test.png", "test.png", "image/png", PNG_CONTENT));
+
+    customerServiceAdapter.uploadCustomerPicture(allFileParams, "1");
+
+    verify(pictureVariantService, never()).invalidate(previousHash);
+    verify(pictureVariantService).generateAsync(HASH);
+  }
+
+  @Test
+  void testUploadImage_NamedAfterDetectedFormat() throws IOException {
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    when(pictureStore.store(any(InputStream.class))).thenAnswer(invocation -> {
+      assertArrayEquals(PNG_CONTENT, invocation.<InputStream>getArgument(0).readAllBytes());
+      return new StoredPicture(HASH, PNG_CONTENT.length);
+    });
+    final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
+    allFileParams.add(Constants.PICTURE,
+        new MockMultipartFile("test.jpg", "test.jpg", "image/jpeg", PNG_CONTENT));
+
+    customerServiceAdapter.uploadCustomerPicture(allFileParams, "1");
+
+    assertEquals("customer1.png", customerEntity.getPicture());
+  }
+
+  @Test
+  void testUploadImage_RejectsContentNotMatchingAnImage() throws IOException {
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
+    allFileParams.add(Constants.PICTURE,
+        new MockMultipartFile("test.png", "test.png", "image/png", "<html>".getBytes()));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.uploadCustomerPicture(allFileParams, "1"));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_NOT_VALID.name(), exception.getErrorCode());
+    verify(pictureStore, never()).store(any(InputStream.class));
+    verify(service, never()).save(any(CustomerEntity.class));
+  }
+
+  @Test
+  void testUploadImage_AbortsWhenStreamExceedsMaxSize() throws IOException {
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    when(pictureStore.store(any(InputStream.class))).thenAnswer(invocation ->
+        invocation.<InputStream>getArgument(0).transferTo(OutputStream.nullOutputStream()));
+    final var picture = mock(MultipartFile.class);
+    when(picture.getSize()).thenReturn(1L);
+    when(picture.getInputStream()).thenReturn(
+        new GeneratedPictureStream(DataSize.ofMegabytes(64).toBytes()));
+    final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
+    allFileParams.add(Constants.PICTURE, picture);
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.uploadCustomerPicture(allFileParams, "1"));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_TOO_LARGE.name(), exception.getErrorCode());
+    verify(service, never()).save(any(CustomerEntity.class));
+  }
+
+  @Test
+  void testUploadImage_RejectsDeclaredSizeOverMaxSize() throws IOException {
+    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    final var picture = mock(MultipartFile.class);
+    when(picture.getSize()).thenReturn(DataSize.ofMegabytes(11).toBytes());
+    final MultiValueMap<String, MultipartFile> allFileParams = new LinkedMultiValueMap<>();
+    allFileParams.add(Constants.PICTURE, picture);
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.uploadCustomerPicture(allFileParams, "1"));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_TOO_LARGE.name(), exception.getErrorCode());
+    verify(picture, never()).getInputStream();
   }
 
   @Test
@@ -200,33 +871,328 @@ class CustomerServiceAdapterImplTest {
   @Test
   void testDownloadCustomerPicture_Success() throws IOException {
     customerEntity.setPicture("customer1.jpg");
-    customerEntity.setPictureBytes("test".getBytes());
+    final var pictureBytes = "test".getBytes();
     MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
 
-    when(service.getById(1L)).thenReturn(Optional.of(customerEntity));
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(service.getLegacyPictureBytes(1L)).thenReturn(Optional.of(pictureBytes));
 
-    assertDoesNotThrow(() -> customerServiceAdapter.downloadCustomerPicture("1", mockedResponse));
+    assertDoesNotThrow(() -> customerServiceAdapter.downloadCustomerPicture("1", null,
+        new MockHttpServletRequest("GET", "/"), mockedResponse));
 
     assertEquals("attachment; filename=\"customer1.jpg\"",
         mockedResponse.getHeader(HttpHeaders.CONTENT_DISPOSITION));
     assertEquals(MediaType.APPLICATION_OCTET_STREAM_VALUE,
         mockedResponse.getContentType());
-    assertEquals(customerEntity.getPictureBytes().length,
-        mockedResponse.getContentLength());
+    assertEquals(pictureBytes.length, mockedResponse.getContentLength());
 
-    Assertions.assertArrayEquals(customerEntity.getPictureBytes(),
-        mockedResponse.getContentAsByteArray());
+    Assertions.assertArrayEquals(pictureBytes, mockedResponse.getContentAsByteArray());
+    verify(service, never()).getById(1L);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_FromPictureStore() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.open(HASH)).thenReturn(
+        Optional.of(new ByteArrayInputStream("test".getBytes())));
+
+    assertDoesNotThrow(() -> customerServiceAdapter.downloadCustomerPicture("1", null,
+        new MockHttpServletRequest("GET", "/"), mockedResponse));
+
+    assertEquals(200, mockedResponse.getStatus());
+    assertEquals("\"" + HASH + "\"", mockedResponse.getHeader(HttpHeaders.ETAG));
+    assertEquals("bytes", mockedResponse.getHeader(HttpHeaders.ACCEPT_RANGES));
+    assertEquals(4, mockedResponse.getContentLength());
+    Assertions.assertArrayEquals("test".getBytes(), mockedResponse.getContentAsByteArray());
+    verify(service, never()).getById(1L);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_FromPictureFile(@TempDir Path directory) throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    final var file = Files.writeString(directory.resolve(HASH), "test");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.path(HASH)).thenReturn(Optional.of(file));
+
+    customerServiceAdapter.downloadCustomerPicture("1", null,
+        new MockHttpServletRequest("GET", "/"), mockedResponse);
+
+    assertEquals(4, mockedResponse.getContentLength());
+    Assertions.assertArrayEquals("test".getBytes(), mockedResponse.getContentAsByteArray());
+    verify(pictureStore, never()).open(HASH);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_UsesContainerSendfile(@TempDir Path directory)
+      throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    final var file = Files.writeString(directory.resolve(HASH), "test");
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.path(HASH)).thenReturn(Optional.of(file));
+
+    customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse);
+
+    assertEquals(file.toAbsolutePath().toString(),
+        request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    assertEquals(0L, request.getAttribute("org.apache.tomcat.sendfile.start"));
+    assertEquals(4L, request.getAttribute("org.apache.tomcat.sendfile.end"));
+    assertEquals(4, mockedResponse.getContentLength());
+    assertEquals(0, mockedResponse.getContentAsByteArray().length);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_Variant(@TempDir Path directory) throws IOException {
+    customerEntity.setPicture("customer1.png");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4000L);
+    final var variant = Files.writeString(directory.resolve(HASH + "-64.jpg"), "small");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(pictureVariantService.isSupported(64)).thenReturn(true);
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureVariantService.openVariant(HASH, 64)).thenReturn(Optional.of(
+        new PictureVariant(variant, FileChannel.open(variant, StandardOpenOption.READ))));
+
+    customerServiceAdapter.downloadCustomerPicture("1", 64,
+        new MockHttpServletRequest("GET", "/"), mockedResponse);
+
+    assertEquals("\"" + HASH + "-64\"", mockedResponse.getHeader(HttpHeaders.ETAG));
+    assertEquals("attachment; filename=\"customer1-64.jpg\"",
+        mockedResponse.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+    assertEquals(5, mockedResponse.getContentLength());
+    Assertions.assertArrayEquals("small".getBytes(), mockedResponse.getContentAsByteArray());
+    verify(pictureStore, never()).open(HASH);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_VariantDeletedWhileServed(@TempDir Path directory)
+      throws IOException {
+    customerEntity.setPicture("customer1.png");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4000L);
+    final var file = Files.writeString(directory.resolve(HASH + "-64.jpg"), "small");
+    final var variant = new PictureVariant(file, FileChannel.open(file, StandardOpenOption.READ));
+    Files.delete(file);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(pictureVariantService.isSupported(64)).thenReturn(true);
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureVariantService.openVariant(HASH, 64)).thenReturn(Optional.of(variant));
+
+    customerServiceAdapter.downloadCustomerPicture("1", 64, request, mockedResponse);
+
+    assertNull(request.getAttribute("org.apache.tomcat.sendfile.filename"));
+    Assertions.assertArrayEquals("small".getBytes(), mockedResponse.getContentAsByteArray());
+    assertFalse(variant.channel().isOpen());
+  }
+
+  @Test
+  void testDownloadCustomerPicture_UnsupportedWidth() {
+    when(pictureVariantService.isSupported(65)).thenReturn(false);
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.downloadCustomerPicture("1", 65,
+            new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse()));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_WIDTH_NOT_SUPPORTED.name(),
+        exception.getErrorCode());
+    verify(service, never()).getPictureInfo(1L);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_NotModified() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + HASH + "\"");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+
+    customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse);
+
+    assertEquals(304, mockedResponse.getStatus());
+    assertEquals(0, mockedResponse.getContentAsByteArray().length);
+    verify(pictureStore, never()).open(HASH);
+    verify(pictureStore, never()).path(HASH);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_Range() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=1-2");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.open(HASH)).thenReturn(
+        Optional.of(new ByteArrayInputStream("test".getBytes())));
+
+    customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse);
+
+    assertEquals(206, mockedResponse.getStatus());
+    assertEquals("bytes 1-2/4", mockedResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+    assertEquals(2, mockedResponse.getContentLength());
+    Assertions.assertArrayEquals("es".getBytes(), mockedResponse.getContentAsByteArray());
+  }
+
+  @Test
+  void testDownloadCustomerPicture_RangeWithStaleIfRange() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=1-2");
+    request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.open(HASH)).thenReturn(
+        Optional.of(new ByteArrayInputStream("test".getBytes())));
+
+    customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse);
+
+    assertEquals(200, mockedResponse.getStatus());
+    Assertions.assertArrayEquals("test".getBytes(), mockedResponse.getContentAsByteArray());
+  }
+
+  @Test
+  void testDownloadCustomerPicture_RangeNotSatisfiable() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=10-");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_RANGE_NOT_SATISFIABLE.name(),
+        exception.getErrorCode());
+    assertEquals("bytes */4", mockedResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+    verify(pictureStore, never()).open(HASH);
+  }
+
+  @Test
+  void testDownloadCustomerPicture_RangeOfEmptyPictureNotSatisfiable() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(0L);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+    request.addHeader(HttpHeaders.RANGE, "bytes=0-");
+    MockHttpServletResponse mockedResponse = new MockHttpServletResponse();
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.downloadCustomerPicture("1", null, request, mockedResponse));
+
+    assertEquals(416, exception.getStatusCode().value());
+    assertEquals("bytes */0", mockedResponse.getHeader(HttpHeaders.CONTENT_RANGE));
+  }
+
+  @Test
+  void testDownloadCustomerPicture_MissingInPictureStore() throws IOException {
+    customerEntity.setPicture("customer1.jpg");
+    customerEntity.setPictureHash(HASH);
+    customerEntity.setPictureSize(4L);
+
+    when(service.getPictureInfo(1L)).thenReturn(Optional.of(pictureInfo(customerEntity)));
+    when(pictureStore.open(HASH)).thenReturn(Optional.empty());
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> customerServiceAdapter.downloadCustomerPicture("1", null,
+            new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse()));
+
+    assertEquals(ErrorCodeEnum.CUSTOMER_PICTURE_NOT_AVAILABLE.name(), exception.getErrorCode());
   }
 
   @Test
   void testDownloadCustomerPicture_NotFound() {
+    when(service.getPictureInfo(1L)).thenReturn(Optional.empty());
     when(service.getById(1L)).thenReturn(Optional.empty());
 
     CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
         () ->
-            customerServiceAdapter.downloadCustomerPicture("1", response));
+            customerServiceAdapter.downloadCustomerPicture("1", null,
+                new MockHttpServletRequest("GET", "/"), response));
 
     assertEquals("Customer not found with the given id.", exception.getReason());
   }
 
-}
\ No newline at end of file
+  private static CustomerPictureInfo pictureInfo(CustomerEntity entity) {
+    final var pictureInfo = new CustomerPictureInfo();
+    pictureInfo.setSk(entity.getSk());
+    pictureInfo.setPicture(entity.getPicture());
+    pictureInfo.setPictureHash(entity.getPictureHash());
+    pictureInfo.setPictureSize(entity.getPictureSize());
+    pictureInfo.setLastModifiedDate(entity.getLastModifiedDate());
+    return pictureInfo;
+  }
+
+  private static CustomerSummary summary(Long sk, String lastName) {
+    var summary = new CustomerSummary();
+    summary.setSk(sk);
+    summary.setLastName(lastName);
+    summary.setFirstName("David");
+    summary.setEmail("david" + sk + "@example.com");
+    return summary;
+  }
+
+  /**
+   * Generates a PNG header followed by zeros up to the given size, without holding the content in
+   * memory.
+   */
+  private static class GeneratedPictureStream extends InputStream {
+
+    private final long size;
+    private long position;
+
+    GeneratedPictureStream(long size) {
+      this.size = size;
+    }
+
+    @Override
+    public int read() {
+      final var buffer = new byte[1];
+      return read(buffer, 0, 1) == -1 ? -1 : buffer[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= size) {
+        return -1;
+      }
+      final int count = (int) Math.min(len, size - position);
+      for (int i = 0; i < count; i++) {
+        final long index = position + i;
+        b[off + i] = index < PNG_CONTENT.length ? PNG_CONTENT[(int) index] : 0;
+      }
+      position += count;
+      return count;
+    }
+  }
+}
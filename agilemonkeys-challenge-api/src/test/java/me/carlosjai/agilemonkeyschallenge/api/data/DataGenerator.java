@@ -72,7 +72,6 @@ public final class DataGenerator {
     entity.setEmail("john.doe@example.com");
     entity.setPhoneNumber("123456789");
     entity.setPicture("customer1.jpg");
-    entity.setPictureBytes("customer1.jpg".getBytes());
     return entity;
   }
 }
@@ -1,17 +1,22 @@
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.LocalDate;
 import java.util.List;
+import me.carlosjai.agilemonkeyschallenge.api.base.config.HttpCacheConfiguration;
 import me.carlosjai.agilemonkeyschallenge.api.base.response.BasePageResponse;
 import me.carlosjai.agilemonkeyschallenge.api.user.controller.UserController;
 import me.carlosjai.agilemonkeyschallenge.api.user.dto.UserDto;
@@ -25,8 +30,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -41,6 +48,9 @@ public class UserControllerTest {
   @Mock
   private UserServiceAdapter userServiceAdapter;
 
+  @Spy
+  private HttpCacheConfiguration httpCacheConfiguration = new HttpCacheConfiguration();
+
   @InjectMocks
   private UserController userController;
 
@@ -60,7 +70,7 @@ public class UserControllerTest {
     request.setPassword("TEST!admin123");
     request.setUsername("testUser");
     UserDto createdUser = new UserDto(1L, "testUser", "Test User", "test", LocalDate.now(), "test",
-        LocalDate.now());
+        LocalDate.now(), 0L);
 
     when(userServiceAdapter.createUser(any(UserCreateRequest.class))).thenReturn(createdUser);
 
@@ -89,34 +99,57 @@ public class UserControllerTest {
   public void testGetUser() throws Exception {
     Long userId = 1L;
     UserDto userDto = new UserDto(1L, "testUser", "Test User", "test", LocalDate.now(), "test",
-        LocalDate.now());
+        LocalDate.now(), 0L);
 
+    when(userServiceAdapter.getUserETag(userId)).thenReturn("W/\"1-1000\"");
     when(userServiceAdapter.getUser(userId)).thenReturn(userDto);
 
     mockMvc.perform(get(Constants.API + Constants.V1 + "/user/{id}", userId))
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-1000\""))
+        .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "private, no-cache"))
         .andExpect(jsonPath("$.id").value(userId))
         .andExpect(jsonPath("$.username").value("testUser"))
         .andExpect(jsonPath("$.fullName").value("Test User"));
   }
 
+  @Test
+  @WithMockUser(roles = "ADMIN")
+  public void testGetUser_NotModified() throws Exception {
+    Long userId = 1L;
+
+    when(userServiceAdapter.getUserETag(userId)).thenReturn("W/\"1-1000\"");
+
+    mockMvc.perform(get(Constants.API + Constants.V1 + "/user/{id}", userId)
+            .header(HttpHeaders.IF_NONE_MATCH, "W/\"1-1000\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-1000\""));
+
+    verify(userServiceAdapter, never()).getUser(userId);
+  }
+
   @Test
   @WithMockUser(roles = "ADMIN")
   public void testUpdateUser() throws Exception {
     UserUpdateRequest updateRequest = new UserUpdateRequest();
     updateRequest.setId(1L);
     UserDto updatedUser = new UserDto(1L, "testUser", "Test User", "test", LocalDate.now(), "test",
-        LocalDate.now());
+        LocalDate.now(), 2L);
 
-    when(userServiceAdapter.updateUser(any(UserUpdateRequest.class))).thenReturn(updatedUser);
+    when(userServiceAdapter.updateUser(any(UserUpdateRequest.class), isNull())).thenReturn(
+        updatedUser);
 
     mockMvc.perform(put(Constants.API + Constants.V1 + "/user/update")
             .contentType(MediaType.APPLICATION_JSON)
             .content(objectMapper.writeValueAsString(updateRequest)))
         .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "W/\"1-2\""))
         .andExpect(jsonPath("$.id").value(1L))
         .andExpect(jsonPath("$.username").value("testUser"))
-        .andExpect(jsonPath("$.fullName").value("Test User"));
+        .andExpect(jsonPath("$.fullName").value("Test User"))
+        .andExpect(jsonPath("$.version").doesNotExist());
+
+    verify(userServiceAdapter, never()).getUserETag(1L);
   }
 
   @Test
@@ -126,7 +159,7 @@ public class UserControllerTest {
     BasePageResponse<UserDto> response = new BasePageResponse<>();
     response.setContent(
         List.of(new UserDto(1L, "testUser", "Test User", "test", LocalDate.now(), "test",
-            LocalDate.now())));
+            LocalDate.now(), 0L)));
 
     when(userServiceAdapter.listUsers(any(UserSearchRequest.class))).thenReturn(response);
 
@@ -145,7 +178,7 @@ public class UserControllerTest {
     Long userId = 1L;
     Boolean newAdminStatus = true;
     UserDto updatedUser = new UserDto(1L, "testUser", "Test User", "test", LocalDate.now(), "test",
-        LocalDate.now());
+        LocalDate.now(), 0L);
 
     when(userServiceAdapter.changeAdminStatus(userId, newAdminStatus)).thenReturn(updatedUser);
 
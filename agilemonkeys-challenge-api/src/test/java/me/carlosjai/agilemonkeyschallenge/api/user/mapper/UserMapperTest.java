@@ -31,6 +31,7 @@ public class UserMapperTest {
   public void testMapToUserDto_CompleteEntity() {
     UserEntity entity = me.carlosjai.agilemonkeyschallenge.api.data.DataGenerator.generateUserEntity(
         1L);
+    entity.setVersion(2L);
     UserDto result = userMapper.mapToUserDto(entity);
 
     assertNotNull(result, "Mapping should return a non-null UserDto");
@@ -38,6 +39,7 @@ public class UserMapperTest {
     assertEquals(entity.getUsername(), result.getUsername(), "Usernames should match");
     assertEquals(entity.getFullName(), result.getFullName(), "Full names should match");
     assertEquals(entity.getCreatedBy(), result.getCreatedBy(), "Created by should match");
+    assertEquals(2L, result.getVersion(), "Versions should match");
     assertEquals(entity.getRoleEntities().size(), result.getRoles().size(),
         "Roles size should match");
     assertEquals(LocalDateTime.of(2022, 1, 1, 12, 0).toLocalDate(), result.getCreationDate(),
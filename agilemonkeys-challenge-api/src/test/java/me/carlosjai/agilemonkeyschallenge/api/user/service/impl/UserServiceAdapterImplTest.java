@@ -1,19 +1,30 @@
 package me.carlosjai.agilemonkeyschallenge.api.user.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.querydsl.core.types.Predicate;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import me.carlosjai.agilemonkeyschallenge.api.user.dto.UserDto;
 import me.carlosjai.agilemonkeyschallenge.api.user.mapper.UserMapper;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserCreateRequest;
+import me.carlosjai.agilemonkeyschallenge.api.user.request.UserSearchRequest;
 import me.carlosjai.agilemonkeyschallenge.api.user.request.UserUpdateRequest;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
 import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.RoleEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.service.RoleService;
@@ -23,6 +34,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -53,6 +68,35 @@ class UserServiceAdapterImplTest {
     userDto = UserDto.builder().id(1L).username("testuser").build();
   }
 
+  @Test
+  void testListUsers() {
+    when(userService.findAllBy(any(Predicate.class), any(Pageable.class), eq(CountMode.EXACT)))
+        .thenReturn(new PageImpl<>(List.of(userEntity), PageRequest.of(0, 10), 1));
+    when(mapper.mapToUserDto(userEntity)).thenReturn(userDto);
+
+    var result = userServiceAdapter.listUsers(new UserSearchRequest());
+
+    assertEquals(List.of(userDto), result.getContent());
+    assertEquals(1, result.getMetaData().getTotalElements());
+    assertFalse(result.getMetaData().isHasNext());
+    assertFalse(result.getMetaData().isApproximate());
+  }
+
+  @Test
+  void testListUsers_WithoutCount() {
+    when(userService.findAllBy(any(Predicate.class), any(Pageable.class), eq(CountMode.NONE)))
+        .thenReturn(new SliceImpl<>(List.of(userEntity), PageRequest.of(0, 1), true));
+    when(mapper.mapToUserDto(userEntity)).thenReturn(userDto);
+    var request = new UserSearchRequest();
+    request.setCountMode("NONE");
+
+    var result = userServiceAdapter.listUsers(request);
+
+    assertEquals(List.of(userDto), result.getContent());
+    assertTrue(result.getMetaData().isHasNext());
+    assertNull(result.getMetaData().getTotalElements());
+  }
+
   @Test
   void testCreateUser() {
     UserCreateRequest createRequest = new UserCreateRequest();
@@ -102,7 +146,7 @@ class UserServiceAdapterImplTest {
     when(userService.save(any(UserEntity.class))).thenReturn(userEntity);
     when(mapper.mapToUserDto(any(UserEntity.class))).thenReturn(userDto);
 
-    UserDto result = userServiceAdapter.updateUser(updateRequest);
+    UserDto result = userServiceAdapter.updateUser(updateRequest, null);
 
     assertNotNull(result);
     assertEquals("testuser", result.getUsername());
@@ -110,6 +154,38 @@ class UserServiceAdapterImplTest {
     verify(userService).save(any(UserEntity.class));
   }
 
+  @Test
+  void testChangeAdminStatus_BumpsModificationDate() {
+    var previousModification = userEntity.getLastModifiedDate();
+    userEntity.setRoleEntities(new HashSet<>(Set.of(new RoleEntity(1L, "ROLE_USER"))));
+
+    when(userService.getUserById(1L)).thenReturn(Optional.of(userEntity));
+    when(roleService.findByName("ROLE_ADMIN")).thenReturn(new RoleEntity(2L, "ROLE_ADMIN"));
+    when(userService.save(any(UserEntity.class))).thenReturn(userEntity);
+    when(mapper.mapToUserDto(any(UserEntity.class))).thenReturn(userDto);
+
+    userServiceAdapter.changeAdminStatus(1L, true);
+
+    assertEquals(2, userEntity.getRoleEntities().size());
+    assertTrue(userEntity.getLastModifiedDate().after(previousModification));
+  }
+
+  @Test
+  void testUpdateUser_IfMatchStaleVersion() {
+    UserUpdateRequest updateRequest = new UserUpdateRequest();
+    updateRequest.setId(1L);
+    updateRequest.setFullname("Updated User");
+    userEntity.setVersion(4L);
+
+    when(userService.getUserById(1L)).thenReturn(Optional.of(userEntity));
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> userServiceAdapter.updateUser(updateRequest, "W/\"1-3\""));
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, exception.getStatusCode());
+    verify(userService, never()).save(any(UserEntity.class));
+  }
+
   @Test
   void testUpdateUser_NotFound() {
     UserUpdateRequest updateRequest = new UserUpdateRequest();
@@ -119,7 +195,7 @@ class UserServiceAdapterImplTest {
 
     CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
         () ->
-            userServiceAdapter.updateUser(updateRequest));
+            userServiceAdapter.updateUser(updateRequest, null));
 
     assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
     assertEquals("User not found with the given id.", exception.getReason());
@@ -170,4 +246,22 @@ class UserServiceAdapterImplTest {
     assertEquals("User not found with the given id.", exception.getReason());
   }
 
+  @Test
+  void testGetUserETag() {
+    when(userService.getVersion(1L)).thenReturn(
+        Optional.of(new EntityVersion(1L, 2L)));
+
+    assertEquals("W/\"1-2\"", userServiceAdapter.getUserETag(1L));
+  }
+
+  @Test
+  void testGetUserETag_NotFound() {
+    when(userService.getVersion(1L)).thenReturn(Optional.empty());
+
+    CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+        () -> userServiceAdapter.getUserETag(1L));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+  }
+
 }
@@ -1,35 +1,35 @@
 package me.carlosjai.agilemonkeyschallenge.auth.config;
 
-import me.carlosjai.agilemonkeyschallenge.auth.dto.CustomUserDetails;
-import me.carlosjai.agilemonkeyschallenge.domain.user.model.repository.UserRepository;
+import me.carlosjai.agilemonkeyschallenge.auth.password.OffloadingPasswordEncoder;
+import me.carlosjai.agilemonkeyschallenge.auth.password.PasswordHashingExecutor;
+import me.carlosjai.agilemonkeyschallenge.auth.userdetail.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 public class ApplicationConfiguration {
 
-  private final UserRepository userRepository;
+  private final UserDetailsServiceImpl userDetailsService;
+  private final PasswordHashingExecutor passwordHashingExecutor;
+  private final int bcryptStrength;
 
-  public ApplicationConfiguration(UserRepository userRepository) {
-    this.userRepository = userRepository;
+  public ApplicationConfiguration(UserDetailsServiceImpl userDetailsService,
+      PasswordHashingExecutor passwordHashingExecutor,
+      @Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+    this.userDetailsService = userDetailsService;
+    this.passwordHashingExecutor = passwordHashingExecutor;
+    this.bcryptStrength = bcryptStrength;
   }
 
   @Bean
-  UserDetailsService userDetailsService() {
-    return username -> new CustomUserDetails(userRepository.findByUsernameIgnoreCase(username)
-        .orElseThrow(() -> new UsernameNotFoundException("User not found")));
-  }
-
-  @Bean
-  BCryptPasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+  PasswordEncoder passwordEncoder() {
+    return new OffloadingPasswordEncoder(bcryptStrength, passwordHashingExecutor);
   }
 
   @Bean
@@ -42,8 +42,9 @@ public class ApplicationConfiguration {
   AuthenticationProvider authenticationProvider() {
     DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
 
-    authProvider.setUserDetailsService(userDetailsService());
+    authProvider.setUserDetailsService(userDetailsService);
     authProvider.setPasswordEncoder(passwordEncoder());
+    authProvider.setUserDetailsPasswordService(userDetailsService);
 
     return authProvider;
   }
@@ -17,6 +17,8 @@ public class CustomUserDetails extends UserEntity implements UserDetails {
   private final Collection<? extends GrantedAuthority> authorities;
 
   public CustomUserDetails(UserEntity byUsername) {
+    setSk(byUsername.getSk());
+    setVersion(byUsername.getVersion());
     username = byUsername.getUsername();
     password = byUsername.getPassword();
     List<GrantedAuthority> auths = new ArrayList<>();
@@ -28,6 +30,17 @@ public class CustomUserDetails extends UserEntity implements UserDetails {
     authorities = auths;
   }
 
+  /**
+   * Builds the principal from already verified token claims, without loading the user. The
+   * password is not available.
+   */
+  public CustomUserDetails(Long sk, String username, Collection<String> roles) {
+    setSk(sk);
+    this.username = username;
+    this.password = null;
+    this.authorities = roles.stream().map(SimpleGrantedAuthority::new).toList();
+  }
+
   @Override
   public Collection<? extends GrantedAuthority> getAuthorities() {
     return Collections.unmodifiableCollection(authorities);
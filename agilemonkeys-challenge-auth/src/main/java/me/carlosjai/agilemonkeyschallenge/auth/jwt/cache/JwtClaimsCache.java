@@ -0,0 +1,60 @@
+package me.carlosjai.agilemonkeyschallenge.auth.jwt.cache;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.function.Function;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.BoundedCache;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the claims of already verified tokens so a token is parsed and its signature checked once
+ * for its whole lifetime. Entries are keyed by the SHA-256 digest of the token, so raw tokens are
+ * never retained, and expire together with the token.
+ */
+@Component
+public class JwtClaimsCache implements MeterBinder {
+
+  private final BoundedCache<String, Claims> cache;
+
+  public JwtClaimsCache(
+      @Value("${security.jwt.claims-cache.maximum-size:10000}") int maximumSize,
+      @Value("${security.jwt.expiration-time}") long jwtExpiration) {
+    this.cache = new BoundedCache<>("jwt.claims", maximumSize, Duration.ofMillis(jwtExpiration),
+        claims -> claims.getExpiration() == null ? null : claims.getExpiration().toInstant());
+  }
+
+  /**
+   * Returns the verified claims of the token, using the parser only on a miss. Parser exceptions
+   * (invalid signature, expired token...) are propagated and never cached.
+   */
+  public Claims get(String token, Function<String, Claims> parser) {
+    return cache.get(digest(token), key -> parser.apply(token));
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    cache.bindTo(registry);
+  }
+
+  private static String digest(String token) {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256")
+          .digest(token.getBytes(StandardCharsets.US_ASCII));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -56,7 +56,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
       Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
       if (userEmail != null && authentication == null) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        UserDetails userDetails = jwtService.extractPrincipal(jwt)
+            .orElseGet(() -> userDetailsService.loadUserByUsername(userEmail));
 
         if (jwtService.isTokenValid(jwt, userDetails)) {
           UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
@@ -0,0 +1,24 @@
+package me.carlosjai.agilemonkeyschallenge.auth.jwt.key;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signing keys configuration. New tokens are signed with {@code secretKey} and tagged with
+ * {@code keyId}; {@code retiredKeys} (key id to Base64 secret) are only used to verify tokens issued
+ * before a rotation.
+ */
+@Component
+@EnableConfigurationProperties
+@ConfigurationProperties(prefix = "security.jwt")
+@Data
+public class JwtKeyConfiguration {
+
+  private String secretKey;
+  private String keyId = "default";
+  private Map<String, String> retiredKeys = new HashMap<>();
+}
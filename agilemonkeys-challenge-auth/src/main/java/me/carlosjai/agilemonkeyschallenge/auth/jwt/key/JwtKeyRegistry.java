@@ -0,0 +1,54 @@
+package me.carlosjai.agilemonkeyschallenge.auth.jwt.key;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the HMAC keys decoded once at startup and resolves the verification key of a token from
+ * its {@code kid} header. Tokens without {@code kid} (issued before key ids were introduced) are
+ * verified with the current key.
+ */
+@Component
+public class JwtKeyRegistry extends SigningKeyResolverAdapter {
+
+  @Getter
+  private final String currentKeyId;
+  @Getter
+  private final Key currentKey;
+  private final Map<String, Key> keys;
+
+  public JwtKeyRegistry(JwtKeyConfiguration configuration) {
+    this.currentKeyId = configuration.getKeyId();
+    this.currentKey = decode(configuration.getSecretKey());
+    final Map<String, Key> decodedKeys = new HashMap<>();
+    configuration.getRetiredKeys().forEach((keyId, secret) -> decodedKeys.put(keyId, decode(secret)));
+    decodedKeys.put(currentKeyId, currentKey);
+    this.keys = Map.copyOf(decodedKeys);
+  }
+
+  @Override
+  public Key resolveSigningKey(JwsHeader header, Claims claims) {
+    final String keyId = header.getKeyId();
+    if (keyId == null) {
+      return currentKey;
+    }
+    final Key key = keys.get(keyId);
+    if (key == null) {
+      throw new SignatureException("Unknown signing key id '" + keyId + "'");
+    }
+    return key;
+  }
+
+  private static Key decode(String secret) {
+    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+  }
+}
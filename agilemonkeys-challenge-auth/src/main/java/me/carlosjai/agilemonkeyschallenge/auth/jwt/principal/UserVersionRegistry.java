@@ -0,0 +1,70 @@
+package me.carlosjai.agilemonkeyschallenge.auth.jwt.principal;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.BoundedCache;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tells whether the user version stamped in a token is still the persisted version of its user, so
+ * principals embedded in tokens issued before a change (e.g. before a role was revoked) are no
+ * longer trusted.
+ *
+ * <p>Persisted versions are cached for a short time to live and evicted as soon as the user
+ * changes. A missed invalidation (restart, lost cluster notification) is therefore bounded by the
+ * time to live, and a failed lookup is treated as a stale token.</p>
+ */
+@Component
+public class UserVersionRegistry implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(UserVersionRegistry.class);
+
+  private final UserService userService;
+  private final BoundedCache<Long, Long> versions;
+
+  public UserVersionRegistry(UserService userService,
+      @Value("${security.jwt.stateless-principal.version-cache.maximum-size:10000}") int maximumSize,
+      @Value("${security.jwt.stateless-principal.version-cache.time-to-live:5s}") Duration timeToLive) {
+    this.userService = userService;
+    this.versions = new BoundedCache<>("user.versions", maximumSize, timeToLive);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    if (event.getUserId() != null) {
+      versions.evict(event.getUserId());
+    }
+  }
+
+  /**
+   * A token is current when it carries the persisted version of its user. Tokens without a version
+   * stamp, of deleted users or whose user version can't be read are not current.
+   */
+  public boolean isCurrent(Long userId, Long version) {
+    if (userId == null || version == null) {
+      return false;
+    }
+    try {
+      return version.equals(versions.get(userId, id -> userService.getVersion(id)
+          .map(EntityVersion::version)
+          .orElse(null)));
+    } catch (RuntimeException e) {
+      log.warn("Could not read the version of user {}, not trusting its token claims", userId, e);
+      return false;
+    }
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    versions.bindTo(registry);
+  }
+}
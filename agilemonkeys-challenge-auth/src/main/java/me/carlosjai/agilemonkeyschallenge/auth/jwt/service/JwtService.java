@@ -1,27 +1,66 @@
 package me.carlosjai.agilemonkeyschallenge.auth.jwt.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
+import me.carlosjai.agilemonkeyschallenge.auth.dto.CustomUserDetails;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.cache.JwtClaimsCache;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.key.JwtKeyRegistry;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.principal.UserVersionRegistry;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
 
-  @Value("${security.jwt.secret-key}")
-  String secretKey;
+  static final String USER_ID_CLAIM = "uid";
+  static final String ROLES_CLAIM = "roles";
+  static final String USER_VERSION_CLAIM = "ver";
 
-  @Value("${security.jwt.expiration-time}")
-  long jwtExpiration;
+  final long jwtExpiration;
+
+  /**
+   * When enabled tokens carry the user id, version and roles, and the request principal is built
+   * from them instead of being loaded from the database.
+   */
+  private final boolean statelessPrincipal;
+
+  private final JwtKeyRegistry keyRegistry;
+
+  private final JwtClaimsCache claimsCache;
+
+  private final UserVersionRegistry userVersionRegistry;
+
+  /**
+   * Parsers are immutable and thread-safe, a single instance resolving the key from the
+   * {@code kid} header is shared by every request.
+   */
+  private final JwtParser parser;
+
+  public JwtService(
+      @Value("${security.jwt.expiration-time}") long jwtExpiration,
+      @Value("${security.jwt.stateless-principal.enabled:false}") boolean statelessPrincipal,
+      JwtKeyRegistry keyRegistry,
+      JwtClaimsCache claimsCache,
+      UserVersionRegistry userVersionRegistry
+  ) {
+    this.jwtExpiration = jwtExpiration;
+    this.statelessPrincipal = statelessPrincipal;
+    this.keyRegistry = keyRegistry;
+    this.claimsCache = claimsCache;
+    this.userVersionRegistry = userVersionRegistry;
+    this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyRegistry).build();
+  }
 
   public String extractUsername(String token) {
     return extractClaim(token, Claims::getSubject);
@@ -32,7 +71,35 @@ public class JwtService {
   }
 
   public String generateToken(UserDetails userDetails) {
-    return generateToken(new HashMap<>(), userDetails);
+    final Map<String, Object> claims = new HashMap<>();
+    if (statelessPrincipal && userDetails instanceof CustomUserDetails customUserDetails) {
+      claims.put(USER_ID_CLAIM, customUserDetails.getSk());
+      claims.put(USER_VERSION_CLAIM, customUserDetails.getVersion());
+      claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+          .map(GrantedAuthority::getAuthority).toList());
+    }
+    return generateToken(claims, userDetails);
+  }
+
+  /**
+   * Builds the request principal from the token claims when the stateless principal mode is
+   * enabled. Returns empty when the mode is disabled, the token was issued without the principal
+   * claims or the user changed after the token was issued (its version stamp is no longer the
+   * persisted version of the user), in which case the user must be loaded.
+   */
+  public Optional<UserDetails> extractPrincipal(String token) {
+    if (!statelessPrincipal) {
+      return Optional.empty();
+    }
+    final Claims claims = extractAllClaims(token);
+    final Long userId = claims.get(USER_ID_CLAIM, Long.class);
+    final Long userVersion = claims.get(USER_VERSION_CLAIM, Long.class);
+    final List<?> roles = claims.get(ROLES_CLAIM, List.class);
+    if (roles == null || !userVersionRegistry.isCurrent(userId, userVersion)) {
+      return Optional.empty();
+    }
+    return Optional.of(new CustomUserDetails(userId, claims.getSubject(),
+        roles.stream().map(String::valueOf).toList()));
   }
 
   public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
@@ -48,40 +115,39 @@ public class JwtService {
       UserDetails userDetails,
       long expiration
   ) {
+    final long now = System.currentTimeMillis();
     return Jwts
         .builder()
+        .setHeaderParam(JwsHeader.KEY_ID, keyRegistry.getCurrentKeyId())
         .setClaims(extraClaims)
         .setSubject(userDetails.getUsername())
-        .setIssuedAt(new Date(System.currentTimeMillis()))
-        .setExpiration(new Date(System.currentTimeMillis() + expiration))
-        .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+        .setIssuedAt(new Date(now))
+        .setExpiration(new Date(now + expiration))
+        .signWith(keyRegistry.getCurrentKey(), SignatureAlgorithm.HS256)
         .compact();
   }
 
   public boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = extractUsername(token);
-    return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    final Claims claims = extractAllClaims(token);
+    return claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims);
   }
 
-  private boolean isTokenExpired(String token) {
-    return extractExpiration(token).before(new Date());
+  private boolean isTokenExpired(Claims claims) {
+    return claims.getExpiration().before(new Date());
   }
 
-  private Date extractExpiration(String token) {
-    return extractClaim(token, Claims::getExpiration);
+  /**
+   * Verified claims are cached per token, the returned instance is shared and must not be
+   * modified.
+   */
+  private Claims extractAllClaims(String token) {
+    return claimsCache.get(token, this::parseClaims);
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts
-        .parserBuilder()
-        .setSigningKey(getSignInKey())
-        .build()
+  private Claims parseClaims(String token) {
+    return parser
         .parseClaimsJws(token)
         .getBody();
   }
 
-  private Key getSignInKey() {
-    return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
-  }
-
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package me.carlosjai.agilemonkeyschallenge.auth.password;
+
+import java.util.regex.Pattern;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * BCrypt encoder running every hash in the {@link PasswordHashingExecutor}. Stored hashes whose
+ * cost differs from the configured strength are reported through {@link #upgradeEncoding(String)}
+ * so they are transparently rehashed on the next successful login.
+ */
+public class OffloadingPasswordEncoder implements PasswordEncoder {
+
+  private static final Pattern BCRYPT_PATTERN = Pattern.compile(
+      "\\A\\$2(a|y|b)?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+  private final BCryptPasswordEncoder delegate;
+  private final PasswordHashingExecutor executor;
+  private final int strength;
+
+  public OffloadingPasswordEncoder(int strength, PasswordHashingExecutor executor) {
+    this.delegate = new BCryptPasswordEncoder(strength);
+    this.executor = executor;
+    this.strength = strength;
+  }
+
+  @Override
+  public String encode(CharSequence rawPassword) {
+    return executor.execute(() -> delegate.encode(rawPassword));
+  }
+
+  @Override
+  public boolean matches(CharSequence rawPassword, String encodedPassword) {
+    return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+  }
+
+  @Override
+  public boolean upgradeEncoding(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    final var matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(2)) != strength;
+  }
+}
@@ -0,0 +1,95 @@
+package me.carlosjai.agilemonkeyschallenge.auth.password;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded pool running the CPU intensive password hashing operations. At most {@code threads}
+ * hashes run at the same time and at most {@code queueCapacity} wait for a thread; any further
+ * request is rejected straight away with a 503, so a burst of logins cannot take every CPU and
+ * request thread away from the rest of the endpoints.
+ */
+@Component
+public class PasswordHashingExecutor implements MeterBinder {
+
+  private final ThreadPoolExecutor executor;
+  private final LongAdder rejected = new LongAdder();
+
+  public PasswordHashingExecutor(
+      @Value("${security.password.hashing.threads:4}") int threads,
+      @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Runs the task in the hashing pool and waits for its result.
+   *
+   * @throws CustomResponseStatusException with 503 status when the pool and its queue are full.
+   */
+  public <T> T execute(Supplier<T> task) {
+    try {
+      return executor.submit(task::get).get();
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new CustomResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          ErrorCodeEnum.PASSWORD_HASHING_BUSY);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while hashing password", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
+  public int queuedTasks() {
+    return executor.getQueue().size();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(registry);
+    FunctionCounter.builder("password.hashing.rejected", rejected, LongAdder::sum)
+        .description("Hashing requests rejected because the pool was saturated")
+        .register(registry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private static class HashingThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final var thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package me.carlosjai.agilemonkeyschallenge.auth.userdetail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+import me.carlosjai.agilemonkeyschallenge.auth.dto.CustomUserDetails;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.BoundedCache;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.CacheStats;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caches the {@link CustomUserDetails} loaded for each (lowercased) username. Entries are evicted
+ * as soon as the user is updated, deleted or its roles change, so revoked permissions take effect
+ * on the next request.
+ */
+@Component
+public class UserDetailsCache implements MeterBinder {
+
+  private final BoundedCache<String, CustomUserDetails> cache;
+
+  public UserDetailsCache(
+      @Value("${security.user-details-cache.maximum-size:1000}") int maximumSize,
+      @Value("${security.user-details-cache.time-to-live:5m}") Duration timeToLive) {
+    this.cache = new BoundedCache<>("user.details", maximumSize, timeToLive);
+  }
+
+  public CustomUserDetails get(String username,
+      Function<String, CustomUserDetails> loader) {
+    return cache.get(key(username), key -> loader.apply(username));
+  }
+
+  public void evict(String username) {
+    if (username != null) {
+      cache.evict(key(username));
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onUserChanged(UserChangedEvent event) {
+    evict(event.getUsername());
+  }
+
+  public CacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    cache.bindTo(registry);
+  }
+
+  private static String key(String username) {
+    return username.toLowerCase(Locale.ROOT);
+  }
+}
@@ -4,20 +4,28 @@ import java.util.Optional;
 import me.carlosjai.agilemonkeyschallenge.auth.dto.CustomUserDetails;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.repository.UserRepository;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
 @Component
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private UserService userService;
+
+  @Autowired
+  private UserDetailsCache userDetailsCache;
+
   private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
 
   /**
@@ -25,7 +33,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
    * <p>
    * This method retrieves a user entity based on the provided username. If the user is found, it
    * returns a {@link CustomUserDetails} object containing the user's details. If the user cannot be
-   * found, a {@link UsernameNotFoundException} is thrown.
+   * found, a {@link UsernameNotFoundException} is thrown. Found users are kept in the
+   * {@link UserDetailsCache} until they change.
    *
    * @param username the username of the user to be loaded, must not be null or empty.
    * @return a {@link UserDetails} object representing the authenticated user.
@@ -34,6 +43,31 @@ public class UserDetailsServiceImpl implements UserDetailsService {
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
     logger.debug("loadUserByUsername('{}')", username);
+    return userDetailsCache.get(username, this::loadFromRepository);
+  }
+
+  /**
+   * Stores the password rehashed on login when the stored hash cost differs from the configured
+   * one. The user is saved through {@link UserService}, so the change is published to every cache
+   * and node like any other user change.
+   *
+   * @param user        the authenticated user.
+   * @param newPassword the password encoded with the current settings.
+   * @return the updated user details.
+   */
+  @Override
+  public UserDetails updatePassword(UserDetails user, String newPassword) {
+    logger.debug("updatePassword('{}')", user.getUsername());
+    final var userEntity = userService.findByUsername(user.getUsername())
+        .orElseThrow(() -> new UsernameNotFoundException(
+            "could not found user '" + user.getUsername() + "'"));
+    userEntity.setPassword(newPassword);
+    final var updatedUser = new CustomUserDetails(userService.save(userEntity));
+    userDetailsCache.evict(user.getUsername());
+    return updatedUser;
+  }
+
+  private CustomUserDetails loadFromRepository(String username) {
     Optional<UserEntity> optUser = userRepository.findByUsernameIgnoreCase(username);
     if (optUser.isEmpty()) {
       logger.error("Username not found: {}", username);
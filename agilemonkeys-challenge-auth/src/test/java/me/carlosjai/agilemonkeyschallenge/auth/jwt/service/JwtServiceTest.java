@@ -3,6 +3,7 @@ package me.carlosjai.agilemonkeyschallenge.auth.jwt.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -10,32 +11,53 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import me.carlosjai.agilemonkeyschallenge.auth.dto.CustomUserDetails;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.cache.JwtClaimsCache;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.key.JwtKeyConfiguration;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.key.JwtKeyRegistry;
+import me.carlosjai.agilemonkeyschallenge.auth.jwt.principal.UserVersionRegistry;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.RoleEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 class JwtServiceTest {
 
   private JwtService jwtService;
 
+  private JwtClaimsCache claimsCache;
+
   @Mock
   private UserDetails userDetails;
 
+  @Mock
+  private UserService userService;
+
   private final String secretKey = "YourSecretKeyForHS256EncryptionShouldBeBase64EncodedAndSecure"; // Use your real key
   private final long jwtExpiration = 1000 * 60 * 60; // 1 hour expiration for example
+  private final String rotatedSecretKey = "9a4f2c8d3b7a1e6f45c8a0b3f267d8b1d4e6f3c8a9d2b5f8e3a9c8b5f6v8a3d9";
 
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
-    jwtService = new JwtService();
-    jwtService.secretKey = secretKey;
-    jwtService.jwtExpiration = jwtExpiration;
+    claimsCache = new JwtClaimsCache(100, jwtExpiration);
+    jwtService = new JwtService(jwtExpiration, false, keyRegistry("v1", secretKey, Map.of()),
+        claimsCache, userVersionRegistry());
   }
 
   @Test
@@ -70,6 +92,127 @@ class JwtServiceTest {
     assertFalse(isValid);
   }
 
+  @Test
+  void isTokenValid_shouldParseTokenOnce() {
+    when(userDetails.getUsername()).thenReturn("testuser");
+    String token = jwtService.generateToken(userDetails);
+
+    jwtService.extractUsername(token);
+    jwtService.isTokenValid(token, userDetails);
+    jwtService.isTokenValid(token, userDetails);
+
+    assertEquals(1, claimsCache.stats().getMisses());
+    assertEquals(2, claimsCache.stats().getHits());
+  }
+
+  @Test
+  void isTokenValid_shouldAcceptTokensSignedWithRetiredKey() {
+    when(userDetails.getUsername()).thenReturn("testuser");
+    String token = jwtService.generateToken(userDetails);
+
+    JwtService rotatedService = newJwtService(
+        keyRegistry("v2", rotatedSecretKey, Map.of("v1", secretKey)), false,
+        userVersionRegistry());
+
+    assertTrue(rotatedService.isTokenValid(token, userDetails));
+    assertTrue(rotatedService.isTokenValid(rotatedService.generateToken(userDetails), userDetails));
+  }
+
+  @Test
+  void extractUsername_shouldRejectUnknownKeyId() {
+    when(userDetails.getUsername()).thenReturn("testuser");
+    JwtService otherService = newJwtService(keyRegistry("other", rotatedSecretKey, Map.of()),
+        false, userVersionRegistry());
+    String token = otherService.generateToken(userDetails);
+
+    assertThrows(SignatureException.class, () -> jwtService.extractUsername(token));
+  }
+
+  @Test
+  void extractPrincipal_shouldBuildPrincipalFromClaims() {
+    when(userService.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 0L)));
+    UserVersionRegistry userVersionRegistry = userVersionRegistry();
+    JwtService statelessService = newJwtService(keyRegistry("v1", secretKey, Map.of()), true,
+        userVersionRegistry);
+    String token = statelessService.generateToken(adminUserDetails());
+
+    Optional<UserDetails> principal = statelessService.extractPrincipal(token);
+
+    assertTrue(principal.isPresent());
+    assertEquals("admin", principal.get().getUsername());
+    assertEquals(1L, ((CustomUserDetails) principal.get()).getSk());
+    assertEquals(List.of("ROLE_ADMIN"), principal.get().getAuthorities().stream()
+        .map(GrantedAuthority::getAuthority).toList());
+  }
+
+  @Test
+  void extractPrincipal_shouldBeEmptyWhenUserChangedAfterIssue() {
+    when(userService.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 0L)));
+    UserVersionRegistry userVersionRegistry = userVersionRegistry();
+    JwtService statelessService = newJwtService(keyRegistry("v1", secretKey, Map.of()), true,
+        userVersionRegistry);
+    String token = statelessService.generateToken(adminUserDetails());
+    assertTrue(statelessService.extractPrincipal(token).isPresent());
+
+    when(userService.getVersion(1L)).thenReturn(Optional.of(new EntityVersion(1L, 1L)));
+    userVersionRegistry.onUserChanged(new UserChangedEvent(1L, "admin"));
+
+    assertTrue(statelessService.extractPrincipal(token).isEmpty());
+  }
+
+  @Test
+  void extractPrincipal_shouldBeEmptyWhenVersionCannotBeRead() {
+    when(userService.getVersion(1L)).thenThrow(new IllegalStateException("database down"));
+    JwtService statelessService = newJwtService(keyRegistry("v1", secretKey, Map.of()), true,
+        userVersionRegistry());
+    String token = statelessService.generateToken(adminUserDetails());
+
+    assertTrue(statelessService.extractPrincipal(token).isEmpty());
+  }
+
+  @Test
+  void extractPrincipal_shouldBeEmptyWhenUserWasDeleted() {
+    when(userService.getVersion(1L)).thenReturn(Optional.empty());
+    JwtService statelessService = newJwtService(keyRegistry("v1", secretKey, Map.of()), true,
+        userVersionRegistry());
+    String token = statelessService.generateToken(adminUserDetails());
+
+    assertTrue(statelessService.extractPrincipal(token).isEmpty());
+  }
+
+  @Test
+  void extractPrincipal_shouldBeEmptyWhenDisabled() {
+    String token = jwtService.generateToken(adminUserDetails());
+
+    assertTrue(jwtService.extractPrincipal(token).isEmpty());
+  }
+
+  private CustomUserDetails adminUserDetails() {
+    UserEntity userEntity = new UserEntity();
+    userEntity.setSk(1L);
+    userEntity.setUsername("admin");
+    userEntity.setVersion(0L);
+    userEntity.addRole(RoleEntity.builder().name("ROLE_ADMIN").build());
+    return new CustomUserDetails(userEntity);
+  }
+
+  private UserVersionRegistry userVersionRegistry() {
+    return new UserVersionRegistry(userService, 100, Duration.ofMinutes(5));
+  }
+
+  private JwtService newJwtService(JwtKeyRegistry keyRegistry, boolean statelessPrincipal,
+      UserVersionRegistry userVersionRegistry) {
+    return new JwtService(jwtExpiration, statelessPrincipal, keyRegistry,
+        new JwtClaimsCache(100, jwtExpiration), userVersionRegistry);
+  }
+
+  private JwtKeyRegistry keyRegistry(String keyId, String secret, Map<String, String> retired) {
+    JwtKeyConfiguration configuration = new JwtKeyConfiguration();
+    configuration.setKeyId(keyId);
+    configuration.setSecretKey(secret);
+    configuration.setRetiredKeys(retired);
+    return new JwtKeyRegistry(configuration);
+  }
 
   private String generateMockToken(String username) {
     Map<String, Object> claims = new HashMap<>();
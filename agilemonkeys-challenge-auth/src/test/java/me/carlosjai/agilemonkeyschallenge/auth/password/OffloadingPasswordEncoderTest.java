@@ -0,0 +1,95 @@
+package me.carlosjai.agilemonkeyschallenge.auth.password;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.CustomResponseStatusException;
+import me.carlosjai.agilemonkeyschallenge.domain.exception.ErrorCodeEnum;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+class OffloadingPasswordEncoderTest {
+
+  private PasswordHashingExecutor hashingExecutor;
+
+  @BeforeEach
+  void setUp() {
+    hashingExecutor = new PasswordHashingExecutor(1, 1);
+  }
+
+  @AfterEach
+  void tearDown() {
+    hashingExecutor.shutdown();
+  }
+
+  @Test
+  void encode_shouldProduceMatchingHash() {
+    OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(4, hashingExecutor);
+
+    String hash = encoder.encode("TestPassw!ord123");
+
+    assertTrue(hash.startsWith("$2a$04$"));
+    assertTrue(encoder.matches("TestPassw!ord123", hash));
+    assertFalse(encoder.matches("wrong", hash));
+  }
+
+  @Test
+  void upgradeEncoding_shouldBeTrueWhenCostDiffers() {
+    OffloadingPasswordEncoder encoder = new OffloadingPasswordEncoder(5, hashingExecutor);
+
+    assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("password")));
+    assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("password")));
+    assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(5).encode("password")));
+    assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+  }
+
+  @Test
+  void execute_shouldRejectWithServiceUnavailableWhenSaturated() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService callers = Executors.newFixedThreadPool(2);
+    try {
+      callers.submit(() -> hashingExecutor.execute(() -> {
+        started.countDown();
+        return await(release);
+      }));
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      callers.submit(() -> hashingExecutor.execute(() -> await(release)));
+      waitForQueuedTask();
+
+      CustomResponseStatusException exception = assertThrows(CustomResponseStatusException.class,
+          () -> hashingExecutor.execute(() -> true));
+
+      assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+      assertEquals(ErrorCodeEnum.PASSWORD_HASHING_BUSY.name(), exception.getErrorCode());
+    } finally {
+      release.countDown();
+      callers.shutdown();
+    }
+  }
+
+  private void waitForQueuedTask() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (hashingExecutor.queuedTasks() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
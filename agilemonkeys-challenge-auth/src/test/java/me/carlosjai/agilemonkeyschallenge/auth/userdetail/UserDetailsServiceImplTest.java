@@ -3,17 +3,24 @@ package me.carlosjai.agilemonkeyschallenge.auth.userdetail;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.util.Optional;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.repository.UserRepository;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
@@ -25,6 +32,12 @@ class UserDetailsServiceImplTest {
   @Mock
   private UserRepository userRepository;
 
+  @Mock
+  private UserService userService;
+
+  @Spy
+  private UserDetailsCache userDetailsCache = new UserDetailsCache(100, Duration.ofMinutes(5));
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
@@ -52,4 +65,49 @@ class UserDetailsServiceImplTest {
     assertEquals("could not found user 'nonexistentuser'", exception.getMessage());
     verify(userRepository).findByUsernameIgnoreCase(username);
   }
-}
\ No newline at end of file
+
+  @Test
+  void loadUserByUsername_shouldServeCachedUserDetails_ignoringCase() {
+    UserEntity userEntity = new UserEntity();
+    userEntity.setUsername("testuser");
+    when(userRepository.findByUsernameIgnoreCase("testuser")).thenReturn(Optional.of(userEntity));
+
+    userDetailsService.loadUserByUsername("testuser");
+    UserDetails userDetails = userDetailsService.loadUserByUsername("TestUser");
+
+    assertEquals("testuser", userDetails.getUsername());
+    verify(userRepository, times(1)).findByUsernameIgnoreCase("testuser");
+    assertEquals(1, userDetailsCache.stats().getHits());
+  }
+
+  @Test
+  void loadUserByUsername_shouldReloadUserDetails_whenUserChanged() {
+    UserEntity userEntity = new UserEntity();
+    userEntity.setUsername("testuser");
+    when(userRepository.findByUsernameIgnoreCase("testuser")).thenReturn(Optional.of(userEntity));
+
+    userDetailsService.loadUserByUsername("testuser");
+    userDetailsCache.onUserChanged(new UserChangedEvent(1L, "testuser"));
+    userDetailsService.loadUserByUsername("testuser");
+
+    verify(userRepository, times(2)).findByUsernameIgnoreCase("testuser");
+  }
+
+  @Test
+  void updatePassword_shouldStoreRehashedPassword() {
+    UserEntity userEntity = new UserEntity();
+    userEntity.setUsername("testuser");
+    userEntity.setPassword("old-hash");
+    when(userRepository.findByUsernameIgnoreCase("testuser")).thenReturn(Optional.of(userEntity));
+    when(userService.findByUsername("testuser")).thenReturn(Optional.of(userEntity));
+    when(userService.save(userEntity)).thenReturn(userEntity);
+
+    UserDetails userDetails = userDetailsService.updatePassword(
+        userDetailsService.loadUserByUsername("testuser"), "new-hash");
+
+    assertEquals("new-hash", userDetails.getPassword());
+    assertEquals("new-hash", userDetailsService.loadUserByUsername("testuser").getPassword());
+    verify(userService).save(userEntity);
+    verify(userRepository, never()).save(any(UserEntity.class));
+  }
+}
@@ -0,0 +1,9 @@
+package me.carlosjai.agilemonkeyschallenge.domain.auditable;
+
+/**
+ * Id and optimistic locking version of an entity, read without loading the entity to answer
+ * conditional requests.
+ */
+public record EntityVersion(Long id, Long version) {
+
+}
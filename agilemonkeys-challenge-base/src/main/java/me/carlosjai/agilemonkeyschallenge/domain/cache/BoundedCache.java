@@ -0,0 +1,272 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import lombok.Getter;
+
+/**
+ * Small in-memory cache bounded by size (LRU) and by time to live.
+ *
+ * <p>Concurrent misses on the same key are coalesced so the loader runs once per key. Evicting
+ * or replacing a key while it is being loaded discards the in-flight result, so a stale load never
+ * overwrites a newer value.</p>
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> implements MeterBinder {
+
+  @Getter
+  private final String name;
+  private final Duration timeToLive;
+  private final Function<? super V, Instant> expiry;
+  private final Clock clock;
+  private final Map<K, Entry<V>> entries;
+  private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder loadSuccesses = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder loadTimeNanos = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public BoundedCache(String name, int maximumSize, Duration timeToLive) {
+    this(name, maximumSize, timeToLive, null, Clock.systemUTC());
+  }
+
+  public BoundedCache(String name, int maximumSize, Duration timeToLive,
+      Function<? super V, Instant> expiry) {
+    this(name, maximumSize, timeToLive, expiry, Clock.systemUTC());
+  }
+
+  /**
+   * @param name        cache name, used as the {@code cache} tag of the exported metrics
+   * @param maximumSize maximum number of entries, least recently used ones are evicted first
+   * @param timeToLive  maximum time an entry is kept after being written
+   * @param expiry      optional per-value expiration, an entry expires at the earliest of this
+   *                    instant and the time to live
+   * @param clock       clock used to compute expirations
+   */
+  public BoundedCache(String name, int maximumSize, Duration timeToLive,
+      Function<? super V, Instant> expiry, Clock clock) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive");
+    }
+    this.name = name;
+    this.timeToLive = timeToLive;
+    this.expiry = expiry;
+    this.clock = clock;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        if (size() > maximumSize) {
+          evictions.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached value for the key, if present and not expired.
+   */
+  public Optional<V> getIfPresent(K key) {
+    synchronized (entries) {
+      final var entry = entries.get(key);
+      if (entry == null) {
+        misses.increment();
+        return Optional.empty();
+      }
+      if (entry.isExpired(clock.instant())) {
+        entries.remove(key);
+        evictions.increment();
+        misses.increment();
+        return Optional.empty();
+      }
+      hits.increment();
+      return Optional.of(entry.value());
+    }
+  }
+
+  /**
+   * Returns the cached value for the key, loading it with the given loader on a miss. Concurrent
+   * callers missing the same key wait for a single load. Null values and loader exceptions are not
+   * cached; exceptions and errors are propagated to every waiting caller.
+   */
+  public V get(K key, Function<? super K, ? extends V> loader) {
+    final var cached = getIfPresent(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    final var future = new CompletableFuture<V>();
+    final var inFlight = loading.putIfAbsent(key, future);
+    if (inFlight != null) {
+      return await(inFlight);
+    }
+    final long start = System.nanoTime();
+    try {
+      final V value = loader.apply(key);
+      loadTimeNanos.add(System.nanoTime() - start);
+      loadSuccesses.increment();
+      synchronized (entries) {
+        // Removing the in-flight load and storing its value under the lock that evict() and put()
+        // also hold, so an eviction can't slip in between and leave the stale value behind.
+        if (loading.remove(key, future) && value != null) {
+          store(key, value);
+        }
+      }
+      future.complete(value);
+      return value;
+    } catch (Throwable e) {
+      // Any failure, errors included, must complete the in-flight load; otherwise every later
+      // caller of the key would wait on it forever.
+      loadTimeNanos.add(System.nanoTime() - start);
+      loadFailures.increment();
+      loading.remove(key, future);
+      future.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * Stores a value, replacing any cached or in-flight one.
+   */
+  public void put(K key, V value) {
+    synchronized (entries) {
+      loading.remove(key);
+      store(key, value);
+    }
+  }
+
+  /**
+   * Removes the key, discarding any in-flight load for it.
+   */
+  public void evict(K key) {
+    synchronized (entries) {
+      loading.remove(key);
+      if (entries.remove(key) != null) {
+        invalidations.increment();
+      }
+    }
+  }
+
+  /**
+   * Removes every entry, discarding in-flight loads.
+   */
+  public void clear() {
+    synchronized (entries) {
+      loading.clear();
+      entries.clear();
+    }
+  }
+
+  public long size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public CacheStats stats() {
+    return CacheStats.builder()
+        .hits(hits.sum())
+        .misses(misses.sum())
+        .loadSuccesses(loadSuccesses.sum())
+        .loadFailures(loadFailures.sum())
+        .totalLoadTimeNanos(loadTimeNanos.sum())
+        .evictions(evictions.sum())
+        .invalidations(invalidations.sum())
+        .size(size())
+        .build();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    final var tags = Tags.of("cache", name);
+    FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+        .tags(tags).tag("result", "hit")
+        .description("Number of lookups served from the cache")
+        .register(registry);
+    FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+        .tags(tags).tag("result", "miss")
+        .description("Number of lookups not found in the cache")
+        .register(registry);
+    FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+        .tags(tags)
+        .description("Number of entries evicted by size or expiration")
+        .register(registry);
+    FunctionCounter.builder("cache.invalidations", invalidations, LongAdder::sum)
+        .tags(tags)
+        .description("Number of entries explicitly removed")
+        .register(registry);
+    FunctionTimer.builder("cache.loads", this,
+            cache -> cache.loadSuccesses.sum() + cache.loadFailures.sum(),
+            cache -> cache.loadTimeNanos.sum(), TimeUnit.NANOSECONDS)
+        .tags(tags)
+        .description("Time spent loading missing entries")
+        .register(registry);
+    FunctionCounter.builder("cache.load.failures", loadFailures, LongAdder::sum)
+        .tags(tags)
+        .register(registry);
+    Gauge.builder("cache.size", this, BoundedCache::size)
+        .tags(tags)
+        .description("Number of entries in the cache")
+        .register(registry);
+  }
+
+  private void store(K key, V value) {
+    final var now = clock.instant();
+    var expiresAt = now.plus(timeToLive);
+    if (expiry != null) {
+      final var valueExpiration = expiry.apply(value);
+      if (valueExpiration != null && valueExpiration.isBefore(expiresAt)) {
+        expiresAt = valueExpiration;
+      }
+    }
+    if (!expiresAt.isAfter(now)) {
+      return;
+    }
+    synchronized (entries) {
+      entries.put(key, new Entry<>(value, expiresAt));
+    }
+  }
+
+  private static <V> V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private record Entry<V>(V value, Instant expiresAt) {
+
+    boolean isExpired(Instant now) {
+      return !expiresAt.isAfter(now);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Point in time snapshot of the {@link BoundedCache} counters.
+ */
+@Getter
+@Builder
+public class CacheStats {
+
+  private final long hits;
+  private final long misses;
+  private final long loadSuccesses;
+  private final long loadFailures;
+  private final long totalLoadTimeNanos;
+  private final long evictions;
+  private final long invalidations;
+  private final long size;
+
+  public double hitRate() {
+    final long requests = hits + misses;
+    return requests == 0 ? 1.0 : (double) hits / requests;
+  }
+}
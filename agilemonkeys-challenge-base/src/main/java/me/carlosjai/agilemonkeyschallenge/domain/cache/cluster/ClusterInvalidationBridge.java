@@ -0,0 +1,116 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.Getter;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.cluster.InvalidationMessage.Kind;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards the customer and user change events of this node to the other nodes through the
+ * {@link ClusterInvalidationBus}, and publishes the changes received from them as local events, so
+ * the listeners keeping derived state (caches, search index) handle remote changes like local ones.
+ *
+ * <p>Events are forwarded before the commit of the transaction that raised them, so the database
+ * backed bus delivers them only once the change is visible. Received events are published outside
+ * of any transaction, which runs their after-commit listeners immediately and keeps them from being
+ * forwarded again.</p>
+ */
+public class ClusterInvalidationBridge implements MeterBinder {
+
+  /**
+   * Maximum number of ids per message, keeping the payload well below the 8000 bytes accepted by
+   * {@code NOTIFY}.
+   */
+  static final int MAX_IDS_PER_MESSAGE = 256;
+
+  @Getter
+  private final String nodeId = UUID.randomUUID().toString();
+  private final ClusterInvalidationBus bus;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Clock clock;
+
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder received = new LongAdder();
+  private final LongAdder latencyMillis = new LongAdder();
+
+  public ClusterInvalidationBridge(ClusterInvalidationBus bus,
+      ApplicationEventPublisher eventPublisher, Clock clock) {
+    this.bus = bus;
+    this.eventPublisher = eventPublisher;
+    this.clock = clock;
+    bus.subscribe(this::onMessage);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCustomerChanged(CustomerChangedEvent event) {
+    send(Kind.CUSTOMERS_CHANGED, List.of(event.getCustomerId()), null);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCustomersChanged(CustomersChangedEvent event) {
+    send(Kind.CUSTOMERS_CHANGED, event.getCustomerIds(), null);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onCustomersCreated(CustomersCreatedEvent event) {
+    send(Kind.CUSTOMERS_CREATED, event.getCustomerIds(), null);
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void onUserChanged(UserChangedEvent event) {
+    send(Kind.USER_CHANGED, List.of(event.getUserId()), event.getUsername());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("cache.invalidation.messages", sent, LongAdder::sum)
+        .tag("direction", "sent")
+        .description("Number of invalidation messages sent to the other nodes")
+        .register(registry);
+    FunctionTimer.builder("cache.invalidation.latency", this,
+            bridge -> bridge.received.sum(), bridge -> bridge.latencyMillis.sum(),
+            TimeUnit.MILLISECONDS)
+        .description("Time from the commit on the writing node to the delivery on this node")
+        .register(registry);
+  }
+
+  void onMessage(InvalidationMessage message) {
+    if (nodeId.equals(message.origin())) {
+      return;
+    }
+    received.increment();
+    latencyMillis.add(Math.max(0, clock.millis() - message.sentAtMillis()));
+    switch (message.kind()) {
+      case CUSTOMERS_CREATED ->
+          eventPublisher.publishEvent(new CustomersCreatedEvent(message.ids()));
+      case CUSTOMERS_CHANGED ->
+          eventPublisher.publishEvent(new CustomersChangedEvent(message.ids()));
+      case USER_CHANGED -> eventPublisher.publishEvent(
+          new UserChangedEvent(message.ids().isEmpty() ? null : message.ids().get(0),
+              message.username()));
+    }
+  }
+
+  private void send(Kind kind, List<Long> ids, String username) {
+    for (int from = 0; from < ids.size(); from += MAX_IDS_PER_MESSAGE) {
+      final var chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_MESSAGE, ids.size()));
+      bus.publish(new InvalidationMessage(nodeId, clock.millis(), kind, List.copyOf(chunk),
+          username));
+      sent.increment();
+    }
+  }
+}
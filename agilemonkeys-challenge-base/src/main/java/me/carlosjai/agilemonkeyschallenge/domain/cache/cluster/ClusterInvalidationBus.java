@@ -0,0 +1,18 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport of {@link InvalidationMessage} between the nodes of the cluster. Every published
+ * message is delivered to the subscribers of every node, including the publishing one.
+ */
+public interface ClusterInvalidationBus {
+
+  /**
+   * Sends the message. When called within a transaction, implementations backed by the database
+   * only deliver it once the transaction commits.
+   */
+  void publish(InvalidationMessage message);
+
+  void subscribe(Consumer<InvalidationMessage> subscriber);
+}
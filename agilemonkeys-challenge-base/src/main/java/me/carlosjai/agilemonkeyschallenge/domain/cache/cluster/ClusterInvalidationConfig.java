@@ -0,0 +1,40 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import java.time.Clock;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class ClusterInvalidationConfig {
+
+  /**
+   * Changes are only seen by this node ({@code cluster.invalidation.type=in-memory}, default), or
+   * sent to every node through PostgreSQL {@code NOTIFY}
+   * ({@code cluster.invalidation.type=postgresql}).
+   */
+  @Bean
+  public ClusterInvalidationBus clusterInvalidationBus(DataSource dataSource,
+      JdbcTemplate jdbcTemplate,
+      @Value("${cluster.invalidation.type:in-memory}") String type,
+      @Value("${cluster.invalidation.channel:cache_invalidation}") String channel,
+      @Value("${cluster.invalidation.poll-timeout:500ms}") Duration pollTimeout) {
+    if ("postgresql".equalsIgnoreCase(type)) {
+      final var bus = new PostgresClusterInvalidationBus(dataSource, jdbcTemplate, channel,
+          pollTimeout);
+      bus.start();
+      return bus;
+    }
+    return new InMemoryClusterInvalidationBus();
+  }
+
+  @Bean
+  public ClusterInvalidationBridge clusterInvalidationBridge(ClusterInvalidationBus bus,
+      ApplicationEventPublisher eventPublisher) {
+    return new ClusterInvalidationBridge(bus, eventPublisher, Clock.systemUTC());
+  }
+}
@@ -0,0 +1,25 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClusterInvalidationBus} delivering the messages synchronously to the subscribers of this
+ * process. Used by single node deployments and by tests, which can subscribe several nodes to the
+ * same instance.
+ */
+public class InMemoryClusterInvalidationBus implements ClusterInvalidationBus {
+
+  private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+  @Override
+  public void publish(InvalidationMessage message) {
+    subscribers.forEach(subscriber -> subscriber.accept(message));
+  }
+
+  @Override
+  public void subscribe(Consumer<InvalidationMessage> subscriber) {
+    subscribers.add(subscriber);
+  }
+}
@@ -0,0 +1,50 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Change of customers or users sent to the other nodes of the cluster, so they refresh the state
+ * they derived from them. It travels as a compact text payload:
+ * {@code origin;sentAtMillis;kind;id,id,...;username}.
+ *
+ * @param origin       id of the node that made the change
+ * @param sentAtMillis epoch millis at which the change was sent, to measure propagation latency
+ * @param kind         what changed
+ * @param ids          ids of the changed customers, or the id of the changed user
+ * @param username     username of the changed user, {@code null} for customers
+ */
+public record InvalidationMessage(String origin, long sentAtMillis, Kind kind, List<Long> ids,
+                                  String username) {
+
+  private static final String SEPARATOR = ";";
+
+  public enum Kind {
+    CUSTOMERS_CREATED,
+    CUSTOMERS_CHANGED,
+    USER_CHANGED
+  }
+
+  public String encode() {
+    return String.join(SEPARATOR, origin, Long.toString(sentAtMillis), kind.name(),
+        ids.stream().map(String::valueOf).collect(Collectors.joining(",")),
+        username == null ? "" : username);
+  }
+
+  /**
+   * Parses a payload created by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException when the payload is malformed.
+   */
+  public static InvalidationMessage decode(String payload) {
+    final var parts = payload.split(SEPARATOR, 5);
+    if (parts.length != 5) {
+      throw new IllegalArgumentException("Malformed invalidation message: " + payload);
+    }
+    final List<Long> ids = parts[3].isEmpty() ? List.of()
+        : Arrays.stream(parts[3].split(",")).map(Long::valueOf).toList();
+    return new InvalidationMessage(parts[0], Long.parseLong(parts[1]), Kind.valueOf(parts[2]),
+        ids, parts[4].isEmpty() ? null : parts[4]);
+  }
+}
@@ -0,0 +1,125 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+/**
+ * {@link ClusterInvalidationBus} relying on PostgreSQL {@code LISTEN/NOTIFY}. Messages are sent
+ * with {@code pg_notify} on the connection of the current transaction, so PostgreSQL delivers them
+ * only if it commits. Each node listens on a dedicated connection of the datasource pool, polled by
+ * a daemon thread, and reconnects after a failure. Messages sent while a node was disconnected are
+ * lost; the time to live of the caches bounds how long that node may serve stale entries.
+ */
+public class PostgresClusterInvalidationBus implements ClusterInvalidationBus, AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(PostgresClusterInvalidationBus.class);
+  private static final Pattern CHANNEL = Pattern.compile("[a-z_][a-z0-9_]*");
+
+  private final DataSource dataSource;
+  private final JdbcTemplate jdbcTemplate;
+  private final String channel;
+  private final Duration pollTimeout;
+  private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+  private final Thread listener;
+  private volatile boolean running = true;
+
+  public PostgresClusterInvalidationBus(DataSource dataSource, JdbcTemplate jdbcTemplate,
+      String channel, Duration pollTimeout) {
+    if (!CHANNEL.matcher(channel).matches()) {
+      throw new IllegalArgumentException("Invalid notification channel: " + channel);
+    }
+    this.dataSource = dataSource;
+    this.jdbcTemplate = jdbcTemplate;
+    this.channel = channel;
+    this.pollTimeout = pollTimeout;
+    this.listener = new Thread(this::listen, "cluster-invalidation-listener");
+    this.listener.setDaemon(true);
+  }
+
+  public void start() {
+    listener.start();
+  }
+
+  @Override
+  public void publish(InvalidationMessage message) {
+    jdbcTemplate.execute("SELECT pg_notify(?, ?)", (PreparedStatementCallback<Boolean>) ps -> {
+      ps.setString(1, channel);
+      ps.setString(2, message.encode());
+      return ps.execute();
+    });
+  }
+
+  @Override
+  public void subscribe(Consumer<InvalidationMessage> subscriber) {
+    subscribers.add(subscriber);
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    listener.interrupt();
+  }
+
+  private void listen() {
+    while (running) {
+      try (Connection connection = dataSource.getConnection()) {
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+          statement.execute("LISTEN " + channel);
+        }
+        log.info("Listening to cluster invalidations on channel {}", channel);
+        final var pgConnection = connection.unwrap(PGConnection.class);
+        while (running) {
+          final var notifications = pgConnection.getNotifications((int) pollTimeout.toMillis());
+          if (notifications != null) {
+            for (final var notification : notifications) {
+              deliver(notification.getParameter());
+            }
+          }
+        }
+      } catch (SQLException e) {
+        if (running) {
+          log.warn("Cluster invalidation listener disconnected, reconnecting: {}", e.getMessage());
+          pause();
+        }
+      }
+    }
+  }
+
+  private void deliver(String payload) {
+    final InvalidationMessage message;
+    try {
+      message = InvalidationMessage.decode(payload);
+    } catch (IllegalArgumentException e) {
+      log.warn("Ignoring cluster invalidation: {}", e.getMessage());
+      return;
+    }
+    for (final var subscriber : subscribers) {
+      try {
+        subscriber.accept(message);
+      } catch (RuntimeException e) {
+        log.warn("Could not apply cluster invalidation {}", message, e);
+      }
+    }
+  }
+
+  private void pause() {
+    try {
+      Thread.sleep(pollTimeout.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      running = false;
+    }
+  }
+}
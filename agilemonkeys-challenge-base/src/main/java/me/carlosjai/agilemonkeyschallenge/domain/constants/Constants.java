@@ -12,6 +12,8 @@ public final class Constants {
   public static final String PAGE_SIZE_PARAM = "_limit";
   public static final String SORT_BY_PARAM = "_sort";
   public static final String SORT_ORDER_PARAM = "_order";
+  public static final String CURSOR_PARAM = "_cursor";
+  public static final String COUNT_PARAM = "_count";
   public static final String DEFAULT_PAGE_SIZE = "10";
   public static final String DEFAULT_CURRENT_PAGE = "1";
   public static final String DEFAULT_SORT_ORDER = "asc";
@@ -27,4 +29,10 @@ public final class Constants {
   public static final String ERROR_WRONG_PASSWORD = "Password must have at least one uppercase letter, one lowercase letter, one number, one special character, and be at least 8 characters long";
   public static final String SK = "sk";
   public static final long MAX_AGE = 10L;
+  /**
+   * Ids reserved per sequence call by the pooled-lo generators. Must match the {@code incrementBy}
+   * of {@code customer_seq} and {@code user_seq}: changing it requires a changeset altering them.
+   */
+  public static final String ID_ALLOCATION_SIZE = "50";
+  public static final String ID_OPTIMIZER = "pooled-lo";
 }
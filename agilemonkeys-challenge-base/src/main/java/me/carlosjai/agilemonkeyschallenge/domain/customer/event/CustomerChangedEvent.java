@@ -0,0 +1,17 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code CustomerService} whenever a customer is created, updated or deleted, so
+ * components holding customer derived state (search index, caches) can refresh it.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomerChangedEvent {
+
+  private final Long customerId;
+}
@@ -0,0 +1,18 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.event;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published when several customers are inserted at once, so listeners can process them together
+ * instead of one {@link CustomerChangedEvent} each.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CustomersCreatedEvent {
+
+  private final List<Long> customerIds;
+}
@@ -0,0 +1,19 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a customer batch.
+ *
+ * @param createdIds id of each requested creation, in the same order, or {@code null} when its
+ *                   email was already used
+ * @param updatedIds ids of the updated customers, requested ids missing from it do not exist or
+ *                   are in {@code conflictedIds}
+ * @param conflictedIds ids of the customers not updated because their new email was already used
+ * @param deletedIds ids of the deleted customers, requested ids missing from it did not exist
+ */
+public record CustomerBatchResult(List<Long> createdIds, Set<Long> updatedIds,
+                                  Set<Long> conflictedIds, Set<Long> deletedIds) {
+
+}
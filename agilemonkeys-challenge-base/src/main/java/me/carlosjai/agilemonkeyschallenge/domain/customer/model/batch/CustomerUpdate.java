@@ -0,0 +1,19 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch;
+
+import java.util.function.Consumer;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+
+/**
+ * Update of a customer within a batch.
+ *
+ * @param customerId id of the customer to update
+ * @param email      new email of the customer, checked for duplicates before the changes are
+ *                   applied, or {@code null} when the email does not change
+ * @param changes    applies the new values to the loaded customer
+ */
+public record CustomerUpdate(Long customerId, String email, Consumer<CustomerEntity> changes) {
+
+  public CustomerUpdate(Long customerId, Consumer<CustomerEntity> changes) {
+    this(customerId, null, changes);
+  }
+}
@@ -5,11 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import me.carlosjai.agilemonkeyschallenge.domain.auditable.Auditable;
+import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
 
@@ -25,7 +27,8 @@ public class CustomerEntity extends Auditable<String> {
   @GeneratedValue(generator = "seqCustomer")
   @GenericGenerator(name = "seqCustomer", parameters = {
       @Parameter(name = "sequence_name", value = "customer_seq"),
-      @Parameter(name = "increment_size", value = "1")
+      @Parameter(name = "increment_size", value = Constants.ID_ALLOCATION_SIZE),
+      @Parameter(name = "optimizer", value = Constants.ID_OPTIMIZER)
   })
   private Long sk;
   private String firstName;
@@ -34,6 +37,20 @@ public class CustomerEntity extends Auditable<String> {
   private String phoneNumber;
   @Column(name = "picture_name")
   private String picture;
-  @Column(name = "picture_bytes")
-  private byte[] pictureBytes;
+  /**
+   * Hash of the picture in the picture store. Rows not yet migrated keep their content in the
+   * legacy {@code picture_bytes} column, which is deliberately not mapped so loading a customer
+   * never reads it; see {@link
+   * me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository.CustomerRepository#findLegacyPictureBytes}.
+   */
+  @Column(name = "picture_hash")
+  private String pictureHash;
+  @Column(name = "picture_size")
+  private Long pictureSize;
+  /**
+   * Optimistic locking version, incremented by every update. Updates of a stale copy fail instead
+   * of silently overwriting a concurrent change.
+   */
+  @Version
+  private Long version;
 }
@@ -0,0 +1,68 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Base64;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+
+/**
+ * Position of a customer in the default customer order ({@code lastName, firstName, email, sk}),
+ * used to continue a keyset paginated search right after it. It travels to the clients as an
+ * opaque URL safe token.
+ *
+ * @param lastName  last name of the last returned customer
+ * @param firstName first name of the last returned customer
+ * @param email     email of the last returned customer
+ * @param sk        id of the last returned customer
+ */
+public record CustomerCursor(String lastName, String firstName, String email, long sk) {
+
+  private static final byte VERSION = 1;
+
+  public static CustomerCursor of(CustomerSummary summary) {
+    return new CustomerCursor(summary.getLastName(), summary.getFirstName(), summary.getEmail(),
+        summary.getSk());
+  }
+
+  /**
+   * Parses a token created by {@link #encode()}.
+   *
+   * @throws IllegalArgumentException when the token is malformed.
+   */
+  public static CustomerCursor decode(String token) {
+    try {
+      final var bytes = Base64.getUrlDecoder().decode(token);
+      try (var input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+        if (input.readByte() != VERSION) {
+          throw new IllegalArgumentException("Unsupported cursor version");
+        }
+        final var cursor = new CustomerCursor(input.readUTF(), input.readUTF(), input.readUTF(),
+            input.readLong());
+        if (input.available() > 0) {
+          throw new IllegalArgumentException("Unexpected trailing cursor data");
+        }
+        return cursor;
+      }
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Malformed cursor", e);
+    }
+  }
+
+  public String encode() {
+    final var bytes = new ByteArrayOutputStream();
+    try (var output = new DataOutputStream(bytes)) {
+      output.writeByte(VERSION);
+      output.writeUTF(lastName);
+      output.writeUTF(firstName);
+      output.writeUTF(email);
+      output.writeLong(sk);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+  }
+}
@@ -0,0 +1,22 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection;
+
+import java.util.Date;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Picture metadata of a customer, enough to answer conditional and range requests without reading
+ * the picture content.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerPictureInfo {
+
+  private Long sk;
+  private String picture;
+  private String pictureHash;
+  private Long pictureSize;
+  private Date lastModifiedDate;
+}
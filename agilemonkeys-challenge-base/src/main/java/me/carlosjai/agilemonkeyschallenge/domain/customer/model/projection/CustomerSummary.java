@@ -0,0 +1,29 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection;
+
+import java.util.Date;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Read-only view of a customer holding only the columns needed to list customers. Selecting this
+ * projection instead of {@link me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity}
+ * keeps the picture content out of search queries.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CustomerSummary {
+
+  private Long sk;
+  private String firstName;
+  private String lastName;
+  private String email;
+  private String phoneNumber;
+  private String picture;
+  private String createdBy;
+  private Date creationDate;
+  private String lastModifiedBy;
+  private Date lastModifiedDate;
+  private Long version;
+}
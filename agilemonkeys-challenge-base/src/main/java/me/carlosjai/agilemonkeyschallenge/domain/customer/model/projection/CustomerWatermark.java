@@ -0,0 +1,15 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection;
+
+import java.util.Date;
+
+/**
+ * Number of customers and latest modification date of the table. Creating or updating a customer
+ * moves the date forward and deleting one lowers the count, so a copy of the table (e.g. a search
+ * index) that recorded the watermark it was built from can tell whether it is still current.
+ *
+ * @param count            the number of customers
+ * @param lastModifiedDate the latest modification date, {@code null} when there are no customers
+ */
+public record CustomerWatermark(Long count, Date lastModifiedDate) {
+
+}
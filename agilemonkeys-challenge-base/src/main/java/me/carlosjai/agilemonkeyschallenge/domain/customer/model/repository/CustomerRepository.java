@@ -4,12 +4,35 @@ package me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository;
 import java.util.Optional;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>,
-    QuerydslPredicateExecutor<CustomerEntity> {
+    QuerydslPredicateExecutor<CustomerEntity>, CustomerRepositoryCustom {
 
-  Optional<CustomerEntity> findByEmailIgnoreCase(String email);
+  /**
+   * Compares with {@code lower()} rather than the derived {@code upper()} so the lookup is served
+   * by the {@code customer_email_lower_idx} index.
+   */
+  @Query("select c from CustomerEntity c where lower(c.email) = lower(:email)")
+  Optional<CustomerEntity> findByEmailIgnoreCase(@Param("email") String email);
+
+  /**
+   * Reads the legacy picture content of a customer not yet migrated to the picture store. The
+   * column is not mapped on {@link CustomerEntity}, so it is only read here, on download.
+   */
+  @Query(value = "SELECT picture_bytes FROM customer WHERE sk = :sk", nativeQuery = true)
+  Optional<byte[]> findLegacyPictureBytes(@Param("sk") Long customerId);
+
+  /**
+   * Clears the legacy picture content of a customer, once its picture is in the picture store.
+   */
+  @Modifying
+  @Query(value = "UPDATE customer SET picture_bytes = NULL WHERE sk = :sk "
+      + "AND picture_bytes IS NOT NULL", nativeQuery = true)
+  int clearLegacyPictureBytes(@Param("sk") Long customerId);
 }
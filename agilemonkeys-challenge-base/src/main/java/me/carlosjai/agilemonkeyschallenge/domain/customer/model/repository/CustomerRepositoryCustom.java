@@ -0,0 +1,124 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository;
+
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerPictureInfo;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerWatermark;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface CustomerRepositoryCustom {
+
+  /**
+   * Returns a page of {@link CustomerSummary} matching the predicate, selecting only the summary
+   * columns.
+   */
+  Page<CustomerSummary> findSummaries(Predicate predicate, Pageable pageable);
+
+  /**
+   * Same as {@link #findSummaries(Predicate, Pageable)}, taking the total number of results from
+   * the given supplier instead of a {@code count(*)} query. The supplier is not called when the
+   * total can be deduced from the page.
+   */
+  Page<CustomerSummary> findSummaries(Predicate predicate, Pageable pageable, LongSupplier total);
+
+  /**
+   * Returns a page of {@link CustomerSummary} without counting the results, fetching one extra row
+   * to know whether there is a following page.
+   */
+  Slice<CustomerSummary> findSummarySlice(Predicate predicate, Pageable pageable);
+
+  /**
+   * Returns up to {@code limit} {@link CustomerSummary} matching the predicate, in the default
+   * customer order ({@code lastName, firstName, email, sk}) and placed after the cursor. The rows
+   * before the cursor are skipped with a seek predicate instead of an offset, so the cost does not
+   * grow with the page depth.
+   *
+   * @param after position to continue from, or {@code null} for the first page.
+   */
+  List<CustomerSummary> findSummariesAfter(Predicate predicate, CustomerCursor after, int limit);
+
+  /**
+   * Returns the {@link CustomerSummary} of the given ids in a single query, in no particular order.
+   * Missing ids are skipped.
+   */
+  List<CustomerSummary> findSummariesByIds(Collection<Long> ids);
+
+  /**
+   * Returns up to {@code limit} {@link CustomerSummary} with an id greater than {@code afterSk},
+   * ordered by id, to walk the whole table in batches.
+   */
+  List<CustomerSummary> findSummaryBatch(long afterSk, int limit);
+
+  /**
+   * Same as {@link #findSummaryBatch(long, int)}, only returning the customers modified at or after
+   * the given date.
+   */
+  List<CustomerSummary> findSummaryBatchModifiedSince(Date since, long afterSk, int limit);
+
+  /**
+   * Returns the number of customers and their latest modification date in a single query.
+   */
+  CustomerWatermark findWatermark();
+
+  /**
+   * Streams the {@link CustomerSummary} matching the predicate, ordered by id, through a
+   * forward-only read-only cursor fetching {@code fetchSize} rows at a time. Projections are not
+   * managed by the persistence context, so it does not grow while the stream is consumed. Must be
+   * consumed and closed within the transaction.
+   */
+  Stream<CustomerSummary> streamSummaries(Predicate predicate, int fetchSize);
+
+  /**
+   * Returns which of the given lowercased emails are already registered, in a single query served
+   * by the {@code lower(email)} index.
+   */
+  Set<String> findExistingEmails(Collection<String> lowercaseEmails);
+
+  /**
+   * Returns which of the given ids belong to an existing customer, in a single query on the
+   * primary key.
+   */
+  Set<Long> findExistingIds(Collection<Long> ids);
+
+  /**
+   * Deletes the customers of the given ids with a single bulk {@code DELETE}, without loading
+   * them. The persistence context is bypassed, so pending changes must be flushed before.
+   *
+   * @return the number of deleted customers
+   */
+  long deleteByIds(Collection<Long> ids);
+
+  /**
+   * Returns the picture metadata of the customer without reading the picture content.
+   */
+  Optional<CustomerPictureInfo> findPictureInfo(Long customerId);
+
+  /**
+   * Returns the id and version of the customer, reading only those two columns.
+   */
+  Optional<EntityVersion> findVersion(Long customerId);
+
+  /**
+   * Sets the non-null fields of the changes with a single {@code UPDATE}, without loading the
+   * customer, incrementing its version and setting the modification audit columns. When an
+   * expected version is given the row is only updated if it still has that version
+   * ({@code WHERE sk = ? AND version = ?}). The persistence context is bypassed.
+   *
+   * @return the number of updated rows, {@code 0} when the customer does not exist or its version
+   * changed
+   */
+  long updateFields(Long customerId, Long expectedVersion, CustomerFieldChanges changes,
+      String modifiedBy, Date modifiedDate);
+}
@@ -0,0 +1,235 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.QCustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerPictureInfo;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerWatermark;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.Slices;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class CustomerRepositoryCustomImpl implements CustomerRepositoryCustom {
+
+  private static final QCustomerEntity CUSTOMER = QCustomerEntity.customerEntity;
+  private final JPAQueryFactory queryFactory;
+  private final Querydsl querydsl;
+
+  public CustomerRepositoryCustomImpl(final EntityManager entityManager) {
+    this.queryFactory = new JPAQueryFactory(entityManager);
+    this.querydsl = new Querydsl(entityManager,
+        new PathBuilder<>(CustomerEntity.class, CUSTOMER.getMetadata()));
+  }
+
+  @Override
+  public Page<CustomerSummary> findSummaries(final Predicate predicate, final Pageable pageable) {
+    return findSummaries(predicate, pageable,
+        () -> Optional.ofNullable(queryFactory.select(CUSTOMER.count()).from(CUSTOMER)
+            .where(predicate).fetchOne()).orElse(0L));
+  }
+
+  @Override
+  public Page<CustomerSummary> findSummaries(final Predicate predicate, final Pageable pageable,
+      final LongSupplier total) {
+    final var query = selectSummaries().where(predicate);
+    final var content = querydsl.applyPagination(pageable, query).fetch();
+    return PageableExecutionUtils.getPage(content, pageable, total);
+  }
+
+  @Override
+  public Slice<CustomerSummary> findSummarySlice(final Predicate predicate,
+      final Pageable pageable) {
+    final var query = querydsl.applySorting(pageable.getSort(), selectSummaries().where(predicate))
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize() + 1L);
+    return Slices.of(query.fetch(), pageable);
+  }
+
+  @Override
+  public List<CustomerSummary> findSummariesAfter(final Predicate predicate,
+      final CustomerCursor after, final int limit) {
+    return selectSummaries()
+        .where(predicate, after == null ? null : seek(after))
+        .orderBy(CUSTOMER.lastName.asc(), CUSTOMER.firstName.asc(), CUSTOMER.email.asc(),
+            CUSTOMER.sk.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  @Override
+  public List<CustomerSummary> findSummariesByIds(final Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return selectSummaries().where(CUSTOMER.sk.in(ids)).fetch();
+  }
+
+  @Override
+  public List<CustomerSummary> findSummaryBatch(final long afterSk, final int limit) {
+    return selectSummaries()
+        .where(CUSTOMER.sk.gt(afterSk))
+        .orderBy(CUSTOMER.sk.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  @Override
+  public List<CustomerSummary> findSummaryBatchModifiedSince(final Date since, final long afterSk,
+      final int limit) {
+    return selectSummaries()
+        .where(CUSTOMER.lastModifiedDate.goe(since), CUSTOMER.sk.gt(afterSk))
+        .orderBy(CUSTOMER.sk.asc())
+        .limit(limit)
+        .fetch();
+  }
+
+  @Override
+  public CustomerWatermark findWatermark() {
+    return queryFactory.select(Projections.constructor(CustomerWatermark.class,
+            CUSTOMER.count(),
+            CUSTOMER.lastModifiedDate.max()))
+        .from(CUSTOMER)
+        .fetchOne();
+  }
+
+  @Override
+  public Stream<CustomerSummary> streamSummaries(final Predicate predicate, final int fetchSize) {
+    return selectSummaries()
+        .where(predicate)
+        .orderBy(CUSTOMER.sk.asc())
+        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+        .setHint(HibernateHints.HINT_READ_ONLY, true)
+        .stream();
+  }
+
+  @Override
+  public Set<String> findExistingEmails(final Collection<String> lowercaseEmails) {
+    if (lowercaseEmails.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(queryFactory.select(CUSTOMER.email.lower())
+        .from(CUSTOMER)
+        .where(CUSTOMER.email.lower().in(lowercaseEmails))
+        .fetch());
+  }
+
+  @Override
+  public Set<Long> findExistingIds(final Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return Set.of();
+    }
+    return new HashSet<>(queryFactory.select(CUSTOMER.sk)
+        .from(CUSTOMER)
+        .where(CUSTOMER.sk.in(ids))
+        .fetch());
+  }
+
+  @Override
+  public long deleteByIds(final Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return 0;
+    }
+    return queryFactory.delete(CUSTOMER).where(CUSTOMER.sk.in(ids)).execute();
+  }
+
+  @Override
+  public Optional<CustomerPictureInfo> findPictureInfo(final Long customerId) {
+    return Optional.ofNullable(queryFactory.select(Projections.bean(CustomerPictureInfo.class,
+            CUSTOMER.sk,
+            CUSTOMER.picture,
+            CUSTOMER.pictureHash,
+            CUSTOMER.pictureSize,
+            CUSTOMER.lastModifiedDate))
+        .from(CUSTOMER)
+        .where(CUSTOMER.sk.eq(customerId))
+        .fetchOne());
+  }
+
+  @Override
+  public Optional<EntityVersion> findVersion(final Long customerId) {
+    return Optional.ofNullable(queryFactory.select(Projections.constructor(EntityVersion.class,
+            CUSTOMER.sk,
+            CUSTOMER.version))
+        .from(CUSTOMER)
+        .where(CUSTOMER.sk.eq(customerId))
+        .fetchOne());
+  }
+
+  @Override
+  public long updateFields(final Long customerId, final Long expectedVersion,
+      final CustomerFieldChanges changes, final String modifiedBy, final Date modifiedDate) {
+    final var update = queryFactory.update(CUSTOMER)
+        .set(CUSTOMER.version, CUSTOMER.version.add(1L))
+        .set(CUSTOMER.lastModifiedBy, modifiedBy)
+        .set(CUSTOMER.lastModifiedDate, modifiedDate);
+    if (changes.firstName() != null) {
+      update.set(CUSTOMER.firstName, changes.firstName());
+    }
+    if (changes.lastName() != null) {
+      update.set(CUSTOMER.lastName, changes.lastName());
+    }
+    if (changes.email() != null) {
+      update.set(CUSTOMER.email, changes.email());
+    }
+    if (changes.phoneNumber() != null) {
+      update.set(CUSTOMER.phoneNumber, changes.phoneNumber());
+    }
+    return update.where(CUSTOMER.sk.eq(customerId),
+            expectedVersion == null ? null : CUSTOMER.version.eq(expectedVersion))
+        .execute();
+  }
+
+  private JPAQuery<CustomerSummary> selectSummaries() {
+    return queryFactory.select(Projections.bean(CustomerSummary.class,
+            CUSTOMER.sk,
+            CUSTOMER.firstName,
+            CUSTOMER.lastName,
+            CUSTOMER.email,
+            CUSTOMER.phoneNumber,
+            CUSTOMER.picture,
+            CUSTOMER.createdBy,
+            CUSTOMER.creationDate,
+            CUSTOMER.lastModifiedBy,
+            CUSTOMER.lastModifiedDate,
+            CUSTOMER.version))
+        .from(CUSTOMER);
+  }
+
+  /**
+   * Expanded form of {@code (lastName, firstName, email, sk) > (cursor)}. The leading
+   * {@code lastName >= cursor.lastName} bound lets the database start an index range scan at the
+   * cursor.
+   */
+  private static BooleanExpression seek(final CustomerCursor cursor) {
+    return CUSTOMER.lastName.goe(cursor.lastName())
+        .and(CUSTOMER.lastName.gt(cursor.lastName())
+            .or(CUSTOMER.lastName.eq(cursor.lastName())
+                .and(CUSTOMER.firstName.gt(cursor.firstName())
+                    .or(CUSTOMER.firstName.eq(cursor.firstName())
+                        .and(CUSTOMER.email.gt(cursor.email())
+                            .or(CUSTOMER.email.eq(cursor.email())
+                                .and(CUSTOMER.sk.gt(cursor.sk()))))))));
+  }
+}
@@ -2,12 +2,42 @@ package me.carlosjai.agilemonkeyschallenge.domain.customer.model.service;
 
 
 import com.querydsl.core.types.Predicate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerBatchResult;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerUpdate;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerPictureInfo;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository.CustomerRepository;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.RowCountEstimator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,7 +48,12 @@ import org.springframework.web.server.ResponseStatusException;
 @AllArgsConstructor
 public class CustomerService {
 
+  private static final String TABLE = "customer";
+
   private CustomerRepository repository;
+  private RowCountEstimator rowCountEstimator;
+  private ApplicationEventPublisher eventPublisher;
+  private AuditorAware<String> auditorAware;
 
   public Optional<CustomerEntity> getById(final Long customerId) {
     return repository.findById(customerId);
@@ -28,21 +63,205 @@ public class CustomerService {
     return repository.findAll(predicate, pageable);
   }
 
+  public Page<CustomerSummary> findSummariesBy(Predicate predicate, Pageable pageable) {
+    return repository.findSummaries(predicate, pageable);
+  }
+
+  /**
+   * Returns a page of {@link CustomerSummary}, computing its totals as requested by the count mode.
+   * {@link CountMode#NONE} returns a plain {@link Slice}, the other modes a {@link Page}.
+   */
+  public Slice<CustomerSummary> findSummariesBy(Predicate predicate, Pageable pageable,
+      CountMode countMode) {
+    return switch (countMode) {
+      case EXACT -> repository.findSummaries(predicate, pageable);
+      case ESTIMATED -> repository.findSummaries(predicate, pageable,
+          () -> rowCountEstimator.estimate(TABLE, predicate, () -> repository.count(predicate)));
+      case NONE -> repository.findSummarySlice(predicate, pageable);
+    };
+  }
+
+  /**
+   * Returns the requested page of the customers ranked by a search index, hydrating only the ids of
+   * the page in a single query and keeping the rank order.
+   *
+   * @param rankedIds ids of every matching customer, best matches first
+   */
+  public Page<CustomerSummary> findSummariesByRank(List<Long> rankedIds, Pageable pageable) {
+    final int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+    final int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+    return new PageImpl<>(findSummariesInOrder(rankedIds.subList(from, to)), pageable,
+        rankedIds.size());
+  }
+
+  /**
+   * Returns the {@link CustomerSummary} of the given ids in a single query, in the order of the ids.
+   * Missing ids are skipped and repeated ids are returned once, at their first position.
+   */
+  public List<CustomerSummary> findSummariesInOrder(List<Long> ids) {
+    final var distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+    final Map<Long, CustomerSummary> summaries = repository.findSummariesByIds(distinctIds)
+        .stream()
+        .collect(Collectors.toMap(CustomerSummary::getSk, Function.identity()));
+    return distinctIds.stream().map(summaries::get).filter(Objects::nonNull).toList();
+  }
+
+  public List<CustomerSummary> findSummariesAfter(Predicate predicate, CustomerCursor after,
+      int limit) {
+    return repository.findSummariesAfter(predicate, after, limit);
+  }
+
+  /**
+   * Passes every {@link CustomerSummary} matching the predicate, ordered by id, to the action. The
+   * rows are read through a forward-only cursor, {@code fetchSize} at a time, so memory does not
+   * depend on the number of customers.
+   */
+  public void forEachSummary(Predicate predicate, int fetchSize,
+      Consumer<CustomerSummary> action) {
+    try (var summaries = repository.streamSummaries(predicate, fetchSize)) {
+      summaries.forEach(action);
+    }
+  }
+
+  public Optional<CustomerPictureInfo> getPictureInfo(final Long customerId) {
+    return repository.findPictureInfo(customerId);
+  }
+
+  public Optional<EntityVersion> getVersion(final Long customerId) {
+    return repository.findVersion(customerId);
+  }
+
+  public Optional<byte[]> getLegacyPictureBytes(final Long customerId) {
+    return repository.findLegacyPictureBytes(customerId);
+  }
+
+  @Transactional(readOnly = false)
+  public void clearLegacyPictureBytes(final Long customerId) {
+    repository.clearLegacyPictureBytes(customerId);
+  }
+
+  /**
+   * Applies the changes with a single conditional {@code UPDATE}, without loading the customer.
+   * Auditing listeners do not run for bulk updates, so the modification audit columns are set
+   * here.
+   *
+   * @param expectedVersion version the customer must still have, or {@code null} to update it
+   *                        whatever its version
+   * @return whether the customer was updated, {@code false} when it does not exist or its version
+   * is no longer the expected one
+   */
+  @Transactional(readOnly = false)
+  public boolean updateFields(final Long customerId, final Long expectedVersion,
+      final CustomerFieldChanges changes) {
+    final var updated = repository.updateFields(customerId, expectedVersion, changes,
+        auditorAware.getCurrentAuditor().orElse(null), new Date()) > 0;
+    if (updated) {
+      eventPublisher.publishEvent(new CustomerChangedEvent(customerId));
+    }
+    return updated;
+  }
+
   @Transactional(readOnly = false)
   public void delete(CustomerEntity entity) {
     repository.delete(entity);
+    eventPublisher.publishEvent(new CustomerChangedEvent(entity.getSk()));
   }
 
   @Transactional(readOnly = false)
   public CustomerEntity save(final CustomerEntity entity) {
+    final CustomerEntity savedEntity;
     try {
-      return repository.save(entity);
+      savedEntity = repository.save(entity);
+    } catch (OptimisticLockingFailureException ex) {
+      throw ex;
     } catch (Exception ex) {
       throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
     }
+    eventPublisher.publishEvent(new CustomerChangedEvent(savedEntity.getSk()));
+    return savedEntity;
+  }
+
+  /**
+   * Inserts, in one transaction, the customers whose email is not registered yet. The emails are
+   * checked with a single query and the inserts are sent in JDBC batches.
+   *
+   * @return the lowercased emails of the customers skipped because they already exist
+   */
+  @Transactional(readOnly = false)
+  public Set<String> saveAllNew(final List<CustomerEntity> customers) {
+    final var existingEmails = repository.findExistingEmails(
+        customers.stream().map(customer -> lowercase(customer.getEmail())).toList());
+    final var newCustomers = customers.stream()
+        .filter(customer -> !existingEmails.contains(lowercase(customer.getEmail())))
+        .toList();
+    final var savedCustomers = repository.saveAll(newCustomers);
+    eventPublisher.publishEvent(
+        new CustomersCreatedEvent(savedCustomers.stream().map(CustomerEntity::getSk).toList()));
+    return existingEmails;
+  }
+
+  /**
+   * Applies the creations, updates and deletions of a batch in one transaction. Creations and
+   * updates whose email is already registered, or used by a previous operation of the batch, are
+   * skipped; the others are inserted and the updates written in JDBC batches. The emails of the
+   * creations and updates are checked with a single query, the customers to update are loaded with
+   * a single query, and the deletions are done with a single bulk {@code DELETE} without loading
+   * the customers.
+   */
+  @Transactional(readOnly = false)
+  public CustomerBatchResult applyBatch(final List<CustomerEntity> creations,
+      final List<CustomerUpdate> updates, final List<Long> deletions) {
+    final var usedEmails = new HashSet<>(repository.findExistingEmails(Stream.concat(
+            creations.stream().map(CustomerEntity::getEmail),
+            updates.stream().map(CustomerUpdate::email).filter(Objects::nonNull))
+        .map(CustomerService::lowercase)
+        .distinct()
+        .toList()));
+    final List<CustomerEntity> newCustomers = new ArrayList<>(creations.size());
+    for (final var customer : creations) {
+      newCustomers.add(usedEmails.add(lowercase(customer.getEmail())) ? customer : null);
+    }
+    repository.saveAll(newCustomers.stream().filter(Objects::nonNull).toList());
+    final List<Long> createdIds = new ArrayList<>(newCustomers.size());
+    newCustomers.forEach(customer -> createdIds.add(customer == null ? null : customer.getSk()));
+
+    final Map<Long, CustomerEntity> customersToUpdate = repository.findAllById(
+            updates.stream().map(CustomerUpdate::customerId).distinct().toList()).stream()
+        .collect(Collectors.toMap(CustomerEntity::getSk, Function.identity()));
+    final Set<Long> updatedIds = new LinkedHashSet<>();
+    final Set<Long> conflictedIds = new LinkedHashSet<>();
+    for (final var update : updates) {
+      final var customer = customersToUpdate.get(update.customerId());
+      if (customer == null) {
+        continue;
+      }
+      // keeping its own email is not a conflict, even if it is among the registered ones
+      if (update.email() != null && !update.email().equalsIgnoreCase(customer.getEmail())
+          && !usedEmails.add(lowercase(update.email()))) {
+        conflictedIds.add(update.customerId());
+        continue;
+      }
+      update.changes().accept(customer);
+      updatedIds.add(update.customerId());
+    }
+    repository.flush();
+
+    final var deletedIds = repository.findExistingIds(deletions);
+    repository.deleteByIds(deletedIds);
+
+    eventPublisher.publishEvent(
+        new CustomersCreatedEvent(createdIds.stream().filter(Objects::nonNull).toList()));
+    final var changedIds = new LinkedHashSet<>(updatedIds);
+    changedIds.addAll(deletedIds);
+    eventPublisher.publishEvent(new CustomersChangedEvent(List.copyOf(changedIds)));
+    return new CustomerBatchResult(createdIds, updatedIds, conflictedIds, deletedIds);
   }
 
   public Optional<CustomerEntity> findByEmail(String email) {
     return repository.findByEmailIgnoreCase(email);
   }
+
+  private static String lowercase(String email) {
+    return email.toLowerCase(Locale.ROOT);
+  }
 }
@@ -0,0 +1,12 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.update;
+
+/**
+ * New values of the customer columns to update in place. {@code null} fields are left unchanged.
+ */
+public record CustomerFieldChanges(String firstName, String lastName, String email,
+                                   String phoneNumber) {
+
+  public boolean isEmpty() {
+    return firstName == null && lastName == null && email == null && phoneNumber == null;
+  }
+}
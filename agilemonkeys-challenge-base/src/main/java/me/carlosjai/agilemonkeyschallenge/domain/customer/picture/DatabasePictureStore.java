@@ -0,0 +1,156 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Stores pictures in the {@code customer_picture} table, the durable copy shared by every node.
+ * Uploads are spooled to a temporary file while hashing and then streamed to the database; content
+ * whose hash is already known (written through from the local store) is streamed directly.
+ * PostgreSQL returns {@code bytea} values in a single piece, so reads fetch the content in chunks
+ * of {@code chunkSize} bytes ({@code substring}) to keep memory bounded whatever the picture size.
+ */
+public class DatabasePictureStore implements PictureStore {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final int chunkSize;
+
+  public DatabasePictureStore(JdbcTemplate jdbcTemplate) {
+    this(jdbcTemplate, DEFAULT_CHUNK_SIZE);
+  }
+
+  public DatabasePictureStore(JdbcTemplate jdbcTemplate, int chunkSize) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("chunkSize must be positive");
+    }
+    this.jdbcTemplate = jdbcTemplate;
+    this.chunkSize = chunkSize;
+  }
+
+  @Override
+  public StoredPicture store(InputStream content) throws IOException {
+    final var tempFile = Files.createTempFile("picture", ".upload");
+    try {
+      final var storedPicture = PictureFiles.copyToFile(content, tempFile);
+      try (var fileContent = Files.newInputStream(tempFile)) {
+        store(storedPicture, fileContent);
+      }
+      return storedPicture;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Streams the content straight into the table. Content already stored, by an earlier or a
+   * concurrent upload, is left as is by {@code ON CONFLICT DO NOTHING}, as it is identical.
+   */
+  @Override
+  public void store(StoredPicture picture, InputStream content) {
+    jdbcTemplate.update("INSERT INTO customer_picture (hash, content, content_size, "
+        + "creation_date) VALUES (?, ?, ?, ?) ON CONFLICT (hash) DO NOTHING", ps -> {
+      ps.setString(1, picture.getHash());
+      ps.setBinaryStream(2, content, picture.getSize());
+      ps.setLong(3, picture.getSize());
+      ps.setTimestamp(4, Timestamp.from(Instant.now()));
+    });
+  }
+
+  @Override
+  public Optional<InputStream> open(String hash) {
+    return jdbcTemplate.query("SELECT content_size FROM customer_picture WHERE hash = ?",
+            (rs, rowNum) -> rs.getLong(1), hash).stream().findFirst()
+        .map(size -> new ChunkedContentStream(hash, size));
+  }
+
+  @Override
+  public boolean contains(String hash) {
+    final Integer count = jdbcTemplate.queryForObject(
+        "SELECT count(*) FROM customer_picture WHERE hash = ?", Integer.class, hash);
+    return count != null && count > 0;
+  }
+
+  @Override
+  public void delete(String hash) {
+    jdbcTemplate.update("DELETE FROM customer_picture WHERE hash = ?", hash);
+  }
+
+  /**
+   * Reads the content of a picture one chunk at a time, holding a single chunk in memory.
+   */
+  private class ChunkedContentStream extends InputStream {
+
+    private final String hash;
+    private final long size;
+    private long position;
+    private byte[] chunk = new byte[0];
+    private int chunkPosition;
+
+    ChunkedContentStream(String hash, long size) {
+      this.hash = hash;
+      this.size = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (!fill()) {
+        return -1;
+      }
+      return chunk[chunkPosition++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      Objects.checkFromIndexSize(off, len, b.length);
+      if (len == 0) {
+        return 0;
+      }
+      if (!fill()) {
+        return -1;
+      }
+      final int read = Math.min(len, chunk.length - chunkPosition);
+      System.arraycopy(chunk, chunkPosition, b, off, read);
+      chunkPosition += read;
+      return read;
+    }
+
+    @Override
+    public int available() {
+      return chunk.length - chunkPosition;
+    }
+
+    private boolean fill() throws IOException {
+      if (chunkPosition < chunk.length) {
+        return true;
+      }
+      if (position >= size) {
+        return false;
+      }
+      final int length = (int) Math.min(chunkSize, size - position);
+      final byte[] next;
+      try {
+        next = jdbcTemplate.queryForObject(
+            "SELECT substring(content FROM ? FOR ?) FROM customer_picture WHERE hash = ?",
+            byte[].class, (int) position + 1, length, hash);
+      } catch (DataAccessException e) {
+        throw new IOException("Could not read the picture " + hash, e);
+      }
+      if (next == null || next.length == 0) {
+        throw new IOException("The picture " + hash + " was deleted while being read");
+      }
+      chunk = next;
+      chunkPosition = 0;
+      position += next.length;
+      return true;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores pictures as files under {@code root/ab/cd/abcd...}, fanned out by the first characters of
+ * the hash. Uploads are written to a temporary file and atomically moved into place once their hash
+ * is known, so readers never see partial content.
+ */
+public class FileSystemPictureStore implements PictureStore {
+
+  private final Path root;
+  private final Path uploads;
+
+  public FileSystemPictureStore(Path root) {
+    this.root = root;
+    this.uploads = root.resolve("tmp");
+    try {
+      Files.createDirectories(uploads);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Picture directory not available: " + root, e);
+    }
+  }
+
+  @Override
+  public StoredPicture store(InputStream content) throws IOException {
+    final var tempFile = Files.createTempFile(uploads, "upload", ".tmp");
+    try {
+      final var storedPicture = PictureFiles.copyToFile(content, tempFile);
+      final var target = resolve(storedPicture.getHash());
+      if (!Files.exists(target)) {
+        Files.createDirectories(target.getParent());
+        try {
+          Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+          // stored concurrently by another upload of the same content
+        }
+      }
+      return storedPicture;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  @Override
+  public Optional<InputStream> open(String hash) throws IOException {
+    if (!PictureFiles.isValidHash(hash)) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Files.newInputStream(resolve(hash)));
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public Optional<Path> path(String hash) {
+    if (!PictureFiles.isValidHash(hash)) {
+      return Optional.empty();
+    }
+    final var path = resolve(hash);
+    return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+  }
+
+  @Override
+  public boolean contains(String hash) {
+    return path(hash).isPresent();
+  }
+
+  @Override
+  public void delete(String hash) throws IOException {
+    if (PictureFiles.isValidHash(hash)) {
+      Files.deleteIfExists(resolve(hash));
+    }
+  }
+
+  private Path resolve(String hash) {
+    return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+  }
+}
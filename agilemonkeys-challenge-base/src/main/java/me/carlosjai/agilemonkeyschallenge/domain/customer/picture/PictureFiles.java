@@ -0,0 +1,48 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Helpers shared by the {@link PictureStore} implementations.
+ */
+public final class PictureFiles {
+
+  private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+  private PictureFiles() {
+  }
+
+  /**
+   * Copies the content into the target file with a fixed size buffer, computing its SHA-256 on the
+   * way.
+   */
+  public static StoredPicture copyToFile(InputStream content, Path target) throws IOException {
+    final var digest = sha256();
+    final long size;
+    try (var digestStream = new DigestInputStream(content, digest)) {
+      size = Files.copy(digestStream, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+    return new StoredPicture(HexFormat.of().formatHex(digest.digest()), size);
+  }
+
+  public static boolean isValidHash(String hash) {
+    return hash != null && HASH_PATTERN.matcher(hash).matches();
+  }
+
+  public static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * Picture formats accepted for customers, recognised by the magic bytes at the start of the
+ * content rather than by the declared content type or file name.
+ */
+public enum PictureFormat {
+  BMP("bmp", new byte[]{'B', 'M'}),
+  GIF("gif", "GIF87a".getBytes(US_ASCII), "GIF89a".getBytes(US_ASCII)),
+  JPEG("jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+  PNG("png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+  TIFF("tiff", new byte[]{'I', 'I', '*', 0}, new byte[]{'M', 'M', 0, '*'});
+
+  /**
+   * Number of leading bytes needed to recognise any of the formats.
+   */
+  public static final int SIGNATURE_LENGTH = 8;
+
+  @Getter
+  private final String extension;
+  private final List<byte[]> signatures;
+
+  PictureFormat(String extension, byte[]... signatures) {
+    this.extension = extension;
+    this.signatures = List.of(signatures);
+  }
+
+  /**
+   * Detects the format from the leading bytes of the content.
+   */
+  public static Optional<PictureFormat> detect(byte[] header) {
+    return Arrays.stream(values()).filter(format -> format.matches(header)).findFirst();
+  }
+
+  /**
+   * Detects the format by peeking the leading bytes of the stream, which must support
+   * {@link InputStream#mark(int)}. The stream is reset so its content can still be fully read.
+   */
+  public static Optional<PictureFormat> detect(InputStream content) throws IOException {
+    if (!content.markSupported()) {
+      throw new IllegalArgumentException("The picture stream must support mark/reset");
+    }
+    content.mark(SIGNATURE_LENGTH);
+    final byte[] header = content.readNBytes(SIGNATURE_LENGTH);
+    content.reset();
+    return detect(header);
+  }
+
+  private boolean matches(byte[] header) {
+    return signatures.stream().anyMatch(signature -> header.length >= signature.length
+        && Arrays.equals(header, 0, signature.length, signature, 0, signature.length));
+  }
+}
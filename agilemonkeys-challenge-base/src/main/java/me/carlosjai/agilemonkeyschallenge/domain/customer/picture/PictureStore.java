@@ -0,0 +1,50 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content addressed storage for customer pictures. Pictures are referenced by the hex encoded
+ * SHA-256 of their content, so identical uploads are stored once.
+ */
+public interface PictureStore {
+
+  /**
+   * Streams the content into the store, computing its hash on the fly.
+   *
+   * @param content picture content, not closed by this method.
+   * @return the hash and size of the stored content.
+   */
+  StoredPicture store(InputStream content) throws IOException;
+
+  /**
+   * Stores content whose hash and size are already known, e.g. read back from another store,
+   * without hashing it again. Stores that can't take it as is hash it with
+   * {@link #store(InputStream)}.
+   *
+   * @param picture the hash and size of the content.
+   * @param content picture content, not closed by this method.
+   */
+  default void store(StoredPicture picture, InputStream content) throws IOException {
+    store(content);
+  }
+
+  /**
+   * Opens the content stored with the given hash. The caller must close the stream.
+   */
+  Optional<InputStream> open(String hash) throws IOException;
+
+  /**
+   * Returns the local file holding the content, when the store keeps pictures on disk, allowing
+   * callers to use zero-copy transfers. Stores not backed by files return an empty optional.
+   */
+  default Optional<Path> path(String hash) {
+    return Optional.empty();
+  }
+
+  boolean contains(String hash);
+
+  void delete(String hash) throws IOException;
+}
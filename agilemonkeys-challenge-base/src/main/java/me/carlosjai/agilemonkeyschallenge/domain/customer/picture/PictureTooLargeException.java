@@ -0,0 +1,18 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import lombok.Getter;
+
+/**
+ * Thrown while streaming a picture whose content exceeds the configured maximum size.
+ */
+@Getter
+public class PictureTooLargeException extends IOException {
+
+  private final long maxSize;
+
+  public PictureTooLargeException(long maxSize) {
+    super("The picture exceeds the maximum size of " + maxSize + " bytes");
+    this.maxSize = maxSize;
+  }
+}
@@ -0,0 +1,66 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counts the bytes read from the wrapped stream and fails with {@link PictureTooLargeException} as
+ * soon as more than {@code maxSize} bytes are read, so oversized uploads are aborted without
+ * consuming them entirely.
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+
+  private final long maxSize;
+  private long count;
+  private long mark = -1;
+
+  public SizeLimitedInputStream(InputStream in, long maxSize) {
+    super(in);
+    this.maxSize = maxSize;
+  }
+
+  @Override
+  public int read() throws IOException {
+    final int value = super.read();
+    if (value != -1) {
+      add(1);
+    }
+    return value;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    final int read = super.read(b, off, len);
+    if (read > 0) {
+      add(read);
+    }
+    return read;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    final long skipped = super.skip(n);
+    add(skipped);
+    return skipped;
+  }
+
+  @Override
+  public synchronized void mark(int readLimit) {
+    super.mark(readLimit);
+    mark = count;
+  }
+
+  @Override
+  public synchronized void reset() throws IOException {
+    super.reset();
+    count = mark;
+  }
+
+  private void add(long bytes) throws PictureTooLargeException {
+    count += bytes;
+    if (count > maxSize) {
+      throw new PictureTooLargeException(maxSize);
+    }
+  }
+}
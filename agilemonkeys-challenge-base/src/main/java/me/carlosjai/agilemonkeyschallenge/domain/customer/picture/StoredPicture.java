@@ -0,0 +1,16 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor
+public class StoredPicture {
+
+  private final String hash;
+  private final long size;
+}
@@ -0,0 +1,68 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.Getter;
+
+/**
+ * Keeps a local copy (primary, e.g. files) of the pictures of a durable store shared by every node
+ * (fallback, e.g. the database). Uploads are written through to both stores, so losing the local
+ * copy (restart, temporary directory cleanup) or uploading on another node loses nothing; the
+ * fallback receives the local copy along with its already computed hash and size. Reads are
+ * served by the primary store, copying the pictures found only in the fallback on first read.
+ */
+public class TieredPictureStore implements PictureStore {
+
+  @Getter
+  private final PictureStore primary;
+  private final PictureStore fallback;
+
+  public TieredPictureStore(PictureStore primary, PictureStore fallback) {
+    this.primary = primary;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public StoredPicture store(InputStream content) throws IOException {
+    final var storedPicture = primary.store(content);
+    try (var storedContent = primary.open(storedPicture.getHash())
+        .orElseThrow(() -> new IOException("Stored picture not found: " + storedPicture))) {
+      fallback.store(storedPicture, storedContent);
+    }
+    return storedPicture;
+  }
+
+  @Override
+  public Optional<InputStream> open(String hash) throws IOException {
+    final var content = primary.open(hash);
+    if (content.isPresent()) {
+      return content;
+    }
+    final var fallbackContent = fallback.open(hash);
+    if (fallbackContent.isEmpty()) {
+      return Optional.empty();
+    }
+    try (var stream = fallbackContent.get()) {
+      primary.store(stream);
+    }
+    return primary.open(hash);
+  }
+
+  @Override
+  public Optional<Path> path(String hash) {
+    return primary.path(hash);
+  }
+
+  @Override
+  public boolean contains(String hash) {
+    return primary.contains(hash) || fallback.contains(hash);
+  }
+
+  @Override
+  public void delete(String hash) throws IOException {
+    primary.delete(hash);
+    fallback.delete(hash);
+  }
+}
@@ -0,0 +1,45 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.config;
+
+import java.nio.file.Path;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.DatabasePictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.FileSystemPictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.TieredPictureStore;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant.PictureVariantCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class PictureStoreConfig {
+
+  /**
+   * Pictures are always stored in the database table. With
+   * {@code customer.picture.store.type=filesystem} (default) a copy is also kept on the local file
+   * system to serve downloads, which is only a cache and can live in a temporary directory; with
+   * {@code customer.picture.store.type=database} pictures are only read from the database.
+   */
+  @Bean
+  public PictureStore pictureStore(JdbcTemplate jdbcTemplate,
+      @Value("${customer.picture.store.type:filesystem}") String type,
+      @Value("${customer.picture.store.directory:${java.io.tmpdir}/customer-pictures}") Path directory) {
+    final var databaseStore = new DatabasePictureStore(jdbcTemplate);
+    if ("database".equalsIgnoreCase(type)) {
+      return databaseStore;
+    }
+    return new TieredPictureStore(new FileSystemPictureStore(directory), databaseStore);
+  }
+
+  /**
+   * Resized variants are cached under {@code customer.picture.variants.directory}, deleting the
+   * least recently used ones beyond {@code customer.picture.variants.max-size}.
+   */
+  @Bean
+  public PictureVariantCache pictureVariantCache(
+      @Value("${customer.picture.variants.directory:${java.io.tmpdir}/customer-picture-variants}") Path directory,
+      @Value("${customer.picture.variants.max-size:256MB}") DataSize maxSize) {
+    return new PictureVariantCache(directory, maxSize.toBytes());
+  }
+}
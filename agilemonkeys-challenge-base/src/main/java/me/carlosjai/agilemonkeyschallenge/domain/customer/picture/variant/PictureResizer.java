@@ -0,0 +1,94 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+
+/**
+ * Downscales pictures with {@link ImageIO}. Pictures with transparency are written as PNG, every
+ * other picture as JPEG.
+ */
+public final class PictureResizer {
+
+  private PictureResizer() {
+  }
+
+  /**
+   * Writes a copy of the picture scaled to the given width, keeping its aspect ratio. Pictures
+   * narrower than the width are not upscaled. Large pictures are subsampled while decoding, so the
+   * decoded image stays close to the requested size instead of the original one.
+   *
+   * @return the extension of the written format ({@code png} or {@code jpg}).
+   */
+  public static String resize(InputStream source, int width, Path target) throws IOException {
+    final var image = read(source, width);
+    final int targetWidth = Math.min(width, image.getWidth());
+    final int targetHeight = Math.max(1,
+        Math.round((float) image.getHeight() * targetWidth / image.getWidth()));
+    final boolean alpha = image.getColorModel().hasAlpha();
+    final var resized = scale(image, targetWidth, targetHeight,
+        alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+    final var format = alpha ? "png" : "jpg";
+    try (var output = Files.newOutputStream(target)) {
+      if (!ImageIO.write(resized, format, output)) {
+        throw new IOException("No writer available for " + format);
+      }
+    }
+    return format;
+  }
+
+  private static BufferedImage read(InputStream source, int width) throws IOException {
+    try (var input = ImageIO.createImageInputStream(source)) {
+      final var readers = input == null ? null : ImageIO.getImageReaders(input);
+      if (readers == null || !readers.hasNext()) {
+        throw new IOException("Unsupported picture format");
+      }
+      final var reader = readers.next();
+      try {
+        reader.setInput(input, true, true);
+        final var param = reader.getDefaultReadParam();
+        final int subsampling = Math.max(1, reader.getWidth(0) / (width * 2));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        return reader.read(0, param);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  /**
+   * Halves the image until it is less than twice the target size before the last bilinear step,
+   * which avoids the aliasing of a single large downscale.
+   */
+  private static BufferedImage scale(BufferedImage image, int targetWidth, int targetHeight,
+      int type) {
+    var current = image;
+    int currentWidth = image.getWidth();
+    int currentHeight = image.getHeight();
+    do {
+      currentWidth = Math.max(targetWidth, currentWidth / 2);
+      currentHeight = Math.max(targetHeight, currentHeight / 2);
+      if (currentWidth < targetWidth * 2 || currentWidth == targetWidth) {
+        currentWidth = targetWidth;
+        currentHeight = targetHeight;
+      }
+      final var step = new BufferedImage(currentWidth, currentHeight, type);
+      final var graphics = step.createGraphics();
+      try {
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.setRenderingHint(RenderingHints.KEY_RENDERING,
+            RenderingHints.VALUE_RENDER_QUALITY);
+        graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+      } finally {
+        graphics.dispose();
+      }
+      current = step;
+    } while (currentWidth != targetWidth);
+    return current;
+  }
+}
@@ -0,0 +1,31 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A variant opened for reading by {@link PictureVariantCache#open(String, int)}. The channel keeps
+ * reading the content even if the variant is evicted or invalidated meanwhile, so the content must
+ * be read from it and never reopened through its file.
+ */
+public record PictureVariant(Path file, FileChannel channel) implements Closeable {
+
+  /**
+   * @return the extension of the variant format.
+   */
+  public String extension() {
+    return StringUtils.substringAfterLast(file.getFileName().toString(), ".");
+  }
+
+  public long size() throws IOException {
+    return channel.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,205 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * On-disk cache of resized pictures, keyed by content hash and width and bounded by the total size
+ * of its files. The least recently used variants are deleted first, never the latest one. The
+ * index is rebuilt from the directory on startup, ordered by file modification time. Variants are
+ * served from channels opened with {@link #open(String, int)}, so deleting one does not cut short
+ * the downloads already reading it.
+ */
+public class PictureVariantCache {
+
+  private static final Logger log = LoggerFactory.getLogger(PictureVariantCache.class);
+  private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})-(\\d+)\\.(png|jpg)");
+
+  private final Path directory;
+  private final long maximumBytes;
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long totalBytes;
+
+  public PictureVariantCache(Path directory, long maximumBytes) {
+    this.directory = directory;
+    this.maximumBytes = maximumBytes;
+    try {
+      Files.createDirectories(directory);
+      load();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Picture variant directory not available: " + directory, e);
+    }
+  }
+
+  /**
+   * Writes variants to a file before it is moved into the cache.
+   */
+  @FunctionalInterface
+  public interface VariantWriter {
+
+    /**
+     * @return the extension of the written format.
+     */
+    String write(Path target) throws IOException;
+  }
+
+  /**
+   * Looks the variant up. The file may be evicted at any time, so callers reading it must use
+   * {@link #open(String, int)} instead.
+   */
+  public synchronized Optional<Path> get(String hash, int width) {
+    final var entry = entries.get(key(hash, width));
+    if (entry == null) {
+      return Optional.empty();
+    }
+    if (!Files.isRegularFile(entry.file())) {
+      remove(key(hash, width));
+      return Optional.empty();
+    }
+    return Optional.of(entry.file());
+  }
+
+  /**
+   * Opens the variant under the lock taken by eviction and invalidation, so it can't be deleted
+   * between the lookup and the open. The returned channel keeps reading the content if the variant
+   * is deleted afterwards. The caller must close it.
+   */
+  public synchronized Optional<PictureVariant> open(String hash, int width) throws IOException {
+    final var key = key(hash, width);
+    final var entry = entries.get(key);
+    if (entry == null) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(new PictureVariant(entry.file(),
+          FileChannel.open(entry.file(), StandardOpenOption.READ)));
+    } catch (NoSuchFileException e) {
+      remove(key);
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Writes the variant into a temporary file with the given writer and atomically moves it into
+   * the cache, evicting the least recently used variants beyond the size limit.
+   */
+  public Path put(String hash, int width, VariantWriter writer) throws IOException {
+    final var tempFile = Files.createTempFile(directory, "variant", ".tmp");
+    try {
+      final var extension = writer.write(tempFile);
+      final var target = directory.resolve(key(hash, width) + "." + extension);
+      Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      final long size = Files.size(target);
+      synchronized (this) {
+        add(key(hash, width), new Entry(target, size));
+        evictOverflow();
+      }
+      return target;
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Deletes every variant of the given content.
+   */
+  public synchronized void invalidate(String hash) {
+    final var keys = entries.keySet().stream().filter(key -> key.startsWith(hash + "-")).toList();
+    keys.forEach(this::remove);
+  }
+
+  public synchronized long totalBytes() {
+    return totalBytes;
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private void load() throws IOException {
+    final List<Path> files = new ArrayList<>();
+    try (var stream = Files.list(directory)) {
+      stream.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+          .forEach(files::add);
+    }
+    files.sort(Comparator.comparing(PictureVariantCache::lastModified));
+    for (final var file : files) {
+      final var matcher = FILE_NAME.matcher(file.getFileName().toString());
+      if (matcher.matches()) {
+        add(key(matcher.group(1), Integer.parseInt(matcher.group(2))),
+            new Entry(file, Files.size(file)));
+      }
+    }
+    evictOverflow();
+  }
+
+  private void add(String key, Entry entry) {
+    final var previous = entries.put(key, entry);
+    if (previous != null) {
+      totalBytes -= previous.size();
+      if (!previous.file().equals(entry.file())) {
+        delete(previous.file());
+      }
+    }
+    totalBytes += entry.size();
+  }
+
+  private void evictOverflow() {
+    final var iterator = entries.entrySet().iterator();
+    while (totalBytes > maximumBytes && entries.size() > 1 && iterator.hasNext()) {
+      final var eldest = iterator.next().getValue();
+      iterator.remove();
+      totalBytes -= eldest.size();
+      delete(eldest.file());
+    }
+  }
+
+  private void remove(String key) {
+    final var entry = entries.remove(key);
+    if (entry != null) {
+      totalBytes -= entry.size();
+      delete(entry.file());
+    }
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Could not delete picture variant {}", file, e);
+    }
+  }
+
+  private static long lastModified(Path file) {
+    try {
+      return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+    } catch (IOException e) {
+      return 0L;
+    }
+  }
+
+  private static String key(String hash, int width) {
+    return hash + "-" + width;
+  }
+
+  private record Entry(Path file, long size) {
+
+  }
+}
@@ -0,0 +1,179 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Getter;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureFiles;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.PictureStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Provides downscaled variants of the stored pictures for a fixed set of widths. Variants are
+ * generated in the background right after an upload and on demand when missing, and kept in the
+ * {@link PictureVariantCache}. Concurrent requests for the same missing variant share a single
+ * generation.
+ */
+@Service
+public class PictureVariantService {
+
+  private static final Logger log = LoggerFactory.getLogger(PictureVariantService.class);
+
+  private final PictureStore pictureStore;
+  private final PictureVariantCache cache;
+  @Getter
+  private final List<Integer> widths;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, CompletableFuture<Optional<Path>>> generating =
+      new ConcurrentHashMap<>();
+
+  public PictureVariantService(PictureStore pictureStore, PictureVariantCache cache,
+      @Value("${customer.picture.variants.widths:64,128,256}") List<Integer> widths,
+      @Value("${customer.picture.variants.threads:2}") int threads,
+      @Value("${customer.picture.variants.queue-capacity:256}") int queueCapacity) {
+    this.pictureStore = pictureStore;
+    this.cache = cache;
+    this.widths = List.copyOf(widths);
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), new VariantThreadFactory(),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  public boolean isSupported(int width) {
+    return widths.contains(width);
+  }
+
+  /**
+   * Opens the variant of the picture for the given width, generating it when missing. The caller
+   * must close it.
+   *
+   * @return the opened variant, or an empty optional when the original picture is not stored.
+   */
+  public Optional<PictureVariant> openVariant(String hash, int width) throws IOException {
+    if (!isSupported(width)) {
+      throw new IllegalArgumentException("Unsupported picture width " + width);
+    }
+    if (!PictureFiles.isValidHash(hash)) {
+      return Optional.empty();
+    }
+    final var cached = cache.open(hash, width);
+    if (cached.isPresent()) {
+      return cached;
+    }
+    if (generate(hash, width).isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(cache.open(hash, width).orElseThrow(() -> new IOException(
+        "The " + width + "px variant of picture " + hash + " was evicted before being read")));
+  }
+
+  /**
+   * Queues the generation of every variant of the picture. When the queue is full the variants
+   * are generated on their first request instead.
+   */
+  public void generateAsync(String hash) {
+    if (!PictureFiles.isValidHash(hash)) {
+      return;
+    }
+    for (final var width : widths) {
+      try {
+        executor.execute(() -> {
+          try {
+            if (cache.get(hash, width).isEmpty()) {
+              generate(hash, width);
+            }
+          } catch (IOException | RuntimeException e) {
+            log.warn("Could not generate the {}px variant of picture {}", width, hash, e);
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        log.debug("Variant queue full, the {}px variant of {} will be generated on demand", width,
+            hash);
+      }
+    }
+  }
+
+  /**
+   * Deletes the variants of a picture removed from the picture store. Variants are keyed by content
+   * hash, so they never go stale while the picture exists, and other customers may share it.
+   */
+  public void invalidate(String hash) {
+    if (PictureFiles.isValidHash(hash)) {
+      cache.invalidate(hash);
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  private Optional<Path> generate(String hash, int width) throws IOException {
+    final var key = hash + "-" + width;
+    final var future = new CompletableFuture<Optional<Path>>();
+    final var inFlight = generating.putIfAbsent(key, future);
+    if (inFlight != null) {
+      return await(inFlight);
+    }
+    try {
+      final var content = pictureStore.open(hash);
+      Optional<Path> variant = Optional.empty();
+      if (content.isPresent()) {
+        try (var input = content.get()) {
+          variant = Optional.of(
+              cache.put(hash, width, target -> PictureResizer.resize(input, width, target)));
+        }
+      }
+      future.complete(variant);
+      return variant;
+    } catch (IOException | RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      generating.remove(key, future);
+    }
+  }
+
+  private static Optional<Path> await(CompletableFuture<Optional<Path>> future)
+      throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new UncheckedIOException(new IOException(e.getCause()));
+    }
+  }
+
+  private static class VariantThreadFactory implements ThreadFactory {
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      final var thread = new Thread(runnable, "picture-variants-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
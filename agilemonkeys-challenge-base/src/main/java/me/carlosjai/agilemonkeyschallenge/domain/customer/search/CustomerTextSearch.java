@@ -0,0 +1,83 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.search;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.StringPath;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import lombok.Getter;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.QCustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.search.index.CustomerIndex;
+import me.carlosjai.agilemonkeyschallenge.domain.util.DatabaseProduct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Free-text search over the customer first name, last name and email.
+ *
+ * <p>Terms are matched case insensitively anywhere in the fields with
+ * {@code lower(field) LIKE '%term%'}. On PostgreSQL these conditions are served by the
+ * {@code pg_trgm} GIN indexes on {@code lower(field)} and the results can be ranked by
+ * {@code word_similarity}; other databases scan the table and keep the default order.</p>
+ *
+ * <p>When the in-process {@link CustomerIndex} is enabled and ready, plain searches (without
+ * other filters) can be resolved by the index with {@link #rankedIds(String)}, so the database
+ * only receives the matching ids. Filtered searches always use {@link #matching(String)}, keeping
+ * their exact matching and unbounded results.</p>
+ */
+@Component
+public class CustomerTextSearch {
+
+  private static final QCustomerEntity CUSTOMER = QCustomerEntity.customerEntity;
+  private final DatabaseProduct databaseProduct;
+  private final Optional<CustomerIndex> customerIndex;
+  @Getter
+  private final int maxHits;
+
+  public CustomerTextSearch(DatabaseProduct databaseProduct, Optional<CustomerIndex> customerIndex,
+      @Value("${customer.search.index.max-hits:10000}") int maxHits) {
+    this.databaseProduct = databaseProduct;
+    this.customerIndex = customerIndex;
+    this.maxHits = maxHits;
+  }
+
+  /**
+   * Returns the condition matching the customers containing the term in any searched field.
+   */
+  public Predicate matching(String term) {
+    return CUSTOMER.firstName.containsIgnoreCase(term)
+        .or(CUSTOMER.lastName.containsIgnoreCase(term))
+        .or(CUSTOMER.email.containsIgnoreCase(term));
+  }
+
+  /**
+   * Returns the ordering placing the best matches of the term first, empty when the database cannot
+   * rank them.
+   */
+  public Optional<OrderSpecifier<Double>> relevance(String term) {
+    if (!databaseProduct.isPostgres()) {
+      return Optional.empty();
+    }
+    final var lowerTerm = term.toLowerCase(Locale.ROOT);
+    return Optional.of(wordSimilarity(lowerTerm, CUSTOMER.lastName)
+        .add(wordSimilarity(lowerTerm, CUSTOMER.firstName))
+        .add(wordSimilarity(lowerTerm, CUSTOMER.email))
+        .desc());
+  }
+
+  /**
+   * Returns the ids of the customers matching the term, best matches first and up to
+   * {@code maxHits}, empty when the search index is disabled or not ready.
+   */
+  public Optional<List<Long>> rankedIds(String term) {
+    return customerIndex.filter(CustomerIndex::isReady).map(index -> index.search(term, maxHits));
+  }
+
+  private static NumberExpression<Double> wordSimilarity(String term, StringPath field) {
+    return Expressions.numberTemplate(Double.class, "function('word_similarity', {0}, lower({1}))",
+        term, field);
+  }
+}
@@ -0,0 +1,430 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.search.index;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerWatermark;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository.CustomerRepository;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexWriterConfig.OpenMode;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause.Occur;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-process inverted index of the customer names, email and phone number, for deployments where
+ * the trigram extension cannot be installed ({@code customer.search.index.enabled=true}).
+ *
+ * <p>The index lives in a memory-mapped directory. Each full synchronization records in the commit
+ * the {@link CustomerWatermark} of the table it read. At startup an index whose watermark still
+ * matches the table is reused; otherwise the customers modified since its watermark are reindexed,
+ * and the index is rebuilt when it still doesn't hold as many customers as the table, as deleted
+ * customers leave nothing to reindex. Until it is ready searches fall back to the database.</p>
+ *
+ * <p>Each committed customer change is applied by reloading the customer. When applying one fails
+ * the index stops serving searches and catches up from its watermark on the next change, so it
+ * always converges to the table contents.</p>
+ *
+ * <p>Every term of the search must match a field exactly, as a prefix or, for terms of four or more
+ * characters, with one or two typos. Exact matches rank first.</p>
+ */
+@Component
+@ConditionalOnProperty(prefix = "customer.search.index", name = "enabled", havingValue = "true")
+public class CustomerIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(CustomerIndex.class);
+  private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final String ID = "id";
+  private static final String PHONE = "phone";
+  private static final List<String> TEXT_FIELDS = List.of("firstName", "lastName", "email");
+  private static final String WATERMARK_COUNT = "customers";
+  private static final String WATERMARK_LAST_MODIFIED = "lastModified";
+  /**
+   * Modification dates are set before the transaction commits, so a change committed after a
+   * watermark was read may carry an earlier date. Catching up re-reads this far back.
+   */
+  private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(5);
+
+  private final CustomerRepository repository;
+  private final int batchSize;
+  private final MMapDirectory directory;
+  private final IndexWriter writer;
+  private final SearcherManager searcherManager;
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private volatile boolean ready;
+  private volatile boolean stale;
+
+  public CustomerIndex(CustomerRepository repository,
+      @Value("${customer.search.index.directory:${java.io.tmpdir}/customer-index}") Path path,
+      @Value("${customer.search.index.batch-size:1000}") int batchSize) throws IOException {
+    this.repository = repository;
+    this.batchSize = batchSize;
+    this.directory = new MMapDirectory(path);
+    this.writer = new IndexWriter(directory,
+        new IndexWriterConfig(new StandardAnalyzer()).setOpenMode(OpenMode.CREATE_OR_APPEND));
+    this.searcherManager = new SearcherManager(writer, null);
+  }
+
+  public boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * Reuses the index left by a previous run when its watermark matches the table, otherwise
+   * catches up with the changes made since.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() throws IOException {
+    final var watermark = repository.findWatermark();
+    final var indexed = indexedWatermark();
+    if (indexed.isEmpty()) {
+      log.info("Building the customer index ({} customers)", watermark.count());
+      rebuild();
+    } else if (sameWatermark(indexed.get(), watermark) && numDocs() == watermark.count()) {
+      log.info("Reusing the customer index with {} customers", watermark.count());
+    } else {
+      log.info("Catching up the customer index ({} documents, {} customers)", numDocs(),
+          watermark.count());
+      catchUp(indexed.get());
+    }
+    ready = true;
+  }
+
+  /**
+   * Replaces the index contents with the current customers.
+   */
+  public void rebuild() throws IOException {
+    final var watermark = repository.findWatermark();
+    writer.deleteAll();
+    long afterSk = 0;
+    List<CustomerSummary> batch;
+    do {
+      writeLock.lock();
+      try {
+        // reading and writing under the lock keeps concurrent changes from being overwritten
+        batch = repository.findSummaryBatch(afterSk, batchSize);
+        for (final var customer : batch) {
+          writer.updateDocument(idTerm(customer.getSk()), toDocument(customer));
+        }
+      } finally {
+        writeLock.unlock();
+      }
+      if (!batch.isEmpty()) {
+        afterSk = batch.get(batch.size() - 1).getSk();
+      }
+    } while (batch.size() == batchSize);
+    commit(watermark);
+  }
+
+  /**
+   * Reindexes the customers modified since the watermark of the index and records the current
+   * one, rebuilding the index when it then holds a different number of customers than the table.
+   */
+  void catchUp(CustomerWatermark indexed) throws IOException {
+    if (indexed.lastModifiedDate() == null) {
+      rebuild();
+      return;
+    }
+    final var watermark = repository.findWatermark();
+    final var since = new Date(indexed.lastModifiedDate().getTime()
+        - CATCH_UP_OVERLAP.toMillis());
+    long afterSk = 0;
+    List<CustomerSummary> batch;
+    do {
+      writeLock.lock();
+      try {
+        batch = repository.findSummaryBatchModifiedSince(since, afterSk, batchSize);
+        for (final var customer : batch) {
+          writer.updateDocument(idTerm(customer.getSk()), toDocument(customer));
+        }
+      } finally {
+        writeLock.unlock();
+      }
+      if (!batch.isEmpty()) {
+        afterSk = batch.get(batch.size() - 1).getSk();
+      }
+    } while (batch.size() == batchSize);
+    searcherManager.maybeRefreshBlocking();
+    if (numDocs() != watermark.count()) {
+      log.info("Rebuilding the customer index ({} documents, {} customers)", numDocs(),
+          watermark.count());
+      rebuild();
+    } else {
+      commit(watermark);
+    }
+  }
+
+  /**
+   * Returns the ids of the customers matching every term of the text, best matches first.
+   */
+  public List<Long> search(String text, int maxHits) {
+    final var query = toQuery(text);
+    if (query == null) {
+      return List.of();
+    }
+    try {
+      final var searcher = searcherManager.acquire();
+      try {
+        final var topDocs = searcher.search(query, maxHits);
+        final var storedFields = searcher.storedFields();
+        final List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+        for (final var scoreDoc : topDocs.scoreDocs) {
+          ids.add(Long.valueOf(storedFields.document(scoreDoc.doc).get(ID)));
+        }
+        return ids;
+      } finally {
+        searcherManager.release(searcher);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCustomerChanged(CustomerChangedEvent event) {
+    writeLock.lock();
+    try {
+      if (catchUpIfStale()) {
+        return;
+      }
+      final var customer = repository.findSummariesByIds(List.of(event.getCustomerId()));
+      if (customer.isEmpty()) {
+        writer.deleteDocuments(idTerm(event.getCustomerId()));
+      } else {
+        writer.updateDocument(idTerm(event.getCustomerId()), toDocument(customer.get(0)));
+      }
+      writer.commit();
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not index the changes of customer {}", event.getCustomerId(), e);
+      markStale();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCustomersCreated(CustomersCreatedEvent event) {
+    writeLock.lock();
+    try {
+      if (catchUpIfStale()) {
+        return;
+      }
+      for (final var customer : repository.findSummariesByIds(event.getCustomerIds())) {
+        writer.updateDocument(idTerm(customer.getSk()), toDocument(customer));
+      }
+      writer.commit();
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not index {} created customers", event.getCustomerIds().size(), e);
+      markStale();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+  public void onCustomersChanged(CustomersChangedEvent event) {
+    writeLock.lock();
+    try {
+      if (catchUpIfStale()) {
+        return;
+      }
+      final var remaining = new HashSet<>(event.getCustomerIds());
+      for (final var customer : repository.findSummariesByIds(event.getCustomerIds())) {
+        writer.updateDocument(idTerm(customer.getSk()), toDocument(customer));
+        remaining.remove(customer.getSk());
+      }
+      for (final var customerId : remaining) {
+        writer.deleteDocuments(idTerm(customerId));
+      }
+      writer.commit();
+      searcherManager.maybeRefreshBlocking();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not index the changes of {} customers", event.getCustomerIds().size(), e);
+      markStale();
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  @PreDestroy
+  public void close() throws IOException {
+    searcherManager.close();
+    writer.close();
+    directory.close();
+  }
+
+  /**
+   * Catches up from the watermark of the index when a previous change could not be applied. The
+   * change being handled is modified after that watermark, so it is reindexed too.
+   *
+   * @return whether the index caught up
+   */
+  private boolean catchUpIfStale() throws IOException {
+    if (!stale) {
+      return false;
+    }
+    final var indexed = indexedWatermark();
+    if (indexed.isPresent()) {
+      catchUp(indexed.get());
+    } else {
+      rebuild();
+    }
+    stale = false;
+    ready = true;
+    log.info("The customer index caught up with the customers table");
+    return true;
+  }
+
+  /**
+   * Stops serving searches from an index that missed a change, until it catches up.
+   */
+  private void markStale() {
+    stale = true;
+    ready = false;
+  }
+
+  private void commit(CustomerWatermark watermark) throws IOException {
+    writer.setLiveCommitData(Map.of(
+        WATERMARK_COUNT, String.valueOf(watermark.count()),
+        WATERMARK_LAST_MODIFIED, watermark.lastModifiedDate() == null ? ""
+            : String.valueOf(watermark.lastModifiedDate().getTime())).entrySet());
+    writer.commit();
+    searcherManager.maybeRefreshBlocking();
+  }
+
+  /**
+   * Returns the watermark recorded by the last full synchronization of the index, if any.
+   */
+  Optional<CustomerWatermark> indexedWatermark() {
+    final var commitData = writer.getLiveCommitData();
+    if (commitData == null) {
+      return Optional.empty();
+    }
+    final Map<String, String> data = new HashMap<>();
+    commitData.forEach(entry -> data.put(entry.getKey(), entry.getValue()));
+    if (!data.containsKey(WATERMARK_COUNT) || !data.containsKey(WATERMARK_LAST_MODIFIED)) {
+      return Optional.empty();
+    }
+    final var lastModified = data.get(WATERMARK_LAST_MODIFIED);
+    return Optional.of(new CustomerWatermark(Long.valueOf(data.get(WATERMARK_COUNT)),
+        lastModified.isEmpty() ? null : new Date(Long.parseLong(lastModified))));
+  }
+
+  /**
+   * Compares by epoch millis, as the database may return a {@link java.sql.Timestamp}.
+   */
+  private static boolean sameWatermark(CustomerWatermark indexed, CustomerWatermark current) {
+    return Objects.equals(indexed.count(), current.count())
+        && Objects.equals(time(indexed.lastModifiedDate()), time(current.lastModifiedDate()));
+  }
+
+  private static Long time(Date date) {
+    return date == null ? null : date.getTime();
+  }
+
+  int numDocs() throws IOException {
+    final var searcher = searcherManager.acquire();
+    try {
+      return searcher.getIndexReader().numDocs();
+    } finally {
+      searcherManager.release(searcher);
+    }
+  }
+
+  static Query toQuery(String text) {
+    final var terms = tokenize(text);
+    if (terms.isEmpty()) {
+      return null;
+    }
+    final var query = new BooleanQuery.Builder();
+    for (final var term : terms) {
+      final var termQuery = new BooleanQuery.Builder();
+      for (final var field : TEXT_FIELDS) {
+        termQuery.add(new BoostQuery(new TermQuery(new Term(field, term)), 3f), Occur.SHOULD);
+        termQuery.add(new BoostQuery(new PrefixQuery(new Term(field, term)), 2f), Occur.SHOULD);
+        if (term.length() >= 4) {
+          termQuery.add(new FuzzyQuery(new Term(field, term), term.length() >= 8 ? 2 : 1, 1),
+              Occur.SHOULD);
+        }
+      }
+      if (term.chars().allMatch(Character::isDigit)) {
+        termQuery.add(new PrefixQuery(new Term(PHONE, term)), Occur.SHOULD);
+      }
+      query.add(termQuery.build(), Occur.MUST);
+    }
+    return query.build();
+  }
+
+  private static Document toDocument(CustomerSummary customer) {
+    final var document = new Document();
+    document.add(new StringField(ID, String.valueOf(customer.getSk()), Field.Store.YES));
+    document.add(new TextField("firstName", normalize(customer.getFirstName()), Field.Store.NO));
+    document.add(new TextField("lastName", normalize(customer.getLastName()), Field.Store.NO));
+    document.add(new TextField("email", normalize(customer.getEmail()), Field.Store.NO));
+    if (customer.getPhoneNumber() != null) {
+      document.add(new StringField(PHONE, customer.getPhoneNumber().replaceAll("\\D", ""),
+          Field.Store.NO));
+    }
+    return document;
+  }
+
+  private static Term idTerm(Long customerId) {
+    return new Term(ID, String.valueOf(customerId));
+  }
+
+  /**
+   * Lowercases the text and splits it on anything but letters and digits, so emails are indexed
+   * and searched by their parts.
+   */
+  private static String normalize(String text) {
+    return text == null ? ""
+        : SEPARATORS.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+  }
+
+  private static List<String> tokenize(String text) {
+    final var normalized = normalize(text);
+    return normalized.isEmpty() ? List.of() : Arrays.asList(normalized.split(" "));
+  }
+}
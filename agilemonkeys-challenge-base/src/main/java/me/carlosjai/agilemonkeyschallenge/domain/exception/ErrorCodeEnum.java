@@ -7,16 +7,34 @@ public enum ErrorCodeEnum {
   AUTH_SIGNUP_WRONG_PASSWORD(
       "Password must have at least one uppercase letter, one lowercase letter, one number, one special character, and be at least 8 characters long"),
   CUSTOMER_PICTURE_NOT_VALID("There are not supported files: "),
+  CUSTOMER_PICTURE_TOO_LARGE("The picture exceeds the maximum allowed size in bytes: "),
   CUSTOMER_PICTURE_NOT_AVAILABLE(
       "The picture of the requested user is not available. Please upload it first."),
+  CUSTOMER_PICTURE_WIDTH_NOT_SUPPORTED("The requested picture width is not supported: "),
+  CUSTOMER_PICTURE_RANGE_NOT_SATISFIABLE("The requested range of the picture is not satisfiable."),
   CUSTOMER_NOT_FOUND("Customer not found with the given id."),
   CUSTOMER_EMAIL_ALREADY_EXISTS("The specified email is already being used."),
   CUSTOMER_ERROR_UPLOADING_PICTURE("Error uploading the picture: "),
   CUSTOMER_ERROR_DOWNLOADING_PICTURE("Error uploading the picture: "),
+  CUSTOMER_IMPORT_FORMAT_NOT_SUPPORTED(
+      "The import content type is not supported, expected text/csv or application/x-ndjson: "),
+  CUSTOMER_IMPORT_NOT_VALID("The imported customers could not be read: "),
+  CUSTOMER_EXPORT_FORMAT_NOT_SUPPORTED(
+      "The export content type is not supported, expected text/csv or application/x-ndjson: "),
+  CUSTOMER_ERROR_EXPORTING("Error exporting the customers: "),
+  CUSTOMER_BATCH_TOO_LARGE("The number of requested ids exceeds the maximum of: "),
+  CUSTOMER_BATCH_TOO_MANY_OPERATIONS("The number of batch operations exceeds the maximum of: "),
+  CUSTOMER_PATCH_NOT_VALID("The customer merge patch is not valid: "),
   USER_CREATE_USERNAME_ALREADY_EXISTS("The specified username is already being used."),
   USER_NOT_FOUND("User not found with the given id."),
   INVALID_ROLES("Invalid roles found: "),
+  INVALID_COUNT_MODE("The count mode is not valid, expected exact, estimated or none: "),
+  INVALID_CURSOR("The pagination cursor is not valid: "),
+  VERSION_MISMATCH(
+      "The resource was modified since the given version (If-Match). Fetch it again and retry."),
   JWT_NOT_VALID("The JWT is not valid or is expired. Please login again."),
+  PASSWORD_HASHING_BUSY(
+      "Too many authentication requests are being processed. Please try again later."),
   OTHER("OTHER"),
   ACCESS_DENIED(
       "Access denied: You do not have the necessary permissions to view or interact with this resource."),
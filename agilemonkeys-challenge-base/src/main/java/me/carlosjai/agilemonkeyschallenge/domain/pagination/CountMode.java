@@ -0,0 +1,35 @@
+package me.carlosjai.agilemonkeyschallenge.domain.pagination;
+
+import java.util.Locale;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * How the total number of results of a paginated search is computed.
+ */
+public enum CountMode {
+  /**
+   * Runs a {@code count(*)} with the search predicate. This is the default.
+   */
+  EXACT,
+  /**
+   * Uses the planner statistics of the table for unfiltered searches and a short-lived cache of
+   * exact counts for filtered ones. Totals may be slightly off.
+   */
+  ESTIMATED,
+  /**
+   * Skips the count, only tells whether there is a following page.
+   */
+  NONE;
+
+  /**
+   * Parses a count mode ignoring case, blank values select {@link #EXACT}.
+   *
+   * @throws IllegalArgumentException when the value is not a count mode.
+   */
+  public static CountMode from(String value) {
+    if (StringUtils.isBlank(value)) {
+      return EXACT;
+    }
+    return valueOf(value.trim().toUpperCase(Locale.ROOT));
+  }
+}
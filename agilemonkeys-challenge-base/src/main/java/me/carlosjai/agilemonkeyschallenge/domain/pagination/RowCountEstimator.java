@@ -0,0 +1,95 @@
+package me.carlosjai.agilemonkeyschallenge.domain.pagination;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.Predicate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.LongSupplier;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.BoundedCache;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.CacheStats;
+import me.carlosjai.agilemonkeyschallenge.domain.util.DatabaseProduct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Computes the totals of the {@link CountMode#ESTIMATED} searches.
+ *
+ * <p>Unfiltered searches use the row estimate kept by PostgreSQL in {@code pg_class.reltuples},
+ * which is refreshed by {@code ANALYZE} and autovacuum and costs nothing to read. Filtered searches,
+ * and tables never analyzed, run the exact count once and reuse it for a short time per
+ * predicate.</p>
+ */
+@Component
+public class RowCountEstimator implements MeterBinder {
+
+  private static final Logger log = LoggerFactory.getLogger(RowCountEstimator.class);
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DatabaseProduct databaseProduct;
+  private final BoundedCache<String, Long> counts;
+
+  public RowCountEstimator(JdbcTemplate jdbcTemplate, DatabaseProduct databaseProduct,
+      @Value("${pagination.count-cache.maximum-size:1000}") int maximumSize,
+      @Value("${pagination.count-cache.time-to-live:30s}") Duration timeToLive) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.databaseProduct = databaseProduct;
+    this.counts = new BoundedCache<>("pagination.counts", maximumSize, timeToLive);
+  }
+
+  /**
+   * Returns the estimated number of rows of the table matching the predicate.
+   *
+   * @param table      table name, quoted if needed, as written in SQL
+   * @param predicate  search predicate, {@code null} or empty for the whole table
+   * @param exactCount exact count, used when no estimate is available
+   */
+  public long estimate(String table, Predicate predicate, LongSupplier exactCount) {
+    if (isUnfiltered(predicate)) {
+      final var tableEstimate = estimateTable(table);
+      if (tableEstimate.isPresent()) {
+        return tableEstimate.getAsLong();
+      }
+    }
+    final var key = table + '|' + Objects.toString(predicate, "");
+    return counts.get(key, ignored -> exactCount.getAsLong());
+  }
+
+  /**
+   * Returns the planner estimate of the number of rows of the table, empty when the database is not
+   * PostgreSQL or the table has never been analyzed.
+   */
+  public OptionalLong estimateTable(String table) {
+    if (!databaseProduct.isPostgres()) {
+      return OptionalLong.empty();
+    }
+    try {
+      final var reltuples = jdbcTemplate.queryForObject(
+          "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)", Double.class, table);
+      return reltuples == null || reltuples < 0 ? OptionalLong.empty()
+          : OptionalLong.of(Math.round(reltuples));
+    } catch (DataAccessException e) {
+      log.warn("Unable to read the row estimate of {}: {}", table, e.getMessage());
+      return OptionalLong.empty();
+    }
+  }
+
+  public CacheStats stats() {
+    return counts.stats();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    counts.bindTo(registry);
+  }
+
+  private static boolean isUnfiltered(Predicate predicate) {
+    return predicate == null || predicate instanceof BooleanBuilder builder && !builder.hasValue();
+  }
+}
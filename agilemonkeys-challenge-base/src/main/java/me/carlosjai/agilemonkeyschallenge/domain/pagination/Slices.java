@@ -0,0 +1,26 @@
+package me.carlosjai.agilemonkeyschallenge.domain.pagination;
+
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+/**
+ * Builds count-free {@link Slice} pages from queries fetching one row more than the page size.
+ */
+public final class Slices {
+
+  private Slices() {
+  }
+
+  /**
+   * @param rows     rows fetched with {@code offset = pageable.getOffset()} and
+   *                 {@code limit = pageable.getPageSize() + 1}
+   * @param pageable requested page
+   */
+  public static <T> Slice<T> of(List<T> rows, Pageable pageable) {
+    final var hasNext = rows.size() > pageable.getPageSize();
+    final var content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+    return new SliceImpl<>(content, pageable, hasNext);
+  }
+}
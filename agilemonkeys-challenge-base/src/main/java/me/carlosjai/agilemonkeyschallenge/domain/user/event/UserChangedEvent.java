@@ -0,0 +1,18 @@
+package me.carlosjai.agilemonkeyschallenge.domain.user.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Published by {@code UserService} whenever a user is created, updated (including role changes) or
+ * deleted, so components holding user derived state (caches, token principals) can invalidate it.
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class UserChangedEvent {
+
+  private final Long userId;
+  private final String username;
+}
@@ -9,7 +9,9 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.io.Serial;
+import java.util.Date;
 import java.util.HashSet;
 import java.util.Set;
 import lombok.AllArgsConstructor;
@@ -18,6 +20,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import me.carlosjai.agilemonkeyschallenge.domain.auditable.Auditable;
+import me.carlosjai.agilemonkeyschallenge.domain.constants.Constants;
 import org.hibernate.annotations.GenericGenerator;
 import org.hibernate.annotations.Parameter;
 
@@ -36,7 +39,8 @@ public class UserEntity extends Auditable<String> {
   @GeneratedValue(generator = "seqUser")
   @GenericGenerator(name = "seqUser", parameters = {
       @Parameter(name = "sequence_name", value = "user_seq"),
-      @Parameter(name = "increment_size", value = "1")
+      @Parameter(name = "increment_size", value = Constants.ID_ALLOCATION_SIZE),
+      @Parameter(name = "optimizer", value = Constants.ID_OPTIMIZER)
   })
   private Long sk;
 
@@ -47,9 +51,23 @@ public class UserEntity extends Auditable<String> {
   @ManyToMany(fetch = FetchType.EAGER)
   @JoinTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_sk"), inverseJoinColumns = @JoinColumn(name = "role_sk"))
   private Set<RoleEntity> roleEntities = new HashSet<>();
+  /**
+   * Optimistic locking version, incremented by every update. Updates of a stale copy fail instead
+   * of silently overwriting a concurrent change.
+   */
+  @Version
+  private Long version;
 
   public void addRole(RoleEntity roleEntity) {
     roleEntities.add(roleEntity);
   }
 
+  /**
+   * Role changes only touch the join table and do not dirty the user columns, so the modification
+   * date is bumped explicitly to get them audited.
+   */
+  public void markRolesChanged() {
+    lastModifiedDate = new Date();
+  }
+
 }
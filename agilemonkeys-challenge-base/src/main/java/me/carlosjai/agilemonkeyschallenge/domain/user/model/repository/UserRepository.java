@@ -2,13 +2,20 @@ package me.carlosjai.agilemonkeyschallenge.domain.user.model.repository;
 
 import java.util.Optional;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.querydsl.QuerydslPredicateExecutor;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends CrudRepository<UserEntity, Long>,
-    QuerydslPredicateExecutor<UserEntity> {
+    QuerydslPredicateExecutor<UserEntity>, UserRepositoryCustom {
 
-  Optional<UserEntity> findByUsernameIgnoreCase(String username);
+  /**
+   * Compares with {@code lower()} rather than the derived {@code upper()} so the lookup is served
+   * by the {@code user_username_lower_idx} index.
+   */
+  @Query("select u from UserEntity u where lower(u.username) = lower(:username)")
+  Optional<UserEntity> findByUsernameIgnoreCase(@Param("username") String username);
 }
@@ -0,0 +1,36 @@
+package me.carlosjai.agilemonkeyschallenge.domain.user.model.repository;
+
+import com.querydsl.core.types.Predicate;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Paginated user queries letting the caller decide how the results are counted, and lightweight
+ * lookups that do not load the user.
+ */
+public interface UserRepositoryCustom {
+
+  /**
+   * Returns a page of users, taking the total number of results from the given supplier instead of
+   * a {@code count(*)} query. The supplier is not called when the total can be deduced from the
+   * page.
+   */
+  Page<UserEntity> findPage(Predicate predicate, Pageable pageable, LongSupplier total);
+
+  /**
+   * Returns a page of users without counting the results, fetching one extra row to know whether
+   * there is a following page.
+   */
+  Slice<UserEntity> findSlice(Predicate predicate, Pageable pageable);
+
+  /**
+   * Returns the id and version of the user, reading only those two columns and skipping the eager
+   * roles join.
+   */
+  Optional<EntityVersion> findVersion(Long userId);
+}
@@ -0,0 +1,61 @@
+package me.carlosjai.agilemonkeyschallenge.domain.user.model.repository;
+
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.Slices;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.QUserEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.support.Querydsl;
+import org.springframework.data.support.PageableExecutionUtils;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+  private static final QUserEntity USER = QUserEntity.userEntity;
+  private final JPAQueryFactory queryFactory;
+  private final Querydsl querydsl;
+
+  public UserRepositoryCustomImpl(final EntityManager entityManager) {
+    this.queryFactory = new JPAQueryFactory(entityManager);
+    this.querydsl = new Querydsl(entityManager,
+        new PathBuilder<>(UserEntity.class, USER.getMetadata()));
+  }
+
+  @Override
+  public Page<UserEntity> findPage(final Predicate predicate, final Pageable pageable,
+      final LongSupplier total) {
+    final var content = querydsl.applyPagination(pageable, selectUsers(predicate)).fetch();
+    return PageableExecutionUtils.getPage(content, pageable, total);
+  }
+
+  @Override
+  public Slice<UserEntity> findSlice(final Predicate predicate, final Pageable pageable) {
+    final var query = querydsl.applySorting(pageable.getSort(), selectUsers(predicate))
+        .offset(pageable.getOffset())
+        .limit(pageable.getPageSize() + 1L);
+    return Slices.of(query.fetch(), pageable);
+  }
+
+  @Override
+  public Optional<EntityVersion> findVersion(final Long userId) {
+    return Optional.ofNullable(queryFactory.select(Projections.constructor(EntityVersion.class,
+            USER.sk,
+            USER.version))
+        .from(USER)
+        .where(USER.sk.eq(userId))
+        .fetchOne());
+  }
+
+  private JPAQuery<UserEntity> selectUsers(final Predicate predicate) {
+    return queryFactory.selectFrom(USER).where(predicate);
+  }
+}
@@ -3,10 +3,16 @@ package me.carlosjai.agilemonkeyschallenge.domain.user.model.service;
 import com.querydsl.core.types.Predicate;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
+import me.carlosjai.agilemonkeyschallenge.domain.auditable.EntityVersion;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.RowCountEstimator;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.entity.UserEntity;
 import me.carlosjai.agilemonkeyschallenge.domain.user.model.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,29 +21,53 @@ import org.springframework.transaction.annotation.Transactional;
 @AllArgsConstructor
 public class UserService {
 
-  private UserRepository repository;
+  private static final String TABLE = "\"user\"";
 
+  private UserRepository repository;
+  private ApplicationEventPublisher eventPublisher;
+  private RowCountEstimator rowCountEstimator;
 
   public Page<UserEntity> findAllBy(Predicate predicate, Pageable pageable) {
     return repository.findAll(predicate, pageable);
   }
 
+  /**
+   * Returns a page of users, computing its totals as requested by the count mode.
+   * {@link CountMode#NONE} returns a plain {@link Slice}, the other modes a {@link Page}.
+   */
+  public Slice<UserEntity> findAllBy(Predicate predicate, Pageable pageable, CountMode countMode) {
+    return switch (countMode) {
+      case EXACT -> repository.findAll(predicate, pageable);
+      case ESTIMATED -> repository.findPage(predicate, pageable,
+          () -> rowCountEstimator.estimate(TABLE, predicate, () -> repository.count(predicate)));
+      case NONE -> repository.findSlice(predicate, pageable);
+    };
+  }
+
   public Optional<UserEntity> findByUsername(String username) {
     return repository.findByUsernameIgnoreCase(username);
   }
 
   @Transactional(readOnly = false)
   public UserEntity save(UserEntity newEntity) {
-    return repository.save(newEntity);
+    final var savedEntity = repository.save(newEntity);
+    eventPublisher.publishEvent(
+        new UserChangedEvent(savedEntity.getSk(), savedEntity.getUsername()));
+    return savedEntity;
   }
 
   public Optional<UserEntity> getUserById(Long userId) {
     return repository.findById(userId);
   }
 
+  public Optional<EntityVersion> getVersion(Long userId) {
+    return repository.findVersion(userId);
+  }
+
   @Transactional(readOnly = false)
   public void delete(UserEntity userEntity) {
     repository.delete(userEntity);
+    eventPublisher.publishEvent(new UserChangedEvent(userEntity.getSk(), userEntity.getUsername()));
   }
 
 }
@@ -0,0 +1,40 @@
+package me.carlosjai.agilemonkeyschallenge.domain.util;
+
+import java.sql.DatabaseMetaData;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells whether the application runs on PostgreSQL, which enables the features relying on its
+ * extensions and statistics. Other databases (H2 in tests) use portable fallbacks.
+ */
+@Component
+public class DatabaseProduct {
+
+  private static final Logger log = LoggerFactory.getLogger(DatabaseProduct.class);
+
+  private final DataSource dataSource;
+  private volatile Boolean postgres;
+
+  public DatabaseProduct(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  public boolean isPostgres() {
+    if (postgres == null) {
+      try {
+        final String product = JdbcUtils.extractDatabaseMetaData(dataSource,
+            DatabaseMetaData::getDatabaseProductName);
+        postgres = "PostgreSQL".equalsIgnoreCase(product);
+      } catch (MetaDataAccessException e) {
+        log.warn("Unable to detect the database product: {}", e.getMessage());
+        postgres = false;
+      }
+    }
+    return postgres;
+  }
+}
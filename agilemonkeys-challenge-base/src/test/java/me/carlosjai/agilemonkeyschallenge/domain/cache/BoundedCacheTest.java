@@ -0,0 +1,203 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+  private MutableClock clock;
+
+  @BeforeEach
+  void setUp() {
+    clock = new MutableClock(Instant.parse("2024-01-01T00:00:00Z"));
+  }
+
+  @Test
+  void testGet_LoadsOnceAndServesHits() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+    var loads = new AtomicInteger();
+
+    assertEquals("A", cache.get("a", key -> {
+      loads.incrementAndGet();
+      return key.toUpperCase();
+    }));
+    assertEquals("A", cache.get("a", key -> {
+      loads.incrementAndGet();
+      return key.toUpperCase();
+    }));
+
+    assertEquals(1, loads.get());
+    assertEquals(1, cache.stats().getHits());
+    assertEquals(1, cache.stats().getMisses());
+    assertEquals(0.5, cache.stats().hitRate());
+  }
+
+  @Test
+  void testGet_ExpiresAfterTimeToLive() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+    cache.put("a", "A");
+
+    clock.advance(Duration.ofSeconds(59));
+    assertTrue(cache.getIfPresent("a").isPresent());
+
+    clock.advance(Duration.ofSeconds(1));
+    assertFalse(cache.getIfPresent("a").isPresent());
+    assertEquals(1, cache.stats().getEvictions());
+  }
+
+  @Test
+  void testGet_ExpiresAtValueExpiry() {
+    var cache = new BoundedCache<String, Instant>("test", 10, Duration.ofHours(1),
+        value -> value, clock);
+    cache.put("a", clock.instant().plusSeconds(5));
+
+    clock.advance(Duration.ofSeconds(5));
+
+    assertFalse(cache.getIfPresent("a").isPresent());
+  }
+
+  @Test
+  void testPut_EvictsLeastRecentlyUsed() {
+    var cache = new BoundedCache<String, String>("test", 2, Duration.ofMinutes(1), null, clock);
+    cache.put("a", "A");
+    cache.put("b", "B");
+    cache.getIfPresent("a");
+    cache.put("c", "C");
+
+    assertTrue(cache.getIfPresent("a").isPresent());
+    assertFalse(cache.getIfPresent("b").isPresent());
+    assertTrue(cache.getIfPresent("c").isPresent());
+    assertEquals(2, cache.size());
+  }
+
+  @Test
+  void testGet_LoaderExceptionIsNotCached() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+
+    assertThrows(IllegalStateException.class, () -> cache.get("a", key -> {
+      throw new IllegalStateException();
+    }));
+
+    assertEquals("A", cache.get("a", String::toUpperCase));
+    assertEquals(1, cache.stats().getLoadFailures());
+  }
+
+  @Test
+  void testGet_LoaderErrorReleasesTheKey() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+
+    assertThrows(StackOverflowError.class, () -> cache.get("a", key -> {
+      throw new StackOverflowError();
+    }));
+
+    assertEquals("A", cache.get("a", String::toUpperCase));
+    assertEquals(1, cache.stats().getLoadFailures());
+  }
+
+  @Test
+  void testEvict_DiscardsInFlightLoad() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+
+    var value = cache.get("a", key -> {
+      cache.evict(key);
+      return "stale";
+    });
+
+    assertEquals("stale", value);
+    assertFalse(cache.getIfPresent("a").isPresent());
+  }
+
+  @Test
+  void testEvict_CountsInvalidations() {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+    cache.put("a", "A");
+
+    cache.evict("a");
+    cache.evict("b");
+
+    assertFalse(cache.getIfPresent("a").isPresent());
+    assertEquals(1, cache.stats().getInvalidations());
+    assertEquals(0, cache.stats().getEvictions());
+  }
+
+  @Test
+  void testGet_ConcurrentMissesAreCoalesced() throws Exception {
+    var cache = new BoundedCache<String, String>("test", 10, Duration.ofMinutes(1), null, clock);
+    var loads = new AtomicInteger();
+    var release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      var first = executor.submit(() -> cache.get("a", key -> {
+        loads.incrementAndGet();
+        await(release);
+        return "A";
+      }));
+      while (loads.get() == 0) {
+        Thread.onSpinWait();
+      }
+      Future<String> second = executor.submit(() -> cache.get("a", key -> {
+        loads.incrementAndGet();
+        return "B";
+      }));
+      release.countDown();
+
+      assertEquals("A", first.get(5, TimeUnit.SECONDS));
+      assertEquals("A", second.get(5, TimeUnit.SECONDS));
+      assertEquals(1, loads.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class MutableClock extends Clock {
+
+    private Instant now;
+
+    MutableClock(Instant now) {
+      this.now = now;
+    }
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package me.carlosjai.agilemonkeyschallenge.domain.cache.cluster;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import me.carlosjai.agilemonkeyschallenge.domain.cache.cluster.InvalidationMessage.Kind;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.user.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+class ClusterInvalidationBridgeTest {
+
+  private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"),
+      ZoneOffset.UTC);
+
+  private ApplicationEventPublisher writerEvents;
+  private ApplicationEventPublisher readerEvents;
+  private ClusterInvalidationBridge writer;
+  private ClusterInvalidationBridge reader;
+
+  @BeforeEach
+  void setUp() {
+    final var bus = new InMemoryClusterInvalidationBus();
+    writerEvents = mock(ApplicationEventPublisher.class);
+    readerEvents = mock(ApplicationEventPublisher.class);
+    writer = new ClusterInvalidationBridge(bus, writerEvents, CLOCK);
+    reader = new ClusterInvalidationBridge(bus, readerEvents, CLOCK);
+  }
+
+  @Test
+  void testCustomerChange_IsPublishedOnTheOtherNodesOnly() {
+    writer.onCustomerChanged(new CustomerChangedEvent(7L));
+
+    var event = ArgumentCaptor.forClass(Object.class);
+    verify(readerEvents).publishEvent(event.capture());
+    var changed = assertInstanceOf(CustomersChangedEvent.class, event.getValue());
+    assertEquals(List.of(7L), changed.getCustomerIds());
+    verify(writerEvents, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void testCreatedCustomers_AreSentInChunks() {
+    final var ids = LongStream.rangeClosed(1, ClusterInvalidationBridge.MAX_IDS_PER_MESSAGE + 1L)
+        .boxed().toList();
+
+    writer.onCustomersCreated(new CustomersCreatedEvent(ids));
+    writer.onCustomersChanged(new CustomersChangedEvent(List.of()));
+
+    var event = ArgumentCaptor.forClass(Object.class);
+    verify(readerEvents, times(2)).publishEvent(event.capture());
+    assertEquals(ids.subList(0, ClusterInvalidationBridge.MAX_IDS_PER_MESSAGE),
+        ((CustomersCreatedEvent) event.getAllValues().get(0)).getCustomerIds());
+    assertEquals(List.of(ClusterInvalidationBridge.MAX_IDS_PER_MESSAGE + 1L),
+        ((CustomersCreatedEvent) event.getAllValues().get(1)).getCustomerIds());
+  }
+
+  @Test
+  void testUserChange_KeepsTheUsername() {
+    writer.onUserChanged(new UserChangedEvent(3L, "admin@admin.com"));
+
+    var event = ArgumentCaptor.forClass(Object.class);
+    verify(readerEvents).publishEvent(event.capture());
+    var changed = assertInstanceOf(UserChangedEvent.class, event.getValue());
+    assertEquals(3L, changed.getUserId());
+    assertEquals("admin@admin.com", changed.getUsername());
+  }
+
+  @Test
+  void testLatency_IsMeasuredOnReception() {
+    var registry = new SimpleMeterRegistry();
+    reader.bindTo(registry);
+
+    reader.onMessage(new InvalidationMessage("other", CLOCK.millis() - 40, Kind.CUSTOMERS_CHANGED,
+        List.of(1L), null));
+
+    var latency = registry.get("cache.invalidation.latency").functionTimer();
+    assertEquals(1, latency.count());
+    assertEquals(40, latency.totalTime(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  void testMessage_EncodeAndDecode() {
+    var message = new InvalidationMessage("node", 42L, Kind.USER_CHANGED, List.of(3L),
+        "we;ird@example.com");
+
+    assertEquals(message, InvalidationMessage.decode(message.encode()));
+    assertTrue(InvalidationMessage.decode("node;1;CUSTOMERS_CHANGED;;").ids().isEmpty());
+    assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("node;1"));
+    assertThrows(IllegalArgumentException.class,
+        () -> InvalidationMessage.decode("node;1;UNKNOWN;1;"));
+  }
+}
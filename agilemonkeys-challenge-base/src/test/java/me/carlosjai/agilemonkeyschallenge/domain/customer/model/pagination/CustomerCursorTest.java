@@ -0,0 +1,48 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Base64;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import org.junit.jupiter.api.Test;
+
+class CustomerCursorTest {
+
+  @Test
+  void testEncode_RoundTrips() {
+    var cursor = new CustomerCursor("Núñez", "José", "jose+1@example.com", 42L);
+
+    var token = cursor.encode();
+
+    assertTrue(token.matches("[A-Za-z0-9_-]+"));
+    assertEquals(cursor, CustomerCursor.decode(token));
+  }
+
+  @Test
+  void testOf_UsesSortKeyOfSummary() {
+    var summary = new CustomerSummary();
+    summary.setSk(7L);
+    summary.setLastName("Smith");
+    summary.setFirstName("David");
+    summary.setEmail("david@example.com");
+
+    assertEquals(new CustomerCursor("Smith", "David", "david@example.com", 7L),
+        CustomerCursor.of(summary));
+  }
+
+  @Test
+  void testDecode_RejectsMalformedTokens() {
+    var valid = new CustomerCursor("Smith", "David", "david@example.com", 7L).encode();
+    var truncated = valid.substring(0, valid.length() - 4);
+    var bytes = Base64.getUrlDecoder().decode(valid);
+    var trailing = Base64.getUrlEncoder().encodeToString(Arrays.copyOf(bytes, bytes.length + 1));
+
+    assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode("not a cursor"));
+    assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode(truncated));
+    assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode(trailing));
+    assertThrows(IllegalArgumentException.class, () -> CustomerCursor.decode("AA"));
+  }
+}
@@ -3,35 +3,74 @@ package me.carlosjai.agilemonkeyschallenge.domain.customer.model.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.querydsl.core.types.Predicate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerBatchResult;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.batch.CustomerUpdate;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.entity.CustomerEntity;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.pagination.CustomerCursor;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
 import me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository.CustomerRepository;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.update.CustomerFieldChanges;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.CountMode;
+import me.carlosjai.agilemonkeyschallenge.domain.pagination.RowCountEstimator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 public class CustomerServiceTest {
 
   @Mock
   private CustomerRepository repository;
 
+  @Mock
+  private RowCountEstimator rowCountEstimator;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private AuditorAware<String> auditorAware;
+
   @InjectMocks
   private CustomerService customerService;
 
@@ -83,6 +122,144 @@ public class CustomerServiceTest {
     verify(repository, times(1)).findAll(predicate, pageable);
   }
 
+  @Test
+  void testFindSummariesBy_WithResults() {
+    // Arrange
+    Predicate predicate = mock(Predicate.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    CustomerSummary summary = new CustomerSummary();
+    summary.setSk(1L);
+    Page<CustomerSummary> summaryPage = new PageImpl<>(List.of(summary), pageable, 1);
+
+    when(repository.findSummaries(predicate, pageable)).thenReturn(summaryPage);
+
+    // Act
+    Page<CustomerSummary> result = customerService.findSummariesBy(predicate, pageable);
+
+    // Assert
+    assertEquals(1, result.getTotalElements());
+    assertEquals(1L, result.getContent().get(0).getSk());
+    verify(repository, times(1)).findSummaries(predicate, pageable);
+    verify(repository, never()).findAll(predicate, pageable);
+  }
+
+  @Test
+  void testFindSummariesBy_CountModes() {
+    // Arrange
+    Predicate predicate = mock(Predicate.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    Page<CustomerSummary> page = new PageImpl<>(List.of(), pageable, 0);
+    Slice<CustomerSummary> slice = new SliceImpl<>(List.of(), pageable, false);
+    when(repository.findSummaries(predicate, pageable)).thenReturn(page);
+    when(repository.findSummaries(eq(predicate), eq(pageable), any(LongSupplier.class)))
+        .thenReturn(page);
+    when(repository.findSummarySlice(predicate, pageable)).thenReturn(slice);
+
+    // Act & Assert
+    assertEquals(page, customerService.findSummariesBy(predicate, pageable, CountMode.EXACT));
+    assertEquals(page, customerService.findSummariesBy(predicate, pageable, CountMode.ESTIMATED));
+    assertEquals(slice, customerService.findSummariesBy(predicate, pageable, CountMode.NONE));
+    verify(repository, never()).count(predicate);
+  }
+
+  @Test
+  void testFindSummariesBy_EstimatedCountUsesEstimator() {
+    // Arrange
+    Predicate predicate = mock(Predicate.class);
+    Pageable pageable = PageRequest.of(0, 10);
+    when(repository.findSummaries(eq(predicate), eq(pageable), any(LongSupplier.class)))
+        .thenAnswer(invocation -> new PageImpl<>(List.of(), pageable,
+            invocation.getArgument(2, LongSupplier.class).getAsLong()));
+    when(rowCountEstimator.estimate(eq("customer"), eq(predicate), any(LongSupplier.class)))
+        .thenReturn(5000L);
+
+    // Act
+    Slice<CustomerSummary> result = customerService.findSummariesBy(predicate, pageable,
+        CountMode.ESTIMATED);
+
+    // Assert
+    assertEquals(5000L, ((Page<CustomerSummary>) result).getTotalElements());
+    verify(repository, never()).count(predicate);
+  }
+
+  @Test
+  void testFindSummariesByRank_KeepsRankOrder() {
+    // Arrange
+    CustomerSummary first = new CustomerSummary();
+    first.setSk(3L);
+    CustomerSummary second = new CustomerSummary();
+    second.setSk(5L);
+    when(repository.findSummariesByIds(List.of(3L, 5L))).thenReturn(List.of(second, first));
+
+    // Act
+    Page<CustomerSummary> result = customerService.findSummariesByRank(List.of(9L, 7L, 3L, 5L),
+        PageRequest.of(1, 2));
+
+    // Assert
+    assertEquals(List.of(first, second), result.getContent());
+    assertEquals(4, result.getTotalElements());
+  }
+
+  @Test
+  void testFindSummariesByRank_PageBeyondResults() {
+    // Act
+    Page<CustomerSummary> result = customerService.findSummariesByRank(List.of(9L),
+        PageRequest.of(3, 10));
+
+    // Assert
+    assertTrue(result.getContent().isEmpty());
+    assertEquals(1, result.getTotalElements());
+  }
+
+  @Test
+  void testFindSummariesInOrder_SkipsMissingAndRepeatedIds() {
+    // Arrange
+    CustomerSummary first = new CustomerSummary();
+    first.setSk(8L);
+    CustomerSummary second = new CustomerSummary();
+    second.setSk(2L);
+    when(repository.findSummariesByIds(List.of(8L, 4L, 2L))).thenReturn(List.of(second, first));
+
+    // Act
+    List<CustomerSummary> result = customerService.findSummariesInOrder(List.of(8L, 4L, 8L, 2L));
+
+    // Assert
+    assertEquals(List.of(first, second), result);
+    verify(repository, times(1)).findSummariesByIds(any());
+  }
+
+  @Test
+  void testFindSummariesAfter() {
+    // Arrange
+    Predicate predicate = mock(Predicate.class);
+    CustomerCursor after = new CustomerCursor("Smith", "David", "david@example.com", 1L);
+    CustomerSummary summary = new CustomerSummary();
+    summary.setSk(2L);
+    when(repository.findSummariesAfter(predicate, after, 11)).thenReturn(List.of(summary));
+
+    // Act
+    List<CustomerSummary> result = customerService.findSummariesAfter(predicate, after, 11);
+
+    // Assert
+    assertEquals(List.of(summary), result);
+    verify(repository, times(1)).findSummariesAfter(predicate, after, 11);
+  }
+
+  @Test
+  void testForEachSummary_ConsumesAndClosesTheStream() {
+    Predicate predicate = mock(Predicate.class);
+    CustomerSummary summary = new CustomerSummary();
+    var closed = new AtomicBoolean();
+    when(repository.streamSummaries(predicate, 500))
+        .thenReturn(Stream.of(summary).onClose(() -> closed.set(true)));
+    List<CustomerSummary> consumed = new ArrayList<>();
+
+    customerService.forEachSummary(predicate, 500, consumed::add);
+
+    assertEquals(List.of(summary), consumed);
+    assertTrue(closed.get());
+  }
+
   @Test
   void testFindAllBy_NoResults() {
     // Arrange
@@ -112,6 +289,7 @@ public class CustomerServiceTest {
 
     // Assert
     verify(repository, times(1)).delete(customer);
+    verify(eventPublisher).publishEvent(any(CustomerChangedEvent.class));
   }
 
   @Test
@@ -146,6 +324,7 @@ public class CustomerServiceTest {
     assertEquals(1L, result.getSk());
     assertEquals("test@example.com", result.getEmail());
     verify(repository, times(1)).save(customer);
+    verify(eventPublisher).publishEvent(any(CustomerChangedEvent.class));
   }
 
 
@@ -163,6 +342,141 @@ public class CustomerServiceTest {
     assertTrue(exception.getMessage().contains("Database error"));
 
     verify(repository, times(1)).save(customer);
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void testSave_OptimisticLockingFailureIsPropagated() {
+    CustomerEntity customer = new CustomerEntity();
+    customer.setSk(1L);
+
+    when(repository.save(customer)).thenThrow(
+        new ObjectOptimisticLockingFailureException(CustomerEntity.class, 1L));
+
+    assertThrows(OptimisticLockingFailureException.class, () -> customerService.save(customer));
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void testUpdateFields_UpdatedWithExpectedVersion() {
+    var changes = new CustomerFieldChanges("John", null, null, null);
+    when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+    when(repository.updateFields(eq(1L), eq(3L), eq(changes), eq("admin"), any(Date.class)))
+        .thenReturn(1L);
+
+    assertTrue(customerService.updateFields(1L, 3L, changes));
+    verify(eventPublisher).publishEvent(any(CustomerChangedEvent.class));
+  }
+
+  @Test
+  void testUpdateFields_StaleVersionIsNotUpdated() {
+    var changes = new CustomerFieldChanges("John", null, null, null);
+    when(auditorAware.getCurrentAuditor()).thenReturn(Optional.of("admin"));
+    when(repository.updateFields(eq(1L), eq(3L), eq(changes), eq("admin"), any(Date.class)))
+        .thenReturn(0L);
+
+    assertFalse(customerService.updateFields(1L, 3L, changes));
+    verify(eventPublisher, never()).publishEvent(any(Object.class));
+  }
+
+  @Test
+  void testSaveAllNew_SkipsExistingEmails() {
+    CustomerEntity existing = new CustomerEntity();
+    existing.setEmail("Taken@Example.com");
+    CustomerEntity created = new CustomerEntity();
+    created.setEmail("new@example.com");
+    when(repository.findExistingEmails(List.of("taken@example.com", "new@example.com")))
+        .thenReturn(Set.of("taken@example.com"));
+    when(repository.saveAll(List.of(created))).thenAnswer(invocation -> {
+      created.setSk(7L);
+      return List.of(created);
+    });
+
+    Set<String> result = customerService.saveAllNew(List.of(existing, created));
+
+    assertEquals(Set.of("taken@example.com"), result);
+    verify(repository).saveAll(List.of(created));
+    var event = ArgumentCaptor.forClass(CustomersCreatedEvent.class);
+    verify(eventPublisher).publishEvent(event.capture());
+    assertEquals(List.of(7L), event.getValue().getCustomerIds());
+  }
+
+  @Test
+  void testApplyBatch_AppliesEveryOperationInOneTransaction() {
+    CustomerEntity taken = new CustomerEntity();
+    taken.setEmail("taken@example.com");
+    CustomerEntity created = new CustomerEntity();
+    created.setEmail("new@example.com");
+    CustomerEntity repeated = new CustomerEntity();
+    repeated.setEmail("NEW@example.com");
+    when(repository.findExistingEmails(List.of("taken@example.com", "new@example.com")))
+        .thenReturn(Set.of("taken@example.com"));
+    when(repository.saveAll(List.of(created))).thenAnswer(invocation -> {
+      created.setSk(7L);
+      return List.of(created);
+    });
+    CustomerEntity loaded = new CustomerEntity();
+    loaded.setSk(3L);
+    when(repository.findAllById(List.of(3L, 4L))).thenReturn(List.of(loaded));
+    when(repository.findExistingIds(List.of(5L, 6L))).thenReturn(Set.of(5L));
+
+    CustomerBatchResult result = customerService.applyBatch(
+        List.of(taken, created, repeated),
+        List.of(new CustomerUpdate(3L, entity -> entity.setFirstName("Updated")),
+            new CustomerUpdate(4L, entity -> entity.setFirstName("Missing"))),
+        List.of(5L, 6L));
+
+    assertEquals(Arrays.asList(null, 7L, null), result.createdIds());
+    assertEquals(Set.of(3L), result.updatedIds());
+    assertEquals(Set.of(5L), result.deletedIds());
+    assertEquals("Updated", loaded.getFirstName());
+    InOrder order = inOrder(repository);
+    order.verify(repository).flush();
+    order.verify(repository).deleteByIds(Set.of(5L));
+    verify(repository, never()).findById(any());
+    var events = ArgumentCaptor.forClass(Object.class);
+    verify(eventPublisher, times(2)).publishEvent(events.capture());
+    assertEquals(List.of(7L),
+        ((CustomersCreatedEvent) events.getAllValues().get(0)).getCustomerIds());
+    assertEquals(List.of(3L, 5L),
+        ((CustomersChangedEvent) events.getAllValues().get(1)).getCustomerIds());
+  }
+
+  @Test
+  void testApplyBatch_ReportsUpdatesToUsedEmails() {
+    CustomerEntity keepsEmail = customer(3L, "own@example.com");
+    CustomerEntity takesEmail = customer(4L, "other@example.com");
+    CustomerEntity changesEmail = customer(5L, "another@example.com");
+    CustomerEntity repeatsEmail = customer(7L, "last@example.com");
+    when(repository.findExistingEmails(
+        List.of("own@example.com", "taken@example.com", "free@example.com")))
+        .thenReturn(Set.of("own@example.com", "taken@example.com"));
+    when(repository.findAllById(List.of(3L, 4L, 6L, 5L, 7L)))
+        .thenReturn(List.of(keepsEmail, takesEmail, changesEmail, repeatsEmail));
+    when(repository.findExistingIds(List.of())).thenReturn(Set.of());
+
+    CustomerBatchResult result = customerService.applyBatch(List.of(),
+        List.of(new CustomerUpdate(3L, "OWN@example.com", entity -> entity.setFirstName("Kept")),
+            new CustomerUpdate(4L, "taken@example.com", entity -> entity.setFirstName("Taken")),
+            new CustomerUpdate(6L, "free@example.com", entity -> entity.setFirstName("Missing")),
+            new CustomerUpdate(5L, "free@example.com", entity -> entity.setFirstName("Free")),
+            new CustomerUpdate(7L, "FREE@example.com", entity -> entity.setFirstName("Repeated"))),
+        List.of());
+
+    assertEquals(Set.of(3L, 5L), result.updatedIds());
+    assertEquals(Set.of(4L, 7L), result.conflictedIds());
+    assertEquals("Kept", keepsEmail.getFirstName());
+    assertEquals("Free", changesEmail.getFirstName());
+    assertNull(takesEmail.getFirstName());
+    assertNull(repeatsEmail.getFirstName());
+    verify(repository, times(1)).findExistingEmails(any());
+  }
+
+  private static CustomerEntity customer(Long sk, String email) {
+    CustomerEntity customer = new CustomerEntity();
+    customer.setSk(sk);
+    customer.setEmail(email);
+    return customer;
   }
 
   // Test for findByEmailIgnoreCase method
@@ -0,0 +1,106 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+class DatabasePictureStoreTest {
+
+  private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+  private static final String HASH = "hash";
+
+  @Mock
+  private JdbcTemplate jdbcTemplate;
+
+  private DatabasePictureStore store;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    store = new DatabasePictureStore(jdbcTemplate, 4);
+  }
+
+  @Test
+  void testOpen_ReadsContentInChunks() throws IOException {
+    when(jdbcTemplate.query(contains("content_size"), any(RowMapper.class), eq(HASH)))
+        .thenReturn(List.of((long) CONTENT.length));
+    when(jdbcTemplate.queryForObject(contains("substring"), eq(byte[].class), any(), any(),
+        eq(HASH))).thenAnswer(invocation -> {
+          final int from = invocation.getArgument(2, Integer.class) - 1;
+          final int length = invocation.getArgument(3, Integer.class);
+          return Arrays.copyOfRange(CONTENT, from, Math.min(from + length, CONTENT.length));
+        });
+
+    try (var content = store.open(HASH).orElseThrow()) {
+      assertArrayEquals(CONTENT, content.readAllBytes());
+    }
+    verify(jdbcTemplate, times(3)).queryForObject(contains("substring"), eq(byte[].class),
+        any(), any(), eq(HASH));
+  }
+
+  @Test
+  void testOpen_MissingPicture() {
+    when(jdbcTemplate.query(contains("content_size"), any(RowMapper.class), eq(HASH)))
+        .thenReturn(List.of());
+
+    assertFalse(store.open(HASH).isPresent());
+  }
+
+  @Test
+  void testOpen_PictureDeletedWhileReading() {
+    when(jdbcTemplate.query(contains("content_size"), any(RowMapper.class), eq(HASH)))
+        .thenReturn(List.of((long) CONTENT.length));
+    when(jdbcTemplate.queryForObject(contains("substring"), eq(byte[].class), any(), any(),
+        eq(HASH))).thenReturn(null);
+
+    assertThrows(IOException.class, () -> store.open(HASH).orElseThrow().readAllBytes());
+  }
+
+  @Test
+  void testStore_IgnoresConcurrentlyStoredContent() throws IOException {
+    store.store(new ByteArrayInputStream(CONTENT));
+
+    verify(jdbcTemplate).update(contains("ON CONFLICT (hash) DO NOTHING"),
+        any(PreparedStatementSetter.class));
+    verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Integer.class), anyString());
+  }
+
+  @Test
+  void testStore_StreamsKnownPictureDirectly() throws Exception {
+    var content = new ByteArrayInputStream(CONTENT);
+
+    store.store(new StoredPicture(HASH, CONTENT.length), content);
+
+    var setter = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+    verify(jdbcTemplate).update(contains("ON CONFLICT (hash) DO NOTHING"), setter.capture());
+    var preparedStatement = mock(PreparedStatement.class);
+    setter.getValue().setValues(preparedStatement);
+    verify(preparedStatement).setString(1, HASH);
+    verify(preparedStatement).setBinaryStream(2, content, (long) CONTENT.length);
+    verify(preparedStatement).setLong(3, CONTENT.length);
+  }
+}
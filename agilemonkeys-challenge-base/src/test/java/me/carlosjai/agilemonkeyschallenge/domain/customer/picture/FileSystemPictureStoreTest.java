@@ -0,0 +1,177 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileSystemPictureStoreTest {
+
+  private static final byte[] CONTENT = "test".getBytes(StandardCharsets.UTF_8);
+  private static final String CONTENT_HASH =
+      "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+  @TempDir
+  Path directory;
+
+  private FileSystemPictureStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new FileSystemPictureStore(directory.resolve("primary"));
+  }
+
+  @Test
+  void testStore_ReferencesContentByHash() throws IOException {
+    StoredPicture storedPicture = store.store(new ByteArrayInputStream(CONTENT));
+
+    assertEquals(CONTENT_HASH, storedPicture.getHash());
+    assertEquals(CONTENT.length, storedPicture.getSize());
+    assertTrue(store.contains(CONTENT_HASH));
+    assertEquals(directory.resolve("primary/9f/86/" + CONTENT_HASH),
+        store.path(CONTENT_HASH).orElseThrow());
+    assertArrayEquals(CONTENT, read(store, CONTENT_HASH));
+  }
+
+  @Test
+  void testStore_DeduplicatesIdenticalContent() throws IOException {
+    store.store(new ByteArrayInputStream(CONTENT));
+    store.store(new ByteArrayInputStream(CONTENT));
+
+    try (var files = Files.list(directory.resolve("primary/tmp"))) {
+      assertEquals(0, files.count());
+    }
+    assertArrayEquals(CONTENT, read(store, CONTENT_HASH));
+  }
+
+  @Test
+  void testOpen_MissingOrInvalidHash() throws IOException {
+    assertFalse(store.open(CONTENT_HASH).isPresent());
+    assertFalse(store.open("../../etc/passwd").isPresent());
+  }
+
+  @Test
+  void testDelete() throws IOException {
+    store.store(new ByteArrayInputStream(CONTENT));
+
+    store.delete(CONTENT_HASH);
+
+    assertFalse(store.contains(CONTENT_HASH));
+  }
+
+  @Test
+  void testTieredStore_PromotesFallbackContent() throws IOException {
+    var fallback = new FileSystemPictureStore(directory.resolve("fallback"));
+    fallback.store(new ByteArrayInputStream(CONTENT));
+    var tieredStore = new TieredPictureStore(store, fallback);
+
+    assertArrayEquals(CONTENT, read(tieredStore, CONTENT_HASH));
+    assertTrue(store.contains(CONTENT_HASH));
+  }
+
+  @Test
+  void testTieredStore_WritesThroughToFallback() throws IOException {
+    var fallback = new FileSystemPictureStore(directory.resolve("fallback"));
+    var tieredStore = new TieredPictureStore(store, fallback);
+
+    tieredStore.store(new ByteArrayInputStream(CONTENT));
+    store.delete(CONTENT_HASH);
+
+    assertTrue(fallback.contains(CONTENT_HASH));
+    assertArrayEquals(CONTENT, read(tieredStore, CONTENT_HASH));
+  }
+
+  @Test
+  void testTieredStore_PassesKnownHashToFallback() throws IOException {
+    var fallback = mock(PictureStore.class);
+    var tieredStore = new TieredPictureStore(store, fallback);
+
+    tieredStore.store(new ByteArrayInputStream(CONTENT));
+
+    verify(fallback).store(eq(new StoredPicture(CONTENT_HASH, CONTENT.length)),
+        any(InputStream.class));
+    verify(fallback, never()).store(any(InputStream.class));
+  }
+
+  @Test
+  void testStore_StreamsContentLargerThanAnyBuffer() throws IOException {
+    final long size = 128L * 1024 * 1024;
+    final var expectedDigest = PictureFiles.sha256();
+    final var buffer = new byte[8192];
+    try (var generated = new GeneratedStream(size)) {
+      int read;
+      while ((read = generated.read(buffer, 0, buffer.length)) != -1) {
+        expectedDigest.update(buffer, 0, read);
+      }
+    }
+
+    final StoredPicture storedPicture;
+    try (var content = new BufferedInputStream(
+        new SizeLimitedInputStream(new GeneratedStream(size), size))) {
+      assertEquals(PictureFormat.PNG, PictureFormat.detect(content).orElseThrow());
+      storedPicture = store.store(content);
+    }
+
+    assertEquals(HexFormat.of().formatHex(expectedDigest.digest()), storedPicture.getHash());
+    assertEquals(size, storedPicture.getSize());
+    assertEquals(size, Files.size(store.path(storedPicture.getHash()).orElseThrow()));
+  }
+
+  private static byte[] read(PictureStore pictureStore, String hash) throws IOException {
+    try (InputStream content = pictureStore.open(hash).orElseThrow()) {
+      return content.readAllBytes();
+    }
+  }
+
+  /**
+   * Generates a PNG signature followed by a repeating pattern, without holding the content in
+   * memory.
+   */
+  private static class GeneratedStream extends InputStream {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private final long size;
+    private long position;
+
+    GeneratedStream(long size) {
+      this.size = size;
+    }
+
+    @Override
+    public int read() {
+      final var single = new byte[1];
+      return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+      if (position >= size) {
+        return -1;
+      }
+      final int count = (int) Math.min(len, size - position);
+      for (int i = 0; i < count; i++) {
+        final long index = position + i;
+        b[off + i] = index < SIGNATURE.length ? SIGNATURE[(int) index] : (byte) (index % 251);
+      }
+      position += count;
+      return count;
+    }
+  }
+}
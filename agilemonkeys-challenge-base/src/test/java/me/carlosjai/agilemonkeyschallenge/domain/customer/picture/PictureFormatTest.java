@@ -0,0 +1,69 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class PictureFormatTest {
+
+  @Test
+  void testDetect_KnownSignatures() {
+    assertEquals(Optional.of(PictureFormat.JPEG),
+        PictureFormat.detect(new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0}));
+    assertEquals(Optional.of(PictureFormat.PNG),
+        PictureFormat.detect(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}));
+    assertEquals(Optional.of(PictureFormat.GIF),
+        PictureFormat.detect("GIF89a..".getBytes(StandardCharsets.US_ASCII)));
+    assertEquals(Optional.of(PictureFormat.BMP),
+        PictureFormat.detect("BM......".getBytes(StandardCharsets.US_ASCII)));
+    assertEquals(Optional.of(PictureFormat.TIFF),
+        PictureFormat.detect(new byte[]{'M', 'M', 0, '*'}));
+  }
+
+  @Test
+  void testDetect_UnknownOrTruncatedContent() {
+    assertFalse(PictureFormat.detect("<svg>".getBytes(StandardCharsets.US_ASCII)).isPresent());
+    assertFalse(PictureFormat.detect(new byte[]{(byte) 0x89, 'P'}).isPresent());
+    assertFalse(PictureFormat.detect(new byte[0]).isPresent());
+  }
+
+  @Test
+  void testDetect_StreamIsResetAfterPeeking() throws IOException {
+    final byte[] content = "GIF87a-content".getBytes(StandardCharsets.US_ASCII);
+    final var stream = new BufferedInputStream(new ByteArrayInputStream(content));
+
+    assertEquals(Optional.of(PictureFormat.GIF), PictureFormat.detect(stream));
+    assertArrayEquals(content, stream.readAllBytes());
+  }
+
+  @Test
+  void testDetect_RequiresMarkSupport() {
+    assertThrows(IllegalArgumentException.class,
+        () -> PictureFormat.detect(InputStreamWithoutMark.of("BM")));
+  }
+
+  private static final class InputStreamWithoutMark extends FilterInputStream {
+
+    private InputStreamWithoutMark(byte[] content) {
+      super(new ByteArrayInputStream(content));
+    }
+
+    static InputStreamWithoutMark of(String content) {
+      return new InputStreamWithoutMark(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.junit.jupiter.api.Test;
+
+class SizeLimitedInputStreamTest {
+
+  @Test
+  void testRead_ContentWithinLimit() throws IOException {
+    final byte[] content = {1, 2, 3, 4};
+
+    try (var stream = new SizeLimitedInputStream(new ByteArrayInputStream(content), 4)) {
+      assertArrayEquals(content, stream.readAllBytes());
+    }
+  }
+
+  @Test
+  void testRead_FailsAsSoonAsLimitIsExceeded() {
+    final var stream = new SizeLimitedInputStream(new ByteArrayInputStream(new byte[5]), 4);
+
+    final var exception = assertThrows(PictureTooLargeException.class,
+        () -> stream.transferTo(OutputStream.nullOutputStream()));
+    assertEquals(4, exception.getMaxSize());
+  }
+
+  @Test
+  void testReset_DoesNotCountPeekedBytesTwice() throws IOException {
+    final var stream = new SizeLimitedInputStream(
+        new BufferedInputStream(new ByteArrayInputStream(new byte[4])), 4);
+
+    stream.mark(4);
+    stream.readNBytes(3);
+    stream.reset();
+
+    assertEquals(4, stream.readAllBytes().length);
+  }
+}
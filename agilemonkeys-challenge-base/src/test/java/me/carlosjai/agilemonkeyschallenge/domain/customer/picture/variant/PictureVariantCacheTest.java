@@ -0,0 +1,99 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PictureVariantCacheTest {
+
+  private static final String HASH_A = "a".repeat(64);
+  private static final String HASH_B = "b".repeat(64);
+  private static final String HASH_C = "c".repeat(64);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testPut_StoresVariantByHashAndWidth() throws IOException {
+    final var cache = new PictureVariantCache(directory, 1024);
+
+    final var variant = cache.put(HASH_A, 64, target -> write(target, 10, "jpg"));
+
+    assertEquals(directory.resolve(HASH_A + "-64.jpg"), variant);
+    assertEquals(variant, cache.get(HASH_A, 64).orElseThrow());
+    assertFalse(cache.get(HASH_A, 128).isPresent());
+    assertEquals(10, cache.totalBytes());
+  }
+
+  @Test
+  void testPut_EvictsLeastRecentlyUsedBeyondMaximumBytes() throws IOException {
+    final var cache = new PictureVariantCache(directory, 25);
+    cache.put(HASH_A, 64, target -> write(target, 10, "jpg"));
+    cache.put(HASH_B, 64, target -> write(target, 10, "jpg"));
+    cache.get(HASH_A, 64);
+
+    cache.put(HASH_C, 64, target -> write(target, 10, "png"));
+
+    assertTrue(cache.get(HASH_A, 64).isPresent());
+    assertFalse(cache.get(HASH_B, 64).isPresent());
+    assertFalse(Files.exists(directory.resolve(HASH_B + "-64.jpg")));
+    assertTrue(cache.get(HASH_C, 64).isPresent());
+    assertEquals(20, cache.totalBytes());
+  }
+
+  @Test
+  void testOpen_KeepsReadingVariantDeletedAfterOpening() throws IOException {
+    final var cache = new PictureVariantCache(directory, 1024);
+    cache.put(HASH_A, 64, target -> write(target, 10, "jpg"));
+
+    try (var variant = cache.open(HASH_A, 64).orElseThrow()) {
+      cache.invalidate(HASH_A);
+
+      assertFalse(Files.exists(variant.file()));
+      assertEquals("jpg", variant.extension());
+      assertEquals(10, variant.size());
+      assertEquals(10, Channels.newInputStream(variant.channel()).readAllBytes().length);
+    }
+    assertFalse(cache.open(HASH_A, 64).isPresent());
+  }
+
+  @Test
+  void testInvalidate_DeletesEveryWidthOfTheContent() throws IOException {
+    final var cache = new PictureVariantCache(directory, 1024);
+    cache.put(HASH_A, 64, target -> write(target, 10, "jpg"));
+    cache.put(HASH_A, 128, target -> write(target, 20, "jpg"));
+    cache.put(HASH_B, 64, target -> write(target, 10, "jpg"));
+
+    cache.invalidate(HASH_A);
+
+    assertFalse(cache.get(HASH_A, 64).isPresent());
+    assertFalse(cache.get(HASH_A, 128).isPresent());
+    assertTrue(cache.get(HASH_B, 64).isPresent());
+    assertEquals(1, cache.size());
+    assertEquals(10, cache.totalBytes());
+  }
+
+  @Test
+  void testConstructor_ReloadsExistingVariants() throws IOException {
+    new PictureVariantCache(directory, 1024).put(HASH_A, 64, target -> write(target, 10, "png"));
+    Files.writeString(directory.resolve("unrelated.txt"), "ignored");
+
+    final var cache = new PictureVariantCache(directory, 1024);
+
+    assertTrue(cache.get(HASH_A, 64).isPresent());
+    assertEquals(1, cache.size());
+    assertEquals(10, cache.totalBytes());
+  }
+
+  private static String write(Path target, int size, String extension) throws IOException {
+    Files.write(target, new byte[size]);
+    return extension;
+  }
+}
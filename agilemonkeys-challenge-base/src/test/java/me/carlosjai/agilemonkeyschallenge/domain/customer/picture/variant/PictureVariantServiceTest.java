@@ -0,0 +1,117 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.picture.variant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.imageio.ImageIO;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.picture.FileSystemPictureStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PictureVariantServiceTest {
+
+  @TempDir
+  Path directory;
+
+  private FileSystemPictureStore pictureStore;
+  private PictureVariantCache cache;
+  private PictureVariantService service;
+
+  @BeforeEach
+  void setUp() {
+    pictureStore = new FileSystemPictureStore(directory.resolve("pictures"));
+    cache = new PictureVariantCache(directory.resolve("variants"), 1024 * 1024);
+    service = new PictureVariantService(pictureStore, cache, List.of(64, 128), 1, 8);
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void testGetVariant_DownscalesKeepingAspectRatio() throws IOException {
+    final var hash = store(image(400, 200, BufferedImage.TYPE_INT_RGB), "jpg");
+
+    try (var variant = service.openVariant(hash, 64).orElseThrow();
+        var cached = service.openVariant(hash, 64).orElseThrow()) {
+      final var resized = ImageIO.read(Channels.newInputStream(variant.channel()));
+      assertEquals(64, resized.getWidth());
+      assertEquals(32, resized.getHeight());
+      assertEquals("jpg", variant.extension());
+      assertEquals(variant.file(), cached.file());
+    }
+  }
+
+  @Test
+  void testGetVariant_KeepsTransparencyAsPng() throws IOException {
+    final var hash = store(image(300, 300, BufferedImage.TYPE_INT_ARGB), "png");
+
+    try (var variant = service.openVariant(hash, 128).orElseThrow()) {
+      assertEquals("png", variant.extension());
+      assertTrue(ImageIO.read(Channels.newInputStream(variant.channel())).getColorModel()
+          .hasAlpha());
+    }
+  }
+
+  @Test
+  void testGetVariant_DoesNotUpscale() throws IOException {
+    final var hash = store(image(40, 20, BufferedImage.TYPE_INT_RGB), "png");
+
+    try (var variant = service.openVariant(hash, 128).orElseThrow()) {
+      assertEquals(40, ImageIO.read(Channels.newInputStream(variant.channel())).getWidth());
+    }
+  }
+
+  @Test
+  void testGetVariant_MissingPictureOrUnsupportedWidth() throws IOException {
+    assertFalse(service.openVariant("f".repeat(64), 64).isPresent());
+    assertThrows(IllegalArgumentException.class, () -> service.openVariant("f".repeat(64), 65));
+  }
+
+  @Test
+  void testGenerateAsync_CreatesEveryWidthAndInvalidateRemovesThem() throws Exception {
+    final var hash = store(image(400, 200, BufferedImage.TYPE_INT_RGB), "jpg");
+
+    service.generateAsync(hash);
+    service.shutdown();
+    assertTrue(awaitTermination());
+
+    assertTrue(cache.get(hash, 64).isPresent());
+    assertTrue(cache.get(hash, 128).isPresent());
+
+    service.invalidate(hash);
+
+    assertEquals(0, cache.size());
+  }
+
+  private boolean awaitTermination() throws InterruptedException {
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+    while (cache.size() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    return cache.size() == 2;
+  }
+
+  private String store(BufferedImage image, String format) throws IOException {
+    final var output = new ByteArrayOutputStream();
+    ImageIO.write(image, format, output);
+    return pictureStore.store(new ByteArrayInputStream(output.toByteArray())).getHash();
+  }
+
+  private static BufferedImage image(int width, int height, int type) {
+    return new BufferedImage(width, height, type);
+  }
+}
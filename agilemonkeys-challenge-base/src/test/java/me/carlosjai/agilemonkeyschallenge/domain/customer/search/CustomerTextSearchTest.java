@@ -0,0 +1,94 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.querydsl.core.types.Order;
+import java.util.List;
+import java.util.Optional;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.search.index.CustomerIndex;
+import me.carlosjai.agilemonkeyschallenge.domain.util.DatabaseProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CustomerTextSearchTest {
+
+  private DatabaseProduct databaseProduct;
+  private CustomerIndex customerIndex;
+  private CustomerTextSearch textSearch;
+
+  @BeforeEach
+  void setUp() {
+    databaseProduct = mock(DatabaseProduct.class);
+    customerIndex = mock(CustomerIndex.class);
+    textSearch = new CustomerTextSearch(databaseProduct, Optional.empty(), 100);
+  }
+
+  @Test
+  void testMatching_IgnoresCaseOnEverySearchedField() {
+    var predicate = textSearch.matching("David").toString();
+
+    assertTrue(predicate.contains("containsIc(customerEntity.firstName,David)"));
+    assertTrue(predicate.contains("containsIc(customerEntity.lastName,David)"));
+    assertTrue(predicate.contains("containsIc(customerEntity.email,David)"));
+  }
+
+  @Test
+  void testRelevance_RankedOnPostgres() {
+    when(databaseProduct.isPostgres()).thenReturn(true);
+
+    var relevance = textSearch.relevance("David").orElseThrow();
+
+    assertEquals(Order.DESC, relevance.getOrder());
+    assertTrue(relevance.getTarget().toString().contains("word_similarity"));
+    assertTrue(relevance.getTarget().toString().contains("david"));
+  }
+
+  @Test
+  void testRelevance_NotRankedOnOtherDatabases() {
+    when(databaseProduct.isPostgres()).thenReturn(false);
+
+    assertTrue(textSearch.relevance("David").isEmpty());
+  }
+
+  @Test
+  void testRankedIds_FromReadyIndex() {
+    textSearch = new CustomerTextSearch(databaseProduct, Optional.of(customerIndex), 100);
+    when(customerIndex.isReady()).thenReturn(true);
+    when(customerIndex.search("david", 100)).thenReturn(List.of(3L, 1L));
+
+    assertEquals(Optional.of(List.of(3L, 1L)), textSearch.rankedIds("david"));
+  }
+
+  @Test
+  void testMatching_NotResolvedByReadyIndex() {
+    textSearch = new CustomerTextSearch(databaseProduct, Optional.of(customerIndex), 100);
+    when(customerIndex.isReady()).thenReturn(true);
+
+    assertTrue(textSearch.matching("david").toString().contains("containsIc"));
+    verify(customerIndex, never()).search("david", 100);
+  }
+
+  @Test
+  void testRankedIds_IndexWithoutMatches() {
+    textSearch = new CustomerTextSearch(databaseProduct, Optional.of(customerIndex), 100);
+    when(customerIndex.isReady()).thenReturn(true);
+    when(customerIndex.search("nobody", 100)).thenReturn(List.of());
+
+    assertEquals(Optional.of(List.of()), textSearch.rankedIds("nobody"));
+  }
+
+  @Test
+  void testRankedIds_FallsBackWhileIndexIsLoading() {
+    textSearch = new CustomerTextSearch(databaseProduct, Optional.of(customerIndex), 100);
+    when(customerIndex.isReady()).thenReturn(false);
+
+    assertTrue(textSearch.rankedIds("david").isEmpty());
+    assertTrue(textSearch.matching("david").toString().contains("containsIc"));
+    verify(customerIndex, never()).search("david", 100);
+  }
+}
@@ -0,0 +1,216 @@
+package me.carlosjai.agilemonkeyschallenge.domain.customer.search.index;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomerChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersChangedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.event.CustomersCreatedEvent;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerSummary;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.projection.CustomerWatermark;
+import me.carlosjai.agilemonkeyschallenge.domain.customer.model.repository.CustomerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+class CustomerIndexTest {
+
+  private static final CustomerSummary SMITH = summary(1L, "David", "Smith",
+      "david.smith@outlook.com", "615530523");
+  private static final CustomerSummary GARCIA = summary(2L, "Lucia", "Garcia",
+      "lucia.garcia@gmail.com", "658301134");
+  private static final CustomerSummary SMYTHE = summary(3L, "Anna", "Smythe",
+      "anna@example.com", "610569389");
+  private static final Date INDEXED = new Date(1_700_000_000_000L);
+  private static final Date LATER = new Date(INDEXED.getTime() + 60_000L);
+
+  @TempDir
+  Path directory;
+
+  private CustomerRepository repository;
+  private CustomerIndex index;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    repository = mock(CustomerRepository.class);
+    when(repository.findWatermark()).thenReturn(new CustomerWatermark(3L, INDEXED));
+    when(repository.findSummaryBatch(0L, 2)).thenReturn(List.of(SMITH, GARCIA));
+    when(repository.findSummaryBatch(2L, 2)).thenReturn(List.of(SMYTHE));
+    index = new CustomerIndex(repository, directory, 2);
+    index.load();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    index.close();
+  }
+
+  @Test
+  void testLoad_BuildsIndexInBatches() throws Exception {
+    assertTrue(index.isReady());
+    assertEquals(3, index.numDocs());
+    verify(repository).findSummaryBatch(0L, 2);
+    verify(repository).findSummaryBatch(2L, 2);
+  }
+
+  @Test
+  void testSearch_TermPrefixAndFuzzyMatches() {
+    assertEquals(List.of(2L), index.search("garcia", 10));
+    assertEquals(List.of(2L), index.search("GARC", 10));
+    assertEquals(List.of(1L), index.search("outlook", 10));
+    assertEquals(List.of(1L), index.search("6155", 10));
+    assertEquals(Set.of(1L, 3L), Set.copyOf(index.search("smyth", 10)));
+    assertEquals(List.of(1L), index.search("david smi", 10));
+    assertTrue(index.search("nobody", 10).isEmpty());
+    assertTrue(index.search(" @ ", 10).isEmpty());
+  }
+
+  @Test
+  void testOnCustomerChanged_UpdatesAndDeletes() throws Exception {
+    when(repository.findSummariesByIds(List.of(2L))).thenReturn(List.of(
+        summary(2L, "Lucia", "Fernandez", "lucia.garcia@gmail.com", "658301134")));
+    index.onCustomerChanged(new CustomerChangedEvent(2L));
+
+    assertEquals(List.of(2L), index.search("fernandez", 10));
+
+    when(repository.findSummariesByIds(List.of(1L))).thenReturn(List.of());
+    index.onCustomerChanged(new CustomerChangedEvent(1L));
+
+    assertFalse(index.search("david", 10).contains(1L));
+    assertEquals(2, index.numDocs());
+  }
+
+  @Test
+  void testOnCustomersChanged_UpdatesAndDeletesInOneCommit() throws Exception {
+    when(repository.findSummariesByIds(List.of(2L, 1L))).thenReturn(List.of(
+        summary(2L, "Lucia", "Fernandez", "lucia.garcia@gmail.com", "658301134")));
+
+    index.onCustomersChanged(new CustomersChangedEvent(List.of(2L, 1L)));
+
+    assertEquals(List.of(2L), index.search("fernandez", 10));
+    assertFalse(index.search("david", 10).contains(1L));
+    assertEquals(2, index.numDocs());
+  }
+
+  @Test
+  void testOnCustomersCreated_IndexesEveryCustomer() throws Exception {
+    var created = List.of(summary(4L, "Marta", "Lopez", "marta@example.com", "600111222"),
+        summary(5L, "Pedro", "Lopez", "pedro@example.com", "600333444"));
+    when(repository.findSummariesByIds(List.of(4L, 5L))).thenReturn(created);
+
+    index.onCustomersCreated(new CustomersCreatedEvent(List.of(4L, 5L)));
+
+    assertEquals(5, index.numDocs());
+    assertEquals(Set.of(4L, 5L), Set.copyOf(index.search("lopez", 10)));
+  }
+
+  @Test
+  void testLoad_ReusesIndexOnRestart() throws Exception {
+    index.close();
+    when(repository.findWatermark()).thenReturn(
+        new CustomerWatermark(3L, new Timestamp(INDEXED.getTime())));
+
+    index = new CustomerIndex(repository, directory, 2);
+    index.load();
+
+    assertEquals(List.of(2L), index.search("garcia", 10));
+    verify(repository, times(1)).findSummaryBatch(0L, 2);
+    verify(repository, never()).findSummaryBatchModifiedSince(any(), anyLong(), anyInt());
+  }
+
+  @Test
+  void testLoad_ReindexesCustomersEditedWhileDown() throws Exception {
+    index.close();
+    when(repository.findWatermark()).thenReturn(new CustomerWatermark(3L, LATER));
+    when(repository.findSummaryBatchModifiedSince(any(), eq(0L), eq(2))).thenReturn(List.of(
+        summary(2L, "Lucia", "Fernandez", "lucia.garcia@gmail.com", "658301134")));
+
+    index = new CustomerIndex(repository, directory, 2);
+    index.load();
+
+    assertEquals(List.of(2L), index.search("fernandez", 10));
+    assertEquals(3, index.numDocs());
+    verify(repository, times(1)).findSummaryBatch(0L, 2);
+    var since = ArgumentCaptor.forClass(Date.class);
+    verify(repository).findSummaryBatchModifiedSince(since.capture(), eq(0L), eq(2));
+    assertTrue(since.getValue().before(INDEXED));
+    assertEquals(LATER, index.indexedWatermark().orElseThrow().lastModifiedDate());
+  }
+
+  @Test
+  void testLoad_RebuildsWhenDeletesAreBalancedByInserts() throws Exception {
+    index.close();
+    var created = summary(4L, "Marta", "Lopez", "marta@example.com", "600111222");
+    when(repository.findWatermark()).thenReturn(new CustomerWatermark(3L, LATER));
+    when(repository.findSummaryBatchModifiedSince(any(), eq(0L), eq(2)))
+        .thenReturn(List.of(created));
+    when(repository.findSummaryBatch(2L, 2)).thenReturn(List.of(created));
+
+    index = new CustomerIndex(repository, directory, 2);
+    index.load();
+
+    assertEquals(3, index.numDocs());
+    assertTrue(index.search("smythe", 10).isEmpty());
+    assertEquals(List.of(4L), index.search("lopez", 10));
+  }
+
+  @Test
+  void testLoad_RebuildsStaleIndexOnRestart() throws Exception {
+    index.close();
+    when(repository.findWatermark()).thenReturn(new CustomerWatermark(1L, INDEXED));
+    when(repository.findSummaryBatch(0L, 2)).thenReturn(List.of(GARCIA));
+
+    index = new CustomerIndex(repository, directory, 2);
+    index.load();
+
+    assertEquals(1, index.numDocs());
+    assertTrue(index.search("smith", 10).isEmpty());
+  }
+
+  @Test
+  void testOnCustomerChanged_CatchesUpAfterFailedChange() throws Exception {
+    when(repository.findSummariesByIds(List.of(2L)))
+        .thenThrow(new IllegalStateException("connection lost"));
+    index.onCustomerChanged(new CustomerChangedEvent(2L));
+
+    assertFalse(index.isReady());
+
+    when(repository.findWatermark()).thenReturn(new CustomerWatermark(3L, LATER));
+    when(repository.findSummaryBatchModifiedSince(any(), eq(0L), eq(2))).thenReturn(List.of(
+        summary(2L, "Lucia", "Fernandez", "lucia.garcia@gmail.com", "658301134"),
+        summary(3L, "Anna", "Navarro", "anna@example.com", "610569389")));
+    index.onCustomerChanged(new CustomerChangedEvent(3L));
+
+    assertTrue(index.isReady());
+    assertEquals(List.of(2L), index.search("fernandez", 10));
+    assertEquals(List.of(3L), index.search("navarro", 10));
+  }
+
+  private static CustomerSummary summary(Long sk, String firstName, String lastName, String email,
+      String phoneNumber) {
+    var summary = new CustomerSummary();
+    summary.setSk(sk);
+    summary.setFirstName(firstName);
+    summary.setLastName(lastName);
+    summary.setEmail(email);
+    summary.setPhoneNumber(phoneNumber);
+    return summary;
+  }
+}
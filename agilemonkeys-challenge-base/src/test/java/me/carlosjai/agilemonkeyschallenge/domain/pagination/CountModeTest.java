@@ -0,0 +1,26 @@
+package me.carlosjai.agilemonkeyschallenge.domain.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class CountModeTest {
+
+  @Test
+  void testFrom_DefaultsToExact() {
+    assertEquals(CountMode.EXACT, CountMode.from(null));
+    assertEquals(CountMode.EXACT, CountMode.from(" "));
+  }
+
+  @Test
+  void testFrom_IgnoresCase() {
+    assertEquals(CountMode.NONE, CountMode.from("none"));
+    assertEquals(CountMode.ESTIMATED, CountMode.from(" Estimated "));
+  }
+
+  @Test
+  void testFrom_RejectsUnknownModes() {
+    assertThrows(IllegalArgumentException.class, () -> CountMode.from("approximate"));
+  }
+}
@@ -0,0 +1,97 @@
+package me.carlosjai.agilemonkeyschallenge.domain.pagination;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.dsl.Expressions;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import me.carlosjai.agilemonkeyschallenge.domain.util.DatabaseProduct;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class RowCountEstimatorTest {
+
+  private static final String ESTIMATE_QUERY =
+      "SELECT reltuples FROM pg_class WHERE oid = to_regclass(?)";
+
+  private JdbcTemplate jdbcTemplate;
+  private DatabaseProduct databaseProduct;
+  private RowCountEstimator estimator;
+  private AtomicInteger exactCounts;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    databaseProduct = mock(DatabaseProduct.class);
+    when(databaseProduct.isPostgres()).thenReturn(true);
+    estimator = new RowCountEstimator(jdbcTemplate, databaseProduct, 10, Duration.ofMinutes(1));
+    exactCounts = new AtomicInteger();
+  }
+
+  @Test
+  void testEstimate_UnfilteredUsesTableStatistics() {
+    when(jdbcTemplate.queryForObject(ESTIMATE_QUERY, Double.class, "customer"))
+        .thenReturn(123456.0);
+
+    var estimate = estimator.estimate("customer", new BooleanBuilder(), this::exactCount);
+
+    assertEquals(123456L, estimate);
+    assertEquals(0, exactCounts.get());
+  }
+
+  @Test
+  void testEstimate_NeverAnalyzedTableFallsBackToCachedCount() {
+    when(jdbcTemplate.queryForObject(ESTIMATE_QUERY, Double.class, "customer")).thenReturn(-1.0);
+
+    assertEquals(42L, estimator.estimate("customer", null, this::exactCount));
+    assertEquals(42L, estimator.estimate("customer", null, this::exactCount));
+    assertEquals(1, exactCounts.get());
+  }
+
+  @Test
+  void testEstimate_FilteredCachesExactCountPerPredicate() {
+    var smith = new BooleanBuilder(Expressions.stringPath("lastName").eq("Smith"));
+    var jones = new BooleanBuilder(Expressions.stringPath("lastName").eq("Jones"));
+
+    estimator.estimate("customer", smith, this::exactCount);
+    estimator.estimate("customer", new BooleanBuilder(
+        Expressions.stringPath("lastName").eq("Smith")), this::exactCount);
+    estimator.estimate("customer", jones, this::exactCount);
+
+    assertEquals(2, exactCounts.get());
+    verify(jdbcTemplate, never()).queryForObject(eq(ESTIMATE_QUERY), eq(Double.class),
+        anyString());
+  }
+
+  @Test
+  void testEstimateTable_OtherDatabases() {
+    when(databaseProduct.isPostgres()).thenReturn(false);
+
+    assertTrue(estimator.estimateTable("customer").isEmpty());
+    verify(jdbcTemplate, never()).queryForObject(eq(ESTIMATE_QUERY), eq(Double.class),
+        anyString());
+  }
+
+  @Test
+  void testEstimateTable_QueryErrors() {
+    when(jdbcTemplate.queryForObject(ESTIMATE_QUERY, Double.class, "customer"))
+        .thenThrow(new QueryTimeoutException("timeout"));
+
+    assertTrue(estimator.estimateTable("customer").isEmpty());
+  }
+
+  private long exactCount() {
+    exactCounts.incrementAndGet();
+    return 42L;
+  }
+}
@@ -0,0 +1,50 @@
+package me.carlosjai.agilemonkeyschallenge.domain.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class DatabaseProductTest {
+
+  @Test
+  void testIsPostgres_DetectedOnce() throws Exception {
+    var dataSource = dataSource("PostgreSQL");
+    var databaseProduct = new DatabaseProduct(dataSource);
+
+    assertTrue(databaseProduct.isPostgres());
+    assertTrue(databaseProduct.isPostgres());
+    verify(dataSource, times(1)).getConnection();
+  }
+
+  @Test
+  void testIsPostgres_OtherDatabases() throws Exception {
+    assertFalse(new DatabaseProduct(dataSource("H2")).isPostgres());
+  }
+
+  @Test
+  void testIsPostgres_UnreachableDatabase() throws Exception {
+    var dataSource = mock(DataSource.class);
+    when(dataSource.getConnection()).thenThrow(new SQLException("down"));
+
+    assertFalse(new DatabaseProduct(dataSource).isPostgres());
+  }
+
+  private static DataSource dataSource(String product) throws SQLException {
+    var dataSource = mock(DataSource.class);
+    var connection = mock(Connection.class);
+    var metaData = mock(DatabaseMetaData.class);
+    when(dataSource.getConnection()).thenReturn(connection);
+    when(connection.getMetaData()).thenReturn(metaData);
+    when(metaData.getDatabaseProductName()).thenReturn(product);
+    return dataSource;
+  }
+}